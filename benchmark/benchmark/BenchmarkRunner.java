@@ -0,0 +1,120 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A small benchmark harness for the model. Every benchmark is run for a warm up period and then
+ * for a number of timed iterations, and the time and the bytes allocated by the benchmark thread
+ * per operation are reported. The allocation is read from the thread allocation counter of the
+ * JVM, so it is the same figure the GC profiler of JMH reports as the normalised allocation rate.
+ */
+final class BenchmarkRunner {
+
+  /**
+   * A single operation that is measured. The value returned is consumed so that the JIT can't
+   * remove the work.
+   */
+  interface Operation {
+    Object run();
+  }
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private final long warmupMillis;
+  private final long iterationMillis;
+  private final int iterations;
+  private final String filter;
+  private final List<String> results;
+  private int sink;
+
+  /**
+   * Constructs the runner.
+   *
+   * @param warmupMillis    warm up time of every benchmark.
+   * @param iterationMillis time of every measured iteration.
+   * @param iterations      number of measured iterations.
+   * @param filter          only benchmarks whose name contains it are run, null runs every one.
+   */
+  BenchmarkRunner(long warmupMillis, long iterationMillis, int iterations, String filter) {
+    if (warmupMillis < 0 || iterationMillis <= 0 || iterations <= 0) {
+      throw new IllegalArgumentException("The benchmark times have to be positive");
+    }
+    this.warmupMillis = warmupMillis;
+    this.iterationMillis = iterationMillis;
+    this.iterations = iterations;
+    this.filter = filter;
+    this.results = new ArrayList<>();
+  }
+
+  /**
+   * Runs the benchmark and records its result.
+   *
+   * @param name      name of the benchmark.
+   * @param operation the operation to measure.
+   */
+  void run(String name, Operation operation) {
+    if (filter != null && !name.contains(filter)) {
+      return;
+    }
+    runFor(operation, warmupMillis * 1_000_000L);
+    double[] nanosPerOp = new double[iterations];
+    long totalOps = 0;
+    long totalBytes = 0;
+    for (int i = 0; i < iterations; i++) {
+      long bytesBefore = THREADS.getCurrentThreadAllocatedBytes();
+      long start = System.nanoTime();
+      long ops = runFor(operation, iterationMillis * 1_000_000L);
+      long elapsed = System.nanoTime() - start;
+      totalBytes += THREADS.getCurrentThreadAllocatedBytes() - bytesBefore;
+      totalOps += ops;
+      nanosPerOp[i] = (double) elapsed / ops;
+    }
+    double mean = 0;
+    for (double value : nanosPerOp) {
+      mean += value;
+    }
+    mean /= iterations;
+    double variance = 0;
+    for (double value : nanosPerOp) {
+      variance += (value - mean) * (value - mean);
+    }
+    double error = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+    String line = String.format(Locale.ROOT, "%-45s %14.1f +- %10.1f ns/op %14.1f B/op",
+            name, mean, error, (double) totalBytes / totalOps);
+    results.add(line);
+    System.out.println(line);
+  }
+
+  /**
+   * Returns the lines of the results recorded so far.
+   *
+   * @return list of results.
+   */
+  List<String> getResults() {
+    return new ArrayList<>(results);
+  }
+
+  private long runFor(Operation operation, long nanos) {
+    long ops = 0;
+    long deadline = System.nanoTime() + nanos;
+    do {
+      Object value = operation.run();
+      sink += value == null ? 0 : System.identityHashCode(value) & 1;
+      ops++;
+    } while (System.nanoTime() < deadline);
+    return ops;
+  }
+
+  /**
+   * Returns a value depending on every result consumed, it keeps the results alive.
+   *
+   * @return the sink.
+   */
+  int getSink() {
+    return sink;
+  }
+}
@@ -0,0 +1,116 @@
+package benchmark;
+
+import maze.Direction;
+import maze.Dungeon;
+import maze.Location;
+import maze.Player;
+import radomnumbergenerator.RandomNumberGenerator;
+
+/**
+ * Benchmarks of the dungeon model. They cover building the dungeon for several sizes, wrapping
+ * modes and interconnectivity levels, and the operations that run on every turn of a game: the
+ * search for the optimal path, the smell check, shooting and moving.
+ *
+ * <p>Run it with the benchmark, src and test folders on the class path, for example
+ * {@code java benchmark.DungeonBenchmarks [filter]}. The times can be changed with the system
+ * properties {@code bench.warmup}, {@code bench.time} (both in milliseconds) and
+ * {@code bench.iterations}.
+ */
+public class DungeonBenchmarks {
+
+  private static final int[] SIZES = {10, 50, 200};
+  private static final int[] INTERCONNECTIVITY = {0, 10};
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args an optional filter, only benchmarks whose name contains it are run.
+   */
+  public static void main(String[] args) {
+    BenchmarkRunner runner = new BenchmarkRunner(
+            Long.getLong("bench.warmup", 2000),
+            Long.getLong("bench.time", 1000),
+            Integer.getInteger("bench.iterations", 5),
+            args.length > 0 ? args[0] : null);
+
+    for (int size : SIZES) {
+      for (boolean wrap : new boolean[]{false, true}) {
+        for (int interconnectivity : INTERCONNECTIVITY) {
+          runner.run(String.format("construct %dx%d wrap=%b ic=%d", size, size, wrap,
+                  interconnectivity), () -> new Dungeon(size, size, wrap, interconnectivity,
+                  0.3, 1, 0, new RandomNumberGenerator()));
+        }
+      }
+    }
+
+    for (int size : SIZES) {
+      Dungeon dungeon = playableDungeon(size);
+      Player player = dungeon.getPlayer();
+      Location start = player.getStartLocation();
+      runner.run(String.format("searchForOptimalPaths %dx%d", size, size), () -> {
+        player.setCurrentLocation(start);
+        return player.searchForOptimalPaths();
+      });
+      player.setCurrentLocation(start);
+
+      Location[][] locations = dungeon.getLocations();
+      int[] cell = {0};
+      runner.run(String.format("checkSmellStrength %dx%d", size, size), () -> {
+        cell[0] = cell[0] + 1 == size * size ? 0 : cell[0] + 1;
+        return locations[cell[0] / size][cell[0] % size].checkSmellStrength();
+      });
+
+      Direction shot = anyExit(start);
+      runner.run(String.format("shoot %dx%d", size, size), () -> {
+        player.setArrowCount(3);
+        return dungeon.shoot(shot, 1);
+      });
+
+      Direction there = anyExit(start);
+      Direction back = opposite(there);
+      boolean[] away = {false};
+      runner.run(String.format("movePlayer %dx%d", size, size), () -> {
+        away[0] = !away[0];
+        return dungeon.movePlayer(away[0] ? there : back);
+      });
+    }
+    System.out.println("sink " + runner.getSink());
+  }
+
+  /**
+   * Builds a dungeon with a single monster and no pits where the monster is not next to the
+   * start, so the per turn operations can be repeated without ending the game.
+   */
+  private static Dungeon playableDungeon(int size) {
+    while (true) {
+      Dungeon dungeon = new Dungeon(size, size, false, 0, 0.3, 1, 0,
+              new RandomNumberGenerator());
+      Location start = dungeon.getPlayer().getStartLocation();
+      if (dungeon.getDistanceToNearestMonster(start) > 2) {
+        return dungeon;
+      }
+    }
+  }
+
+  private static Direction anyExit(Location location) {
+    for (Direction direction : Direction.values()) {
+      if (location.getDirectionOfLocation(direction) != null) {
+        return direction;
+      }
+    }
+    throw new IllegalStateException("The location has no entrance");
+  }
+
+  private static Direction opposite(Direction direction) {
+    switch (direction) {
+      case NORTH:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.NORTH;
+      case EAST:
+        return Direction.WEST;
+      default:
+        return Direction.EAST;
+    }
+  }
+}
@@ -1,10 +1,15 @@
 import controller.DungeonConsoleController;
 import controller.DungeonController;
 import controller.GuiController;
+import journal.GameSetup;
+import journal.JournaledMaze;
+import journal.TurnJournal;
 import maze.Dungeon;
 import radomnumbergenerator.RandomNumberGenerator;
 import view.StartView;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 
 
@@ -18,7 +23,8 @@ public class Driver {
    * Main method.
    *
    * @param args command line parameters that are being accepted are rows, columns, toWrap,
-   *             interconnectivity and treasure coverage.
+   *             interconnectivity, treasure coverage, monsters, pits and optionally the file
+   *             the turns of the game are recorded in.
    */
 
   public static void main(String[] args) {
@@ -41,6 +47,11 @@ public class Driver {
       double treasureCoverage = Double.parseDouble(args[4]);
       int numberOfMonsters = Integer.parseInt(args[5]);
       int noOfPits = Integer.parseInt(args[6]);
+      if (args.length > 7) {
+        playJournaled(input, output, new GameSetup(System.nanoTime(), rows, columns, toWrap,
+                interconnectivity, treasureCoverage, numberOfMonsters, noOfPits), args[7]);
+        return;
+      }
       DungeonController c = new DungeonConsoleController(input, output,
             new Dungeon(rows,columns,toWrap,interconnectivity,treasureCoverage,numberOfMonsters,
                     noOfPits, new RandomNumberGenerator()));
@@ -54,5 +65,18 @@ public class Driver {
 
   }
 
-
+  /**
+   * Plays a console game on a seeded dungeon and records its turns in the journal file, the game
+   * can then be rebuilt with {@link journal.JournalReplay}.
+   */
+  private static void playJournaled(Readable input, Appendable output, GameSetup setup,
+                                    String path) {
+    try (TurnJournal journal = new TurnJournal(new FileOutputStream(path), setup)) {
+      DungeonController c = new DungeonConsoleController(input, output,
+              new JournaledMaze(setup.createDungeon(), journal));
+      c.playGame();
+    } catch (IOException e) {
+      System.out.println("The journal could not be written: " + e.getMessage());
+    }
+  }
 }
@@ -6,6 +6,8 @@ import controller.commands.Shoot;
 import maze.Location;
 import maze.Maze;
 import maze.Smell;
+import metrics.Metric;
+import metrics.Metrics;
 
 import java.io.IOException;
 import java.util.Scanner;
@@ -57,6 +59,7 @@ public class DungeonConsoleController implements DungeonController {
 
       while (input.hasNext() && !dungeon.isGameOver()) {
         String in = input.next();
+        long turn = Metrics.start();
         switch (in) {
           case "q":
           case "quit":
@@ -91,6 +94,7 @@ public class DungeonConsoleController implements DungeonController {
             break;
 
         }
+        Metrics.stop(Metric.CONSOLE_TURN, turn);
       }
     } catch (IOException ioe) {
       throw new IllegalStateException("Append failed", ioe);
@@ -0,0 +1,85 @@
+package controller;
+
+import maze.Dungeon;
+import maze.GenerationListener;
+import maze.GenerationPhase;
+import radomnumbergenerator.RandomNumberGenerator;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import javax.swing.SwingWorker;
+
+/**
+ * The generation of a dungeon for the GUI. The dungeon is built on a worker thread so the window
+ * keeps responding, the completed phases are handed to the start view on the event dispatch
+ * thread. Cancelling the generation does not interrupt the worker, the dungeon stops itself at its
+ * next check and the worker drops it.
+ */
+final class DungeonGeneration extends SwingWorker<Dungeon, GenerationPhase>
+        implements GenerationListener {
+
+  private final GuiController controller;
+  private final int rows;
+  private final int cols;
+  private final boolean wrap;
+  private final int interconnectivity;
+  private final double treasureCoverage;
+  private final int noOfMonsters;
+  private final int noOfPits;
+
+  DungeonGeneration(GuiController controller, int rows, int cols, boolean wrap,
+                    int interconnectivity, double treasureCoverage, int noOfMonsters,
+                    int noOfPits) {
+    this.controller = controller;
+    this.rows = rows;
+    this.cols = cols;
+    this.wrap = wrap;
+    this.interconnectivity = interconnectivity;
+    this.treasureCoverage = treasureCoverage;
+    this.noOfMonsters = noOfMonsters;
+    this.noOfPits = noOfPits;
+  }
+
+  /**
+   * Asks the pool to keep another dungeon with the parameters of this generation ready.
+   *
+   * @param pool the pool of dungeons.
+   */
+  void refill(DungeonPool pool) {
+    pool.refill(rows, cols, wrap, interconnectivity, treasureCoverage, noOfMonsters, noOfPits);
+  }
+
+  @Override
+  protected Dungeon doInBackground() {
+    return new Dungeon(rows, cols, wrap, interconnectivity, treasureCoverage, noOfMonsters,
+            noOfPits, new RandomNumberGenerator(), this);
+  }
+
+  @Override
+  public void phaseCompleted(GenerationPhase phase) {
+    publish(phase);
+  }
+
+  @Override
+  protected void process(List<GenerationPhase> phases) {
+    if (!isCancelled()) {
+      controller.generationProgressed(this, phases.get(phases.size() - 1));
+    }
+  }
+
+  @Override
+  protected void done() {
+    if (isCancelled()) {
+      controller.generationStopped(this, "The creation of the dungeon was cancelled.");
+      return;
+    }
+    try {
+      controller.generated(this, get());
+    } catch (ExecutionException e) {
+      controller.generationStopped(this, e.getCause().getMessage());
+    } catch (InterruptedException | CancellationException e) {
+      controller.generationStopped(this, "The creation of the dungeon was cancelled.");
+    }
+  }
+}
@@ -0,0 +1,282 @@
+package controller;
+
+import maze.Dungeon;
+import maze.GenerationListener;
+import radomnumbergenerator.RandomNumberGenerator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A bounded pool of dungeons generated ahead of time for the parameters the player used recently.
+ * Taking a dungeon for a set of parameters hands out a pooled one when there is one and queues
+ * the generation of its replacement, so a player who plays the same kind of dungeon again does not
+ * wait for it to be built. When none is ready the caller builds its own dungeon and asks for the
+ * pool to be refilled once it is done, so the pool never builds the same dungeon at the same time
+ * as the caller.
+ *
+ * <p>The dungeons are generated one at a time on a thread of the pool, for the last
+ * {@link #RECENT_PARAMETERS} sets of parameters only. The pool keeps an estimate of the memory
+ * its dungeons hold, from {@link Dungeon#estimatedBytes}, and when a new dungeon would go over
+ * the budget it drops the dungeons of the parameters that were used the longest time ago. The
+ * parameters of a dungeon that doesn't fit in the budget on its own are never pooled.
+ */
+public final class DungeonPool {
+
+  /**
+   * Number of sets of parameters the pool keeps dungeons for.
+   */
+  public static final int RECENT_PARAMETERS = 4;
+
+  private final long maxBytes;
+  private final int perParameters;
+  private final Map<Parameters, Deque<Dungeon>> pooled;
+  private final GameLoop generator;
+  private final GenerationListener whileOpen;
+  private long pooledBytes;
+  private volatile boolean closed;
+
+  /**
+   * Constructs the pool and starts its generator thread.
+   *
+   * @param maxBytes      estimated memory the pooled dungeons may hold.
+   * @param perParameters number of dungeons kept ready for each set of parameters.
+   * @throws IllegalArgumentException when the budget or the number of dungeons is not positive.
+   */
+  public DungeonPool(long maxBytes, int perParameters) {
+    if (maxBytes <= 0 || perParameters <= 0) {
+      throw new IllegalArgumentException("The size of the pool has to be positive");
+    }
+    this.maxBytes = maxBytes;
+    this.perParameters = perParameters;
+    // in access order, so the first parameters are the ones used the longest time ago.
+    this.pooled = new LinkedHashMap<>(16, 0.75f, true);
+    this.generator = new GameLoop("dungeon-pool");
+    this.whileOpen = new GenerationListener() {
+      @Override
+      public boolean isCancelled() {
+        return closed;
+      }
+    };
+  }
+
+  /**
+   * Takes a pooled dungeon generated with the given parameters and queues the generation of
+   * another one in the background. Nothing is generated when no dungeon is ready, the caller calls
+   * {@link #refill} once it has built its own.
+   *
+   * @param rows              number of rows for the dungeon.
+   * @param cols              number of columns for the dungeon.
+   * @param wrap              whether the dungeon wraps.
+   * @param interconnectivity interconnectivity value.
+   * @param treasureCoverage  the percentage of caves with treasure.
+   * @param noOfMonsters      number of monsters in the dungeon.
+   * @param noOfPits          number of pits in the dungeon.
+   * @return the dungeon, or null when none is ready yet.
+   */
+  public Dungeon take(int rows, int cols, boolean wrap, int interconnectivity,
+                      double treasureCoverage, int noOfMonsters, int noOfPits) {
+    Parameters parameters = new Parameters(rows, cols, wrap, interconnectivity,
+            treasureCoverage, noOfMonsters, noOfPits);
+    if (closed || parameters.bytes() > maxBytes) {
+      return null;
+    }
+    Dungeon dungeon;
+    synchronized (this) {
+      dungeon = use(parameters).poll();
+      if (dungeon != null) {
+        pooledBytes -= parameters.bytes();
+      }
+    }
+    if (dungeon != null) {
+      generator.submit(() -> refill(parameters));
+    }
+    return dungeon;
+  }
+
+  /**
+   * Queues the generation of dungeons with the given parameters in the background, up to the
+   * number kept ready for every set of parameters.
+   *
+   * @param rows              number of rows for the dungeon.
+   * @param cols              number of columns for the dungeon.
+   * @param wrap              whether the dungeon wraps.
+   * @param interconnectivity interconnectivity value.
+   * @param treasureCoverage  the percentage of caves with treasure.
+   * @param noOfMonsters      number of monsters in the dungeon.
+   * @param noOfPits          number of pits in the dungeon.
+   */
+  public void refill(int rows, int cols, boolean wrap, int interconnectivity,
+                     double treasureCoverage, int noOfMonsters, int noOfPits) {
+    Parameters parameters = new Parameters(rows, cols, wrap, interconnectivity,
+            treasureCoverage, noOfMonsters, noOfPits);
+    if (closed || parameters.bytes() > maxBytes) {
+      return;
+    }
+    synchronized (this) {
+      use(parameters);
+    }
+    generator.submit(() -> refill(parameters));
+  }
+
+  /**
+   * Returns the estimated memory held by the pooled dungeons.
+   *
+   * @return number of bytes.
+   */
+  public synchronized long getPooledBytes() {
+    return pooledBytes;
+  }
+
+  /**
+   * Returns the number of dungeons ready for the given parameters.
+   *
+   * @param rows              number of rows for the dungeon.
+   * @param cols              number of columns for the dungeon.
+   * @param wrap              whether the dungeon wraps.
+   * @param interconnectivity interconnectivity value.
+   * @param treasureCoverage  the percentage of caves with treasure.
+   * @param noOfMonsters      number of monsters in the dungeon.
+   * @param noOfPits          number of pits in the dungeon.
+   * @return number of pooled dungeons.
+   */
+  public synchronized int countReady(int rows, int cols, boolean wrap, int interconnectivity,
+                                     double treasureCoverage, int noOfMonsters,
+                                     int noOfPits) {
+    Deque<Dungeon> ready = pooled.get(new Parameters(rows, cols, wrap, interconnectivity,
+            treasureCoverage, noOfMonsters, noOfPits));
+    return ready == null ? 0 : ready.size();
+  }
+
+  /**
+   * Stops the generation and drops the pooled dungeons. A generation that is running stops at its
+   * next check.
+   */
+  public void close() {
+    closed = true;
+    generator.stop();
+    synchronized (this) {
+      pooled.clear();
+      pooledBytes = 0;
+    }
+  }
+
+  /**
+   * Marks the parameters as the ones used last and drops the dungeons of the parameters used the
+   * longest time ago when there are too many.
+   */
+  private Deque<Dungeon> use(Parameters parameters) {
+    Deque<Dungeon> ready = pooled.computeIfAbsent(parameters, key -> new ArrayDeque<>());
+    Iterator<Map.Entry<Parameters, Deque<Dungeon>>> oldest = pooled.entrySet().iterator();
+    while (pooled.size() > RECENT_PARAMETERS) {
+      Map.Entry<Parameters, Deque<Dungeon>> entry = oldest.next();
+      pooledBytes -= entry.getKey().bytes() * entry.getValue().size();
+      oldest.remove();
+    }
+    return ready;
+  }
+
+  private void refill(Parameters parameters) {
+    while (!closed && wanted(parameters)) {
+      Dungeon dungeon;
+      try {
+        dungeon = new Dungeon(parameters.rows, parameters.cols, parameters.wrap,
+                parameters.interconnectivity, parameters.treasureCoverage,
+                parameters.noOfMonsters, parameters.noOfPits, new RandomNumberGenerator(),
+                whileOpen);
+      } catch (IllegalArgumentException e) {
+        // the form reports the invalid parameters, there is nothing to keep ready.
+        synchronized (this) {
+          pooled.remove(parameters);
+        }
+        return;
+      } catch (CancellationException e) {
+        return;
+      }
+      if (!offer(parameters, dungeon)) {
+        return;
+      }
+    }
+  }
+
+  private synchronized boolean wanted(Parameters parameters) {
+    Deque<Dungeon> ready = pooled.get(parameters);
+    return ready != null && ready.size() < perParameters;
+  }
+
+  private synchronized boolean offer(Parameters parameters, Dungeon dungeon) {
+    if (closed || !pooled.containsKey(parameters)) {
+      return false;
+    }
+    Iterator<Map.Entry<Parameters, Deque<Dungeon>>> oldest = pooled.entrySet().iterator();
+    while (pooledBytes + parameters.bytes() > maxBytes && oldest.hasNext()) {
+      Map.Entry<Parameters, Deque<Dungeon>> entry = oldest.next();
+      if (entry.getKey().equals(parameters)) {
+        continue;
+      }
+      pooledBytes -= entry.getKey().bytes() * entry.getValue().size();
+      oldest.remove();
+    }
+    if (pooledBytes + parameters.bytes() > maxBytes) {
+      return false;
+    }
+    pooled.get(parameters).offer(dungeon);
+    pooledBytes += parameters.bytes();
+    return true;
+  }
+
+  /**
+   * The parameters a dungeon was generated with.
+   */
+  private static final class Parameters {
+
+    private final int rows;
+    private final int cols;
+    private final boolean wrap;
+    private final int interconnectivity;
+    private final double treasureCoverage;
+    private final int noOfMonsters;
+    private final int noOfPits;
+
+    Parameters(int rows, int cols, boolean wrap, int interconnectivity, double treasureCoverage,
+               int noOfMonsters, int noOfPits) {
+      this.rows = rows;
+      this.cols = cols;
+      this.wrap = wrap;
+      this.interconnectivity = interconnectivity;
+      this.treasureCoverage = treasureCoverage;
+      this.noOfMonsters = noOfMonsters;
+      this.noOfPits = noOfPits;
+    }
+
+    long bytes() {
+      return Dungeon.estimatedBytes(rows, cols);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Parameters)) {
+        return false;
+      }
+      Parameters that = (Parameters) o;
+      return rows == that.rows && cols == that.cols && wrap == that.wrap
+              && interconnectivity == that.interconnectivity
+              && Double.compare(treasureCoverage, that.treasureCoverage) == 0
+              && noOfMonsters == that.noOfMonsters && noOfPits == that.noOfPits;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(rows, cols, wrap, interconnectivity, treasureCoverage, noOfMonsters,
+              noOfPits);
+    }
+  }
+}
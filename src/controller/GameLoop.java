@@ -0,0 +1,109 @@
+package controller;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The thread that owns the model while the game is played in the GUI. The view hands it the
+ * commands of the player and goes back to handling input, the loop runs them one after the other
+ * in the order they were given. The commands are kept in a lock-free queue, and the loop parks
+ * when the queue is empty, so giving it a command never blocks. A command that fails is handed to
+ * the failure handler of the loop and the loop goes on with the next one.
+ */
+final class GameLoop implements Runnable {
+
+  private static final Logger LOGGER = Logger.getLogger(GameLoop.class.getName());
+
+  private final Queue<Runnable> commands;
+  private final Consumer<RuntimeException> onFailure;
+  private final Thread thread;
+  private volatile boolean running;
+
+  /**
+   * Constructs the loop that logs the commands that fail and starts its thread.
+   *
+   * @param name name of the thread.
+   */
+  GameLoop(String name) {
+    this(name, e -> LOGGER.log(Level.WARNING, "A command on " + name + " failed", e));
+  }
+
+  /**
+   * Constructs the loop and starts its thread. The thread is a daemon, so it does not keep the
+   * application alive once the windows are closed.
+   *
+   * @param name      name of the thread.
+   * @param onFailure called on the thread of the loop with the exception of a failed command.
+   * @throws IllegalArgumentException when the failure handler is null.
+   */
+  GameLoop(String name, Consumer<RuntimeException> onFailure) {
+    if (onFailure == null) {
+      throw new IllegalArgumentException("Failure handler can't be null");
+    }
+    this.commands = new ConcurrentLinkedQueue<>();
+    this.onFailure = onFailure;
+    this.running = true;
+    this.thread = new Thread(this, name);
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Adds a command to be run on the loop after the commands given before it.
+   *
+   * @param command the command.
+   * @throws IllegalArgumentException when the command is null.
+   * @throws IllegalStateException    when the loop has been stopped.
+   */
+  void submit(Runnable command) {
+    if (command == null) {
+      throw new IllegalArgumentException("Command can't be null");
+    }
+    if (!running) {
+      throw new IllegalStateException("The game loop has been stopped");
+    }
+    commands.offer(command);
+    LockSupport.unpark(thread);
+  }
+
+  /**
+   * Stops the loop once the command it is running is done, the commands still waiting are
+   * dropped.
+   */
+  void stop() {
+    running = false;
+    LockSupport.unpark(thread);
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      Runnable command = commands.poll();
+      if (command == null) {
+        // an unpark that came after the poll lets the park return at once.
+        LockSupport.park(this);
+        continue;
+      }
+      try {
+        command.run();
+      } catch (RuntimeException e) {
+        // a failed command must not stop the game.
+        fail(e);
+      }
+    }
+    commands.clear();
+  }
+
+  private void fail(RuntimeException failure) {
+    try {
+      onFailure.accept(failure);
+    } catch (RuntimeException e) {
+      e.addSuppressed(failure);
+      LOGGER.log(Level.SEVERE, "The failure handler of " + thread.getName() + " failed", e);
+    }
+  }
+}
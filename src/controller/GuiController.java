@@ -2,14 +2,20 @@ package controller;
 
 import maze.Direction;
 import maze.Dungeon;
+import maze.DungeonCheckpoint;
+import maze.DungeonSnapshot;
+import maze.GameEventListener;
+import maze.GenerationPhase;
+import maze.Location;
 import maze.ReadOnlyDungeon;
-import radomnumbergenerator.RandomNumberGenerator;
 import view.IStarterView;
 import view.IView;
 import view.MenuView;
 
-import java.util.ArrayList;
-import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
 
 
 /**
@@ -17,12 +23,38 @@ import java.util.Map;
  * view which gives the user inputs for the model and creates the dungeon model.The model is then
  * passed to the MenuView which displays the dungeon to the user where he can play the game.The
  * model computes the values returns them to controller and the controller returns them to the view.
+ *
+ * <p>Once the game is being played the model is owned by a {@link GameLoop}. The view hands the
+ * moves of the player to {@link #move}, {@link #shoot} and {@link #pickup}, which queue them on
+ * the loop and return at once, so the event dispatch thread never waits for the model. The loop
+ * refreshes the view with a snapshot of the dungeon and gives the outcome back to the event
+ * dispatch thread. A command that fails is logged, the view is refreshed from the model and the
+ * player is told about the failure.
  */
 public class GuiController implements DungeonController {
 
+  private static final int MOVED = 1;
+  private static final int PLAYER_LOST = 2;
+  private static final int REACHED_END = 3;
+  private static final int MONSTER_HIT = 1;
+  private static final int MONSTER_KILLED = 2;
+  private static final int OUT_OF_ARROWS = 3;
+  private static final int MISSED = 4;
+  // the dungeons kept ready for a new game may take an eighth of the heap.
+  private static final long POOL_BYTES = Runtime.getRuntime().maxMemory() / 8;
+  private static final Logger LOGGER = Logger.getLogger(GuiController.class.getName());
+
   private ReadOnlyDungeon dungeon;
-  private IView view;
+  private DungeonCheckpoint initial;
+  private volatile IView view;
   private IStarterView startView;
+  private GameLoop loop;
+  private DungeonGeneration generation;
+  private DungeonPool pool;
+  private final GameEventListener outcomes;
+  private boolean playerLost;
+  private int moveOutcome;
+  private int shotOutcome;
 
   /**
    * Constructor for the GUI Controller Class.
@@ -31,6 +63,34 @@ public class GuiController implements DungeonController {
    */
   public GuiController(IStarterView v) {
     this.startView = v;
+    this.outcomes = new GameEventListener() {
+      @Override
+      public void fellIntoPit(Location location) {
+        playerLost = true;
+        moveOutcome = PLAYER_LOST;
+      }
+
+      @Override
+      public void eaten(Location location) {
+        playerLost = true;
+        moveOutcome = PLAYER_LOST;
+      }
+
+      @Override
+      public void reachedEnd(Location location) {
+        moveOutcome = REACHED_END;
+      }
+
+      @Override
+      public void monsterHit(Location location) {
+        shotOutcome = MONSTER_HIT;
+      }
+
+      @Override
+      public void monsterKilled(Location location) {
+        shotOutcome = MONSTER_KILLED;
+      }
+    };
   }
 
   @Override
@@ -40,7 +100,12 @@ public class GuiController implements DungeonController {
   }
 
   /**
-   * The function that creates the dungeon model when the user enters the input in the form.
+   * The function that creates the dungeon model when the user enters the input in the form. A
+   * dungeon generated ahead of time for the same parameters starts the game at once, otherwise the
+   * dungeon is generated on a worker thread, the start view is told about every completed phase
+   * and the game starts once the dungeon is ready. A generation that is still running is cancelled
+   * first. Either way another dungeon with these parameters is generated in the background for the
+   * next game, after the one for this game is ready.
    *
    * @param row               no. of rows.
    * @param column            no. of columns.
@@ -52,41 +117,155 @@ public class GuiController implements DungeonController {
    */
   public void createDungeon(int row, int column, boolean bool, int interconnectivity,
                             double treasureCoverage, int noOfMonsters, int noOfPits) {
-    this.dungeon = new Dungeon(row, column, bool, interconnectivity, treasureCoverage,
-            noOfMonsters, noOfPits, new RandomNumberGenerator());
+    cancelGeneration();
+    Dungeon ready = pool().take(row, column, bool, interconnectivity, treasureCoverage,
+            noOfMonsters, noOfPits);
+    if (ready != null) {
+      generation = null;
+      start(ready);
+      return;
+    }
+    generation = new DungeonGeneration(this, row, column, bool, interconnectivity,
+            treasureCoverage, noOfMonsters, noOfPits);
+    generation.execute();
+  }
+
+  private DungeonPool pool() {
+    if (pool == null) {
+      pool = new DungeonPool(POOL_BYTES, 1);
+    }
+    return pool;
+  }
+
+  /**
+   * Cancels the generation of the dungeon that is running, if any. The generator stops at its
+   * next check and its partly built dungeon is dropped.
+   */
+  public void cancelGeneration() {
+    if (generation != null) {
+      generation.cancel(false);
+    }
+  }
+
+  void generationProgressed(DungeonGeneration from, GenerationPhase phase) {
+    if (from == generation) {
+      this.startView.showProgress(phase);
+    }
+  }
+
+  void generationStopped(DungeonGeneration from, String message) {
+    if (from == generation) {
+      generation = null;
+      this.startView.showGenerationStopped(message);
+    }
+  }
+
+  void generated(DungeonGeneration from, Dungeon created) {
+    if (from != generation) {
+      return;
+    }
+    generation = null;
+    start(created);
+    from.refill(pool());
+  }
+
+  private void start(Dungeon created) {
     this.startView.makeVisible(false);
-    this.view = new MenuView(this.dungeon);
+    // the dungeon is only handed to the loop once the view has taken its first snapshot.
+    this.view = new MenuView(created);
     this.view.addClickListener(this);
+    loop().submit(() -> follow(created));
   }
 
   /**
-   * Function that calls the move function in the model.
+   * Queues a move of the player on the game loop. The outcome is given to the callback on the
+   * event dispatch thread, after the view has been refreshed.
    *
    * @param direction direction in which the player has to move.
-   * @return the value based on which user gets feedback in the view
+   * @param onOutcome receives the value returned by {@link #moveInView}.
    */
-  public int moveInView(Direction direction) {
-
+  public void move(Direction direction, IntConsumer onOutcome) {
+    loop().submit(() -> publish(moveInView(direction), onOutcome));
+  }
 
-    if (!dungeon.isGameOver() || dungeon.getPlayer().isAlive()) {
-      dungeon.movePlayer(direction);
-      view.refresh();
-      return 1;
-    } else if (!dungeon.getPlayer().isAlive()) {
-      view.refresh();
-      return 2;
-    } else if (dungeon.getPlayer().getCurrentLocation() == dungeon.getPlayer().getFinalLocation()) {
+  /**
+   * Queues a shot on the game loop. The outcome is given to the callback on the event dispatch
+   * thread, after the view has been refreshed.
+   *
+   * @param direction direction in which the player has to shoot.
+   * @param distance  distance through which the arrow has to travel.
+   * @param onOutcome receives the value returned by {@link #shootArrow}.
+   */
+  public void shoot(Direction direction, int distance, IntConsumer onOutcome) {
+    loop().submit(() -> {
+      int outcome = shootArrow(direction, distance);
       view.refresh();
-      return 3;
-    } else {
+      publish(outcome, onOutcome);
+    });
+  }
+
+  /**
+   * Queues picking up the treasure or the arrows on the game loop, the view is refreshed after.
+   *
+   * @param bool boolean value which tells whether to pickup arrow or treasure.
+   */
+  public void pickup(boolean bool) {
+    loop().submit(() -> {
+      collectTreasure(bool);
       view.refresh();
-      return 4;
+    });
+  }
+
+  private void publish(int outcome, IntConsumer onOutcome) {
+    SwingUtilities.invokeLater(() -> onOutcome.accept(outcome));
+  }
+
+  private GameLoop loop() {
+    if (loop == null) {
+      loop = new GameLoop("game-loop", this::commandFailed);
     }
+    return loop;
+  }
 
+  /**
+   * Called on the game loop when a command fails. The view is brought back in line with the model
+   * before the player is told.
+   */
+  private void commandFailed(RuntimeException failure) {
+    LOGGER.log(Level.WARNING, "A command of the player failed", failure);
+    IView failed = view;
+    if (failed == null) {
+      return;
+    }
+    if (dungeon != null) {
+      failed.refresh();
+    }
+    String message = failure.getMessage() == null
+            ? "The command could not be played." : failure.getMessage();
+    SwingUtilities.invokeLater(() -> failed.showError(message));
+  }
+
+  /**
+   * Function that calls the move function in the model. It has to be called by the thread that
+   * owns the model, the view uses {@link #move} instead.
+   *
+   * @param direction direction in which the player has to move.
+   * @return the value based on which user gets feedback in the view
+   */
+  public int moveInView(Direction direction) {
+    if (playerLost) {
+      view.refresh();
+      return PLAYER_LOST;
+    }
+    moveOutcome = MOVED;
+    dungeon.movePlayer(direction);
+    view.refresh();
+    return moveOutcome;
   }
 
   /**
-   * Function that calls the pickup function in the model.
+   * Function that calls the pickup function in the model. It has to be called by the thread that
+   * owns the model, the view uses {@link #pickup} instead.
    *
    * @param bool boolean value which tells whether to pickup arrow or treasure.
    */
@@ -96,26 +275,20 @@ public class GuiController implements DungeonController {
 
 
   /**
-   * Function that calls the shoot function in the model.
+   * Function that calls the shoot function in the model. It has to be called by the thread that
+   * owns the model, the view uses {@link #shoot} instead.
    *
    * @param direction direction in which the player has to shoot.
    * @param distance  distance through which the arrow has to travel.
    * @return the value based on which user gets feedback in the view
    */
   public int shootArrow(Direction direction, int distance) {
-    Map<String, Boolean> monsters = dungeon.shoot(direction, distance);
-    if (monsters.get("Monster Hit")) {
-      return 1;
-    } else if (monsters.get("Monster Dead")) {
-      return 2;
-    } else if (dungeon.getPlayer().getArrowCountOfPlayer() == 0) {
-      return 3;
-    } else if (!monsters.get("Monster Hit") && !monsters.get("Monster Dead")) {
-      return 4;
-    } else {
-      return 5;
+    shotOutcome = MISSED;
+    dungeon.shoot(direction, distance);
+    if (shotOutcome == MISSED && dungeon.getPlayer().getArrowCountOfPlayer() == 0) {
+      return OUT_OF_ARROWS;
     }
-
+    return shotOutcome;
   }
 
   /**
@@ -125,7 +298,23 @@ public class GuiController implements DungeonController {
    * @param m ReadOnlyDungeon.
    */
   public void copyDungeonCreated(ReadOnlyDungeon m) {
+    follow(m);
+  }
+
+  /**
+   * Makes the dungeon the one being played and listens to its events instead of the previous
+   * one's. The state it starts from is saved so that the same dungeon can be restarted.
+   *
+   * @param m the dungeon.
+   */
+  private void follow(ReadOnlyDungeon m) {
+    if (this.dungeon != null) {
+      this.dungeon.removeGameEventListener(outcomes);
+    }
     this.dungeon = m;
+    this.initial = m.checkpoint();
+    this.playerLost = false;
+    m.addGameEventListener(outcomes);
   }
 
   /**
@@ -142,14 +331,24 @@ public class GuiController implements DungeonController {
    * Function that would quit the game and close all the views. This is called from the view.
    */
   public void quitGame() {
+    cancelGeneration();
     this.view.destroyView();
     this.startView.destroyView();
+    if (loop != null) {
+      loop.stop();
+      loop = null;
+    }
+    if (pool != null) {
+      pool.close();
+      pool = null;
+    }
   }
 
 
   /**
    * Function that is used when the user wants to restart the game either with the same dungeon
-   * or the old dungeon.
+   * or the old dungeon. The same dungeon is restored to the state it was in when the game started,
+   * with its items, its monsters and the player back where they were.
    *
    * @param state boolean value to check if the user wants the same or new dungeon.
    */
@@ -159,11 +358,16 @@ public class GuiController implements DungeonController {
       this.startView.makeVisible(true);
     } else {
       this.view.destroyView();
-      this.dungeon.getPlayer().setArrowCount(3);
-      this.dungeon.getPlayer().setTreasureCollected(new ArrayList<>());
-      this.view = new MenuView(this.dungeon);
-
-      this.view.addClickListener(this);
+      loop().submit(() -> {
+        this.dungeon.restore(initial);
+        this.playerLost = false;
+        ReadOnlyDungeon restarted = this.dungeon;
+        DungeonSnapshot snapshot = restarted.getSnapshot();
+        SwingUtilities.invokeLater(() -> {
+          this.view = new MenuView(restarted, snapshot);
+          this.view.addClickListener(this);
+        });
+      });
     }
   }
 
@@ -50,7 +50,8 @@ public class Move implements CommandController {
             return;
           }
 
-          if (dungeon.getPlayer().getCurrentLocation() == dungeon.getPlayer().getFinalLocation()) {
+          if (dungeon.getPlayer().getCurrentLocation()
+                  .equals(dungeon.getPlayer().getFinalLocation())) {
             out.append("You reached the end. Hurrayyyy!!");
             dungeon.setGameOver(true);
           }
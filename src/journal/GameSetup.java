@@ -0,0 +1,96 @@
+package journal;
+
+import maze.Dungeon;
+import radomnumbergenerator.SeededRandomGenerator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The seed and the parameters a game was generated with. The same setup always generates the same
+ * dungeon, and as the dungeon draws every later random value from the same seeded generator, the
+ * same turns played on it always end in the same state.
+ */
+public final class GameSetup {
+
+  private final long seed;
+  private final int rows;
+  private final int cols;
+  private final boolean toWrap;
+  private final int interconnectivity;
+  private final double treasureCoverage;
+  private final int numberOfMonsters;
+  private final int noOfPits;
+
+  /**
+   * Constructs the setup of a game.
+   *
+   * @param seed              seed of the random generator of the dungeon.
+   * @param rows              number of rows for the dungeon.
+   * @param cols              number of columns for the dungeon.
+   * @param toWrap            boolean value for wrapping.
+   * @param interconnectivity interconnectivity value.
+   * @param treasureCoverage  the percentage of treasure to allocated in the caves.
+   * @param numberOfMonsters  number of monsters in the dungeon.
+   * @param noOfPits          number of pits present in the dungeon.
+   */
+  public GameSetup(long seed, int rows, int cols, boolean toWrap, int interconnectivity,
+                   double treasureCoverage, int numberOfMonsters, int noOfPits) {
+    this.seed = seed;
+    this.rows = rows;
+    this.cols = cols;
+    this.toWrap = toWrap;
+    this.interconnectivity = interconnectivity;
+    this.treasureCoverage = treasureCoverage;
+    this.numberOfMonsters = numberOfMonsters;
+    this.noOfPits = noOfPits;
+  }
+
+  /**
+   * Generates the dungeon of this setup.
+   *
+   * @return the dungeon, before any turn was played.
+   * @throws IllegalArgumentException when the parameters are invalid.
+   */
+  public Dungeon createDungeon() {
+    return new Dungeon(rows, cols, toWrap, interconnectivity, treasureCoverage, numberOfMonsters,
+            noOfPits, new SeededRandomGenerator(seed));
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+  public int getCols() {
+    return cols;
+  }
+
+  void write(DataOutput out) throws IOException {
+    out.writeLong(seed);
+    out.writeInt(rows);
+    out.writeInt(cols);
+    out.writeBoolean(toWrap);
+    out.writeInt(interconnectivity);
+    out.writeDouble(treasureCoverage);
+    out.writeInt(numberOfMonsters);
+    out.writeInt(noOfPits);
+  }
+
+  static GameSetup read(DataInput in) throws IOException {
+    return new GameSetup(in.readLong(), in.readInt(), in.readInt(), in.readBoolean(),
+            in.readInt(), in.readDouble(), in.readInt(), in.readInt());
+  }
+
+  @Override
+  public String toString() {
+    return String.format("seed %d, %dx%d, %s, interconnectivity %d, treasure %.2f,"
+                    + " %d monsters, %d pits", seed, rows, cols,
+            toWrap ? "wrapping" : "not wrapping", interconnectivity, treasureCoverage,
+            numberOfMonsters, noOfPits);
+  }
+}
@@ -0,0 +1,213 @@
+package journal;
+
+import maze.Direction;
+import maze.Dungeon;
+import maze.DungeonCheckpoint;
+import maze.Location;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rebuilds the state of a game from its journal. The dungeon is generated again from the setup in
+ * the journal and every recorded turn is played on it in order, without any view or controller,
+ * so the dungeon ends in exactly the state the recorded game was left in. A turn the dungeon
+ * rejected when it was played is rejected again and skipped. A checkpoint is taken again where it
+ * was recorded, so that a recorded restore goes back to the same state. A record cut short at the
+ * end of the journal, as left by a process that died while writing it, is ignored.
+ */
+public final class JournalReplay {
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final GameSetup setup;
+  private final Dungeon dungeon;
+  private final long turns;
+  private final long elapsedNanos;
+
+  private JournalReplay(GameSetup setup, Dungeon dungeon, long turns, long elapsedNanos) {
+    this.setup = setup;
+    this.dungeon = dungeon;
+    this.turns = turns;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Replays the journal read from the stream. The stream is read to its end but not closed.
+   *
+   * @param in the journal.
+   * @return the replayed game.
+   * @throws IllegalArgumentException when the stream is null or is not a journal.
+   * @throws IOException              when the journal can't be read.
+   */
+  public static JournalReplay replay(InputStream in) throws IOException {
+    if (in == null) {
+      throw new IllegalArgumentException("Stream can't be null");
+    }
+    DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != TurnJournal.MAGIC) {
+      throw new IllegalArgumentException("The stream is not a turn journal");
+    }
+    GameSetup setup = GameSetup.read(data);
+    byte[] records = data.readAllBytes();
+    long start = System.nanoTime();
+    Dungeon dungeon = setup.createDungeon();
+    List<DungeonCheckpoint> checkpoints = new ArrayList<>();
+    long turns = 0;
+    int at = 0;
+    while (at < records.length) {
+      int record = records[at++] & 0xff;
+      int value = 0;
+      if (hasValue(record)) {
+        int shift = 0;
+        int next;
+        do {
+          if (at == records.length || shift > 28) {
+            // cut short, the last turn never made it to the journal.
+            return new JournalReplay(setup, dungeon, turns, System.nanoTime() - start);
+          }
+          next = records[at++];
+          value |= (next & 0x7f) << shift;
+          shift += 7;
+        } while ((next & 0x80) != 0);
+        value = (value >>> 1) ^ -(value & 1);
+      }
+      play(dungeon, checkpoints, record, value);
+      turns++;
+    }
+    return new JournalReplay(setup, dungeon, turns, System.nanoTime() - start);
+  }
+
+  private static boolean hasValue(int record) {
+    return (record & 0xf0) == TurnJournal.SHOOT || record == TurnJournal.MONSTERS
+            || record == TurnJournal.RESTORE;
+  }
+
+  private static void play(Dungeon dungeon, List<DungeonCheckpoint> checkpoints, int record,
+                           int value) {
+    int kind = kindOf(record);
+    if (kind == TurnJournal.CHECKPOINT) {
+      checkpoints.add(dungeon.checkpoint());
+      return;
+    }
+    if (kind == TurnJournal.RESTORE) {
+      if (value < 0 || value >= checkpoints.size()) {
+        throw new IllegalArgumentException("The journal restores an unknown checkpoint " + value);
+      }
+      dungeon.restore(checkpoints.get(value));
+      return;
+    }
+    try {
+      switch (kind) {
+        case TurnJournal.MOVE:
+          dungeon.movePlayer(direction(record));
+          break;
+        case TurnJournal.SHOOT:
+          dungeon.shoot(direction(record), value);
+          break;
+        case TurnJournal.PICKUP_TREASURE:
+          dungeon.pickup(true);
+          break;
+        case TurnJournal.PICKUP_ARROWS:
+          dungeon.pickup(false);
+          break;
+        case TurnJournal.GAME_OVER:
+          dungeon.setGameOver(true);
+          break;
+        case TurnJournal.GAME_NOT_OVER:
+          dungeon.setGameOver(false);
+          break;
+        default:
+          dungeon.allocateMonsters(value);
+          break;
+      }
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      // the game rejected the same turn when it was played.
+    }
+  }
+
+  private static int kindOf(int record) {
+    switch (record) {
+      case TurnJournal.PICKUP_TREASURE:
+      case TurnJournal.PICKUP_ARROWS:
+      case TurnJournal.GAME_OVER:
+      case TurnJournal.GAME_NOT_OVER:
+      case TurnJournal.MONSTERS:
+      case TurnJournal.CHECKPOINT:
+      case TurnJournal.RESTORE:
+        return record;
+      default:
+        int kind = record & 0xf0;
+        int code = record & 0x0f;
+        if ((kind == TurnJournal.MOVE || kind == TurnJournal.SHOOT)
+                && (code < DIRECTIONS.length || code == TurnJournal.NO_DIRECTION)) {
+          return kind;
+        }
+        throw new IllegalArgumentException("Unknown record in the journal: " + record);
+    }
+  }
+
+  private static Direction direction(int record) {
+    int code = record & 0x0f;
+    return code == TurnJournal.NO_DIRECTION ? null : DIRECTIONS[code];
+  }
+
+  public GameSetup getSetup() {
+    return setup;
+  }
+
+  /**
+   * Returns the dungeon in the state the recorded game was left in.
+   *
+   * @return the dungeon.
+   */
+  public Dungeon getDungeon() {
+    return dungeon;
+  }
+
+  public long getTurns() {
+    return turns;
+  }
+
+  /**
+   * Returns the time taken to generate the dungeon and play the turns.
+   *
+   * @return time in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Replays the journal in the file given as the first argument and prints the state the game was
+   * left in.
+   *
+   * @param args path of the journal.
+   * @throws IOException when the journal can't be read.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.out.println("Usage: JournalReplay <journal file>");
+      return;
+    }
+    JournalReplay replay;
+    try (InputStream in = new BufferedInputStream(new FileInputStream(args[0]))) {
+      replay = replay(in);
+    }
+    Dungeon dungeon = replay.getDungeon();
+    Location current = dungeon.getPlayer().getCurrentLocation();
+    System.out.println("Setup: " + replay.getSetup());
+    System.out.printf("Replayed %d turns in %.3f ms%n", replay.getTurns(),
+            replay.getElapsedNanos() / 1e6);
+    System.out.println("Player at (" + current.getRowPos() + ", " + current.getColPos() + ")"
+            + ", arrows " + dungeon.getPlayer().getArrowCountOfPlayer()
+            + ", treasure " + dungeon.getPlayer().printDescription()
+            + (dungeon.getPlayer().isAlive() ? ", alive" : ", dead")
+            + (dungeon.isGameOver() ? ", game over" : ", game not over"));
+  }
+}
@@ -0,0 +1,161 @@
+package journal;
+
+import maze.Direction;
+import maze.DungeonCheckpoint;
+import maze.GameEventListener;
+import maze.Location;
+import maze.Maze;
+import maze.Player;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A dungeon whose turns are recorded in a journal. Every call that changes the game is recorded
+ * and then passed on to the dungeon, every other call is passed on as it is. The controllers play
+ * on it as on any other dungeon. A checkpoint is recorded where it was taken, so that a restore
+ * can be recorded as the number of its checkpoint and the replay takes and restores the same
+ * checkpoint at the same turns.
+ */
+public class JournaledMaze implements Maze {
+
+  private final Maze dungeon;
+  private final TurnJournal journal;
+  private final Map<DungeonCheckpoint, Integer> checkpoints;
+
+  /**
+   * Constructs the journaled dungeon.
+   *
+   * @param dungeon the dungeon generated with the setup of the journal.
+   * @param journal the journal the turns are recorded in.
+   * @throws IllegalArgumentException when the dungeon or the journal is null.
+   */
+  public JournaledMaze(Maze dungeon, TurnJournal journal) {
+    if (dungeon == null || journal == null) {
+      throw new IllegalArgumentException("Dungeon and journal can't be null");
+    }
+    this.dungeon = dungeon;
+    this.journal = journal;
+    this.checkpoints = new WeakHashMap<>();
+  }
+
+  @Override
+  public Player getPlayer() {
+    return dungeon.getPlayer();
+  }
+
+  @Override
+  public boolean movePlayer(Direction direction) {
+    journal.move(direction);
+    return dungeon.movePlayer(direction);
+  }
+
+  @Override
+  public String[][] printMap(Player player) {
+    return dungeon.printMap(player);
+  }
+
+  @Override
+  public int getRows() {
+    return dungeon.getRows();
+  }
+
+  @Override
+  public int getCols() {
+    return dungeon.getCols();
+  }
+
+  @Override
+  public Location[][] getLocations() {
+    return dungeon.getLocations();
+  }
+
+  @Override
+  public Map<String, Boolean> shoot(Direction direction, int distance) {
+    journal.shoot(direction, distance);
+    return dungeon.shoot(direction, distance);
+  }
+
+  @Override
+  public boolean pickup(boolean isTreasure) {
+    journal.pickup(isTreasure);
+    return dungeon.pickup(isTreasure);
+  }
+
+  @Override
+  public void allocateMonsters(int numberOfMonsters) {
+    journal.monsters(numberOfMonsters);
+    dungeon.allocateMonsters(numberOfMonsters);
+  }
+
+  @Override
+  public int getNumberOfMonsters() {
+    return dungeon.getNumberOfMonsters();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return dungeon.isGameOver();
+  }
+
+  @Override
+  public void setGameOver(boolean gameOver) {
+    journal.gameOver(gameOver);
+    dungeon.setGameOver(gameOver);
+  }
+
+  @Override
+  public double getTreasureCoverage() {
+    return dungeon.getTreasureCoverage();
+  }
+
+  @Override
+  public int getNoOfPits() {
+    return dungeon.getNoOfPits();
+  }
+
+  @Override
+  public int getNoOfEdges() {
+    return dungeon.getNoOfEdges();
+  }
+
+  @Override
+  public List<Location> getChangedLocations() {
+    return dungeon.getChangedLocations();
+  }
+
+  @Override
+  public DungeonCheckpoint checkpoint() {
+    DungeonCheckpoint checkpoint = dungeon.checkpoint();
+    checkpoints.put(checkpoint, journal.checkpoint());
+    return checkpoint;
+  }
+
+  /**
+   * Restores the game to a checkpoint taken from this journaled dungeon.
+   *
+   * @param checkpoint a checkpoint taken from this journaled dungeon.
+   * @throws IllegalArgumentException when the checkpoint is null or was not taken through this
+   *                                  journaled dungeon, as the replay could not take it again.
+   */
+  @Override
+  public void restore(DungeonCheckpoint checkpoint) {
+    Integer number = checkpoint == null ? null : checkpoints.get(checkpoint);
+    if (number == null) {
+      throw new IllegalArgumentException("The checkpoint was not taken from this journaled game");
+    }
+    journal.restore(number);
+    dungeon.restore(checkpoint);
+  }
+
+  @Override
+  public void addGameEventListener(GameEventListener listener) {
+    dungeon.addGameEventListener(listener);
+  }
+
+  @Override
+  public void removeGameEventListener(GameEventListener listener) {
+    dungeon.removeGameEventListener(listener);
+  }
+}
@@ -0,0 +1,275 @@
+package journal;
+
+import maze.Direction;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An append-only binary record of the turns of a game. The journal starts with the
+ * {@link GameSetup} of the game and is followed by one record per turn, most of them a single
+ * byte: the kind of turn and its direction share the first byte, and the distance of a shot, a
+ * number of monsters or the number of a checkpoint follows it as a variable length integer.
+ * Checkpoints are numbered in the order they are recorded, from 0.
+ *
+ * <p>Recording a turn only appends its bytes to a batch in memory. Full batches are written by a
+ * thread of the journal, which also writes the batch that is being filled when no turn has been
+ * played for {@link #FLUSH_MILLIS} milliseconds, so a turn never waits for the disk and at most
+ * that much of the game is lost when the process dies. A failed write is reported when the
+ * journal is closed.
+ */
+public final class TurnJournal implements Closeable {
+
+  static final int MAGIC = 0x41444a31;
+
+  static final int MOVE = 0x00;
+  static final int SHOOT = 0x10;
+  static final int PICKUP_TREASURE = 0x20;
+  static final int PICKUP_ARROWS = 0x21;
+  static final int GAME_OVER = 0x30;
+  static final int GAME_NOT_OVER = 0x31;
+  static final int MONSTERS = 0x40;
+  static final int CHECKPOINT = 0x50;
+  static final int RESTORE = 0x51;
+  static final int NO_DIRECTION = 0x0f;
+
+  /**
+   * Longest time in milliseconds a recorded turn waits in memory before it is written.
+   */
+  public static final long FLUSH_MILLIS = 200;
+
+  private static final int BATCH_SIZE = 8192;
+  private static final int MAX_RECORD = 6;
+  private static final byte[] END = new byte[0];
+
+  private final OutputStream out;
+  private final BlockingQueue<byte[]> written;
+  private final Thread writer;
+  private byte[] batch;
+  private int length;
+  private long turns;
+  private int checkpoints;
+  private boolean closed;
+  private volatile IOException failure;
+
+  /**
+   * Constructs the journal of a game and writes its setup.
+   *
+   * @param out   the stream the journal is written to, it is closed with the journal.
+   * @param setup the setup of the game.
+   * @throws IllegalArgumentException when the stream or the setup is null.
+   * @throws IOException              when the setup can't be written.
+   */
+  public TurnJournal(OutputStream out, GameSetup setup) throws IOException {
+    if (out == null || setup == null) {
+      throw new IllegalArgumentException("Stream and setup can't be null");
+    }
+    this.out = new BufferedOutputStream(out, BATCH_SIZE);
+    DataOutputStream header = new DataOutputStream(this.out);
+    header.writeInt(MAGIC);
+    setup.write(header);
+    header.flush();
+    this.written = new LinkedBlockingQueue<>();
+    this.batch = new byte[BATCH_SIZE];
+    this.writer = new Thread(this::write, "turn-journal");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * Records a move of the player.
+   *
+   * @param direction direction of the move, null when the player stayed.
+   */
+  public void move(Direction direction) {
+    append(MOVE | code(direction));
+  }
+
+  /**
+   * Records a shot of the player.
+   *
+   * @param direction direction of the shot.
+   * @param distance  number of caves the arrow flies.
+   */
+  public void shoot(Direction direction, int distance) {
+    append(SHOOT | code(direction), distance);
+  }
+
+  /**
+   * Records a pickup of the player.
+   *
+   * @param isTreasure true for treasure, false for arrows.
+   */
+  public void pickup(boolean isTreasure) {
+    append(isTreasure ? PICKUP_TREASURE : PICKUP_ARROWS);
+  }
+
+  /**
+   * Records that the game was declared over, or not over.
+   *
+   * @param gameOver whether the game is over.
+   */
+  public void gameOver(boolean gameOver) {
+    append(gameOver ? GAME_OVER : GAME_NOT_OVER);
+  }
+
+  /**
+   * Records that monsters were added to the dungeon.
+   *
+   * @param numberOfMonsters number of monsters.
+   */
+  public void monsters(int numberOfMonsters) {
+    append(MONSTERS, numberOfMonsters);
+  }
+
+  /**
+   * Records that the state of the game was saved in a checkpoint.
+   *
+   * @return the number of the checkpoint.
+   */
+  public synchronized int checkpoint() {
+    append(CHECKPOINT);
+    return checkpoints++;
+  }
+
+  /**
+   * Records that the game was restored to a checkpoint.
+   *
+   * @param checkpoint the number of the checkpoint.
+   * @throws IllegalArgumentException when no checkpoint with that number was recorded.
+   */
+  public synchronized void restore(int checkpoint) {
+    if (checkpoint < 0 || checkpoint >= checkpoints) {
+      throw new IllegalArgumentException("No checkpoint " + checkpoint + " was recorded");
+    }
+    append(RESTORE, checkpoint);
+  }
+
+  /**
+   * Returns the number of turns recorded so far.
+   *
+   * @return number of turns.
+   */
+  public synchronized long getTurns() {
+    return turns;
+  }
+
+  /**
+   * Writes every recorded turn, stops the thread of the journal and closes the stream.
+   *
+   * @throws IOException when a turn could not be written.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      handOff();
+      written.add(END);
+    }
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while closing the journal", e);
+    }
+    try {
+      out.close();
+    } catch (IOException e) {
+      if (failure == null) {
+        failure = e;
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static int code(Direction direction) {
+    return direction == null ? NO_DIRECTION : direction.ordinal();
+  }
+
+  private synchronized void append(int record) {
+    reserve();
+    batch[length++] = (byte) record;
+    turns++;
+  }
+
+  private synchronized void append(int record, int value) {
+    reserve();
+    batch[length++] = (byte) record;
+    // zig-zag, so that a small negative value still takes a single byte.
+    int bits = (value << 1) ^ (value >> 31);
+    while ((bits & ~0x7f) != 0) {
+      batch[length++] = (byte) ((bits & 0x7f) | 0x80);
+      bits >>>= 7;
+    }
+    batch[length++] = (byte) bits;
+    turns++;
+  }
+
+  private void reserve() {
+    if (closed) {
+      throw new IllegalStateException("The journal is closed");
+    }
+    if (length + MAX_RECORD > batch.length) {
+      handOff();
+    }
+  }
+
+  private synchronized void handOff() {
+    if (length > 0) {
+      written.add(Arrays.copyOf(batch, length));
+      length = 0;
+    }
+  }
+
+  private void write() {
+    while (true) {
+      byte[] next;
+      try {
+        next = written.poll(FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (next == null) {
+        // no batch was filled for a while, write the turns played since the last one.
+        handOff();
+        continue;
+      }
+      if (next == END) {
+        flush();
+        return;
+      }
+      if (failure == null) {
+        try {
+          out.write(next);
+          if (written.isEmpty()) {
+            out.flush();
+          }
+        } catch (IOException e) {
+          failure = e;
+        }
+      }
+    }
+  }
+
+  private void flush() {
+    if (failure == null) {
+      try {
+        out.flush();
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+  }
+}
@@ -0,0 +1,434 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The dungeon seen as a graph of caves. A tunnel has exactly two entrances, so a chain of tunnels
+ * between two caves can only be walked from one end to the other; every such chain is collapsed
+ * into a single edge that records the number of moves it takes, the direction it is entered in
+ * and the direction it is left in. Searches run over the caves only and walk the tunnel cells just
+ * to read or write the cells on a path.
+ *
+ * <p>Every cell that is not a tunnel with two entrances is a node of the graph. A ring made only
+ * of tunnels has no cave to start from, so one of its cells is made a node as well, which means
+ * every tunnel cell lies on an edge between two nodes. The graph is built on first use and the
+ * grid drops it whenever an entrance or the kind of a cell changes.
+ */
+final class CaveGraph {
+
+  private static final int NO_NODE = -1;
+  private static final int DIRECTION_COUNT = DungeonGrid.DIRECTIONS.length;
+  private static final int INFINITE = Integer.MAX_VALUE;
+
+  private final DungeonGrid grid;
+  private final int[] nodeOf;
+  private int[] nodeCell;
+  private int[] edgeTarget;
+  private int[] edgeMoves;
+  private byte[] edgeArrival;
+  private int nodeCount;
+
+  private int[] dist;
+  private int longestEdge;
+  private int[] bucketHead;
+  private int[] entryNode;
+  private int[] entryNext;
+  private int entryCount;
+  private int pending;
+
+  /**
+   * Builds the graph of the given grid.
+   *
+   * @param grid the dungeon grid.
+   */
+  CaveGraph(DungeonGrid grid) {
+    this.grid = grid;
+    int size = grid.size();
+    this.nodeOf = new int[size];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      nodeOf[i] = isChain(i) ? NO_NODE : count++;
+    }
+    this.nodeCell = new int[count];
+    this.edgeTarget = new int[count * DIRECTION_COUNT];
+    this.edgeMoves = new int[count * DIRECTION_COUNT];
+    this.edgeArrival = new byte[count * DIRECTION_COUNT];
+    for (int i = 0; i < size; i++) {
+      if (nodeOf[i] != NO_NODE) {
+        nodeCell[nodeOf[i]] = i;
+      }
+    }
+    this.nodeCount = count;
+
+    BitSet walked = new BitSet(size);
+    for (int node = 0; node < count; node++) {
+      connect(node, walked);
+    }
+    // whatever tunnel is left over lies on a ring without any cave.
+    for (int i = walked.nextClearBit(0); i < size; i = walked.nextClearBit(i + 1)) {
+      if (nodeOf[i] == NO_NODE) {
+        connect(addNode(i), walked);
+      }
+    }
+    this.entryNode = new int[16];
+    this.entryNext = new int[16];
+  }
+
+  /**
+   * Returns the number of nodes of the graph.
+   *
+   * @return number of nodes.
+   */
+  int nodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Returns the node of the cell.
+   *
+   * @param index index of the cell.
+   * @return number of the node between 0 and the node count, or -1 when the cell is a tunnel
+   *         inside a chain.
+   */
+  int nodeOf(int index) {
+    return nodeOf[index];
+  }
+
+  /**
+   * Returns the cell of the node.
+   *
+   * @param node number of the node.
+   * @return index of the cell.
+   */
+  int cellOf(int node) {
+    return nodeCell[node];
+  }
+
+  /**
+   * Leaves the cell in the given direction and follows the tunnels up to the next node.
+   *
+   * @param index     index of the cell to leave, it must have an entrance that way.
+   * @param direction direction to leave in.
+   * @return the arrival, read with {@link #arrivalCell}, {@link #arrivalMoves} and
+   *         {@link #arrivalDirection}.
+   */
+  long follow(int index, Direction direction) {
+    int node = nodeOf[index];
+    if (node == NO_NODE) {
+      return walk(index, direction, NO_NODE, null, 0);
+    }
+    int edge = node * DIRECTION_COUNT + direction.ordinal();
+    return arrival(nodeCell[edgeTarget[edge]], edgeMoves[edge],
+            DungeonGrid.DIRECTIONS[edgeArrival[edge]]);
+  }
+
+  /**
+   * Returns the cell an arrival ends at.
+   *
+   * @param arrival an arrival returned by {@link #follow}.
+   * @return index of the cell.
+   */
+  static int arrivalCell(long arrival) {
+    return (int) (arrival >>> 32);
+  }
+
+  /**
+   * Returns the number of moves an arrival took.
+   *
+   * @param arrival an arrival returned by {@link #follow}.
+   * @return number of moves.
+   */
+  static int arrivalMoves(long arrival) {
+    return (int) arrival >>> 2;
+  }
+
+  /**
+   * Returns the direction an arrival was moving in when it reached its cell.
+   *
+   * @param arrival an arrival returned by {@link #follow}.
+   * @return enum direction.
+   */
+  static Direction arrivalDirection(long arrival) {
+    return DungeonGrid.DIRECTIONS[(int) arrival & 3];
+  }
+
+  /**
+   * Returns the cells of the shortest path between the two cells. Among paths of the same length
+   * the one whose first differing move comes first in the order of {@link Direction} is taken,
+   * which is the path a breadth first search over the cells trying the directions in that order
+   * finds.
+   *
+   * @param from index of the first cell.
+   * @param to   index of the last cell.
+   * @return cells of the path including both ends, or null when the last cell can't be reached.
+   */
+  int[] shortestPath(int from, int to) {
+    if (from == to) {
+      return new int[]{from};
+    }
+    // a cell on the same chain may be closer along the chain than through either end.
+    int directMoves = INFINITE;
+    int[] starts;
+    int[] startMoves;
+    if (nodeOf[from] != NO_NODE) {
+      starts = new int[]{nodeOf[from]};
+      startMoves = new int[]{0};
+    } else {
+      starts = new int[2];
+      startMoves = new int[2];
+      int found = 0;
+      for (Direction direction : DungeonGrid.DIRECTIONS) {
+        if (grid.hasExit(from, direction)) {
+          long arrival = walk(from, direction, to, null, 0);
+          if (arrivalCell(arrival) == to) {
+            directMoves = Math.min(directMoves, arrivalMoves(arrival));
+            arrival = walk(from, direction, NO_NODE, null, 0);
+          }
+          starts[found] = nodeOf[arrivalCell(arrival)];
+          startMoves[found] = arrivalMoves(arrival);
+          found++;
+        }
+      }
+      starts = Arrays.copyOf(starts, found);
+    }
+
+    int[] ends = new int[0];
+    int[] endMoves = new int[0];
+    Direction[] endWays = new Direction[0];
+    if (nodeOf[to] == NO_NODE) {
+      ends = new int[2];
+      endMoves = new int[2];
+      endWays = new Direction[2];
+      int found = 0;
+      for (Direction direction : DungeonGrid.DIRECTIONS) {
+        if (grid.hasExit(to, direction)) {
+          long arrival = walk(to, direction, NO_NODE, null, 0);
+          ends[found] = nodeOf[arrivalCell(arrival)];
+          endMoves[found] = arrivalMoves(arrival);
+          endWays[found] = DungeonGrid.opposite(arrivalDirection(arrival));
+          found++;
+        }
+      }
+    }
+
+    // the search runs from the last cell, so that the moves left from every node are known.
+    search(new int[]{to}, 1, starts, startMoves, directMoves);
+    int bestMoves = directMoves;
+    for (int i = 0; i < starts.length; i++) {
+      if (dist[starts[i]] != INFINITE) {
+        bestMoves = Math.min(bestMoves, dist[starts[i]] + startMoves[i]);
+      }
+    }
+    if (bestMoves == INFINITE) {
+      return null;
+    }
+
+    int[] path = new int[bestMoves + 1];
+    path[0] = from;
+    int cell = from;
+    int position = 0;
+    while (cell != to) {
+      Direction way = null;
+      long taken = 0;
+      for (Direction direction : DungeonGrid.DIRECTIONS) {
+        if (!grid.hasExit(cell, direction)) {
+          continue;
+        }
+        long arrival = step(cell, direction, to, ends, endMoves, endWays);
+        int next = arrivalCell(arrival);
+        int left = next == to ? 0 : dist[nodeOf[next]];
+        if (left != INFINITE && arrivalMoves(arrival) + left == bestMoves - position) {
+          way = direction;
+          taken = arrival;
+          break;
+        }
+      }
+      if (way == null) {
+        throw new IllegalStateException("No move from cell " + cell + " is on a shortest path");
+      }
+      walk(cell, way, to, path, position + 1);
+      position += arrivalMoves(taken);
+      cell = arrivalCell(taken);
+    }
+    return path;
+  }
+
+  /**
+   * Leaves the cell in the given direction and follows the tunnels up to the next node or the last
+   * cell of a path, reading the edges of the graph instead of walking the tunnels when the cell is
+   * a node.
+   */
+  private long step(int index, Direction direction, int to, int[] ends, int[] endMoves,
+                    Direction[] endWays) {
+    int node = nodeOf[index];
+    if (node == NO_NODE) {
+      return walk(index, direction, to, null, 0);
+    }
+    for (int i = 0; i < ends.length; i++) {
+      if (ends[i] == node && endWays[i] == direction) {
+        return arrival(to, endMoves[i], direction);
+      }
+    }
+    int edge = node * DIRECTION_COUNT + direction.ordinal();
+    return arrival(nodeCell[edgeTarget[edge]], edgeMoves[edge],
+            DungeonGrid.DIRECTIONS[edgeArrival[edge]]);
+  }
+
+  /**
+   * Runs Dijkstra's search over the nodes from the given cells. No edge is longer than the longest
+   * chain, so the nodes waiting to be settled all lie within that many moves of each other and
+   * are kept in a ring of buckets, one for every number of moves, instead of a heap. When targets
+   * are given the search stops once no target can get any closer than the best distance found so
+   * far.
+   */
+  private void search(int[] sources, int sourceCount, int[] targets, int[] targetMoves,
+                      int bound) {
+    if (dist == null) {
+      dist = new int[nodeCount];
+      bucketHead = new int[longestEdge + 1];
+    }
+    Arrays.fill(dist, INFINITE);
+    Arrays.fill(bucketHead, NO_NODE);
+    entryCount = 0;
+    pending = 0;
+    for (int i = 0; i < sourceCount; i++) {
+      int source = sources[i];
+      if (nodeOf[source] != NO_NODE) {
+        reach(nodeOf[source], 0);
+        continue;
+      }
+      for (Direction direction : DungeonGrid.DIRECTIONS) {
+        if (grid.hasExit(source, direction)) {
+          long arrival = walk(source, direction, NO_NODE, null, 0);
+          reach(nodeOf[arrivalCell(arrival)], arrivalMoves(arrival));
+        }
+      }
+    }
+    int settled = 0;
+    for (int moves = 0; pending > 0; moves++) {
+      int bucket = moves % bucketHead.length;
+      while (bucketHead[bucket] != NO_NODE) {
+        int entry = bucketHead[bucket];
+        bucketHead[bucket] = entryNext[entry];
+        pending--;
+        int node = entryNode[entry];
+        // the node was reached again with fewer moves after this entry was made.
+        if (moves != dist[node]) {
+          continue;
+        }
+        if (moves >= bound) {
+          return;
+        }
+        if (targets != null) {
+          for (int i = 0; i < targets.length; i++) {
+            if (targets[i] == node) {
+              bound = Math.min(bound, moves + targetMoves[i]);
+              if (++settled == targets.length) {
+                return;
+              }
+            }
+          }
+        }
+        for (int d = 0; d < DIRECTION_COUNT; d++) {
+          int edge = node * DIRECTION_COUNT + d;
+          if (edgeTarget[edge] != NO_NODE) {
+            reach(edgeTarget[edge], moves + edgeMoves[edge]);
+          }
+        }
+      }
+    }
+  }
+
+  private void reach(int node, int moves) {
+    if (moves >= dist[node]) {
+      return;
+    }
+    dist[node] = moves;
+    if (entryCount == entryNode.length) {
+      entryNode = Arrays.copyOf(entryNode, entryCount * 2);
+      entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+    }
+    int bucket = moves % bucketHead.length;
+    entryNode[entryCount] = node;
+    entryNext[entryCount] = bucketHead[bucket];
+    bucketHead[bucket] = entryCount++;
+    pending++;
+  }
+
+  /**
+   * Leaves the cell in the given direction and walks the tunnels until a node or the stop cell is
+   * reached. The cells walked, including the last one, are written to the path from the given
+   * position when a path is given.
+   */
+  private long walk(int index, Direction direction, int stop, int[] path, int position) {
+    int cell = grid.adjacent(index, direction);
+    int moves = 1;
+    while (nodeOf[cell] == NO_NODE && cell != stop && cell != index) {
+      if (path != null) {
+        path[position++] = cell;
+      }
+      direction = otherExit(cell, direction);
+      cell = grid.adjacent(cell, direction);
+      moves++;
+    }
+    if (path != null) {
+      path[position] = cell;
+    }
+    return arrival(cell, moves, direction);
+  }
+
+  private void connect(int node, BitSet walked) {
+    int cell = nodeCell[node];
+    for (Direction direction : DungeonGrid.DIRECTIONS) {
+      int edge = node * DIRECTION_COUNT + direction.ordinal();
+      if (!grid.hasExit(cell, direction)) {
+        edgeTarget[edge] = NO_NODE;
+        continue;
+      }
+      int next = grid.adjacent(cell, direction);
+      Direction heading = direction;
+      int moves = 1;
+      while (nodeOf[next] == NO_NODE) {
+        walked.set(next);
+        heading = otherExit(next, heading);
+        next = grid.adjacent(next, heading);
+        moves++;
+      }
+      edgeTarget[edge] = nodeOf[next];
+      edgeMoves[edge] = moves;
+      longestEdge = Math.max(longestEdge, moves);
+      edgeArrival[edge] = (byte) heading.ordinal();
+    }
+  }
+
+  private int addNode(int index) {
+    if (nodeCount == nodeCell.length) {
+      int capacity = Math.max(4, nodeCount * 2);
+      nodeCell = Arrays.copyOf(nodeCell, capacity);
+      edgeTarget = Arrays.copyOf(edgeTarget, capacity * DIRECTION_COUNT);
+      edgeMoves = Arrays.copyOf(edgeMoves, capacity * DIRECTION_COUNT);
+      edgeArrival = Arrays.copyOf(edgeArrival, capacity * DIRECTION_COUNT);
+    }
+    nodeOf[index] = nodeCount;
+    nodeCell[nodeCount] = index;
+    return nodeCount++;
+  }
+
+  private boolean isChain(int index) {
+    return grid.isTunnel(index) && Integer.bitCount(grid.getExits(index)) == 2;
+  }
+
+  /**
+   * Returns the entrance of a tunnel that the walk leaves by after entering it while moving in the
+   * given direction.
+   */
+  private Direction otherExit(int index, Direction heading) {
+    int exits = grid.getExits(index) & ~(1 << DungeonGrid.opposite(heading).ordinal());
+    return DungeonGrid.DIRECTIONS[Integer.numberOfTrailingZeros(exits)];
+  }
+
+  private static long arrival(int cell, int moves, Direction direction) {
+    return ((long) cell << 32) | ((long) moves << 2) | direction.ordinal();
+  }
+}
@@ -0,0 +1,9 @@
+package maze;
+
+/**
+ * The enum of the categories that the dungeon keeps an index of, so that the locations of a
+ * category can be counted and listed without scanning the whole dungeon.
+ */
+public enum CellCategory {
+  CAVE, TUNNEL, PIT, LIVE_MONSTER, TREASURE, ARROWS
+}
@@ -0,0 +1,248 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A set of cell indices that supports adding, removing and checking a cell in constant time and
+ * iterating or sampling its cells in time proportional to its size. The cells are kept packed at
+ * the start of an array, and a removed cell is replaced by the last one.
+ *
+ * <p>While the set holds a small part of the grid, the position of every cell is kept in an open
+ * addressing table that takes memory in proportion to the size of the set, so a cell is removed
+ * in constant time. Once that table would take more than a byte per cell of the grid, the set
+ * only keeps a bit per cell of the grid for its members, as keeping a position for each cell of
+ * the caves, tunnels, treasure and arrows would take four bytes per cell of the grid for every
+ * category. A cell removed from such a set only loses its bit, and the array is packed again the
+ * next time a cell is read by its position, so a pickup costs constant time and packing the array
+ * costs time in proportion to its length once for any number of removals.
+ */
+final class CellSet {
+
+  private static final int MIN_SLOTS = 8;
+  private static final int TABLE_BYTES = 2 * Integer.BYTES;
+
+  private final int capacity;
+  private int[] cells;
+  private int size;
+  // entries used in the array, more than the size while removed cells wait to be packed.
+  private int length;
+  // pairs of one based cell and one based position, a cell of 0 marks a free slot.
+  private int[] table;
+  // the members once the set is large, null while the table is used.
+  private BitSet members;
+
+  /**
+   * Constructs an empty set for cells with indices below the capacity.
+   *
+   * @param capacity number of cells in the grid.
+   */
+  CellSet(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity can't be negative");
+    }
+    this.capacity = capacity;
+    this.cells = new int[Math.min(capacity, 8)];
+    this.size = 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean contains(int cell) {
+    if (members != null) {
+      return cell >= 0 && members.get(cell);
+    }
+    return positionOf(cell) != 0;
+  }
+
+  /**
+   * Returns the cell at the given position of the set. The order of the cells changes when a cell
+   * is removed.
+   *
+   * @param i position between 0 and the size of the set.
+   * @return index of the cell.
+   */
+  int get(int i) {
+    if (i < 0 || i >= size) {
+      throw new IndexOutOfBoundsException("Position " + i + " is not in the set");
+    }
+    pack();
+    return cells[i];
+  }
+
+  /**
+   * Adds the cell to the set.
+   *
+   * @param cell index of the cell.
+   * @return true if the cell was not in the set.
+   */
+  boolean add(int cell) {
+    if (cell < 0 || cell >= capacity) {
+      throw new IndexOutOfBoundsException("Cell " + cell + " is not in the grid");
+    }
+    if (contains(cell)) {
+      return false;
+    }
+    if (length == cells.length) {
+      makeRoom();
+    }
+    cells[length++] = cell;
+    size++;
+    if (members == null && (length + 1) * 2 > slots()) {
+      grow();
+    }
+    if (members != null) {
+      members.set(cell);
+    } else {
+      setPosition(cell, size);
+    }
+    return true;
+  }
+
+  /**
+   * Removes the cell from the set.
+   *
+   * @param cell index of the cell.
+   * @return true if the cell was in the set.
+   */
+  boolean remove(int cell) {
+    if (!contains(cell)) {
+      return false;
+    }
+    size--;
+    if (members != null) {
+      // the entry stays in the array until it is packed.
+      members.clear(cell);
+      return true;
+    }
+    int position = positionOf(cell) - 1;
+    int last = cells[--length];
+    cells[position] = last;
+    setPosition(last, position + 1);
+    removeFromTable(cell);
+    return true;
+  }
+
+  /**
+   * Returns a copy of the cells of the set.
+   *
+   * @return array of cell indices.
+   */
+  int[] toArray() {
+    pack();
+    return Arrays.copyOf(cells, size);
+  }
+
+  /**
+   * Drops the entries of removed cells from the array, keeping the order of the others. A cell
+   * that was removed and added again has two entries, only the first one is kept.
+   */
+  private void pack() {
+    if (length == size) {
+      return;
+    }
+    int kept = 0;
+    for (int i = 0; i < length; i++) {
+      int cell = cells[i];
+      if (members.get(cell)) {
+        // cleared until the pass is done, so that a later entry of the same cell is dropped.
+        members.clear(cell);
+        cells[kept++] = cell;
+      }
+    }
+    for (int i = 0; i < kept; i++) {
+      members.set(cells[i]);
+    }
+    length = kept;
+  }
+
+  /**
+   * Grows the array, or packs it instead when more than half of its entries are removed cells.
+   */
+  private void makeRoom() {
+    if (members != null && length - size > length / 2) {
+      pack();
+      return;
+    }
+    int limit = members == null ? capacity : 2 * capacity;
+    cells = Arrays.copyOf(cells, Math.min(limit, Math.max(8, length * 2)));
+  }
+
+  private int positionOf(int cell) {
+    if (table == null) {
+      return 0;
+    }
+    for (int slot = slotOf(cell); ; slot = next(slot)) {
+      int key = table[2 * slot];
+      if (key == 0) {
+        return 0;
+      }
+      if (key == cell + 1) {
+        return table[2 * slot + 1];
+      }
+    }
+  }
+
+  private void setPosition(int cell, int position) {
+    int slot = slotOf(cell);
+    while (table[2 * slot] != 0 && table[2 * slot] != cell + 1) {
+      slot = next(slot);
+    }
+    table[2 * slot] = cell + 1;
+    table[2 * slot + 1] = position;
+  }
+
+  /**
+   * Empties the slot of the cell and moves the following entries of its run back, so that every
+   * entry stays reachable from its home slot without tombstones.
+   */
+  private void removeFromTable(int cell) {
+    int free = slotOf(cell);
+    while (table[2 * free] != cell + 1) {
+      free = next(free);
+    }
+    for (int slot = next(free); table[2 * slot] != 0; slot = next(slot)) {
+      int home = slotOf(table[2 * slot] - 1);
+      // the entry can move back unless its home lies cyclically between the free slot and it.
+      if ((slot > free && (home <= free || home > slot))
+              || (slot < free && home <= free && home > slot)) {
+        table[2 * free] = table[2 * slot];
+        table[2 * free + 1] = table[2 * slot + 1];
+        free = slot;
+      }
+    }
+    table[2 * free] = 0;
+    table[2 * free + 1] = 0;
+  }
+
+  private void grow() {
+    int slots = Math.max(MIN_SLOTS, slots() * 2);
+    if ((long) slots * TABLE_BYTES > capacity) {
+      members = new BitSet(capacity);
+      for (int i = 0; i < length - 1; i++) {
+        members.set(cells[i]);
+      }
+      table = null;
+      return;
+    }
+    table = new int[slots * 2];
+    for (int i = 0; i < length - 1; i++) {
+      setPosition(cells[i], i + 1);
+    }
+  }
+
+  private int slots() {
+    return table == null ? 0 : table.length / 2;
+  }
+
+  private int slotOf(int cell) {
+    int hash = cell * 0x9E3779B9;
+    return (hash ^ hash >>> 16) & (slots() - 1);
+  }
+
+  private int next(int slot) {
+    return (slot + 1) & (slots() - 1);
+  }
+}
@@ -0,0 +1,81 @@
+package maze;
+
+import java.util.BitSet;
+
+/**
+ * Records which cells of the dungeon grid changed since the changes were last collected, so that a
+ * view can redraw only those cells. Only a bounded number of cells is listed; when more cells than
+ * that change at once, as while the dungeon is being built, the tracker just remembers that
+ * everything changed.
+ */
+final class ChangeTracker {
+
+  private static final int MAX_TRACKED = 1024;
+
+  private final BitSet marked;
+  private final int[] changed;
+  private int count;
+  private boolean everything;
+
+  /**
+   * Constructs a tracker with no changes recorded.
+   *
+   * @param size number of cells in the grid.
+   */
+  ChangeTracker(int size) {
+    this.marked = new BitSet(size);
+    this.changed = new int[MAX_TRACKED];
+    this.count = 0;
+    this.everything = false;
+  }
+
+  /**
+   * Records that the state of a cell changed.
+   *
+   * @param index index of the cell.
+   */
+  void mark(int index) {
+    if (everything || marked.get(index)) {
+      return;
+    }
+    if (count == changed.length) {
+      markAll();
+      return;
+    }
+    marked.set(index);
+    changed[count++] = index;
+  }
+
+  /**
+   * Records that every cell may have changed.
+   */
+  void markAll() {
+    if (!everything) {
+      clear();
+      everything = true;
+    }
+  }
+
+  boolean isEverythingChanged() {
+    return everything;
+  }
+
+  int getChangedCount() {
+    return count;
+  }
+
+  int getChanged(int i) {
+    return changed[i];
+  }
+
+  /**
+   * Forgets every recorded change.
+   */
+  void clear() {
+    for (int i = 0; i < count; i++) {
+      marked.clear(changed[i]);
+    }
+    count = 0;
+    everything = false;
+  }
+}
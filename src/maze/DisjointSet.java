@@ -0,0 +1,82 @@
+package maze;
+
+/**
+ * A disjoint-set (union-find) structure over the cells of the dungeon. Every cell is identified
+ * by its index {@code row * cols + col}. It is used by kruskal's algorithm to decide in near
+ * constant time whether an edge would join two nodes that are already connected.
+ */
+class DisjointSet {
+  private final int[] parent;
+  private final byte[] rank;
+
+  /**
+   * Constructs a disjoint set where every element starts in a set of its own.
+   *
+   * @param size number of elements in the set.
+   */
+  DisjointSet(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Size can't be negative");
+    }
+    parent = new int[size];
+    rank = new byte[size];
+    for (int i = 0; i < size; i++) {
+      parent[i] = i;
+    }
+  }
+
+  /**
+   * Returns the representative of the set that the element belongs to. The path from the element
+   * to the root is compressed so that later lookups are cheaper.
+   *
+   * @param element index of the element.
+   * @return index of the representative.
+   */
+  int find(int element) {
+    int root = element;
+    while (parent[root] != root) {
+      root = parent[root];
+    }
+    while (parent[element] != root) {
+      int next = parent[element];
+      parent[element] = root;
+      element = next;
+    }
+    return root;
+  }
+
+  /**
+   * Merges the sets of the two elements, attaching the shorter tree under the taller one.
+   *
+   * @param first  index of the first element.
+   * @param second index of the second element.
+   * @return true if the elements were in different sets before the call.
+   */
+  boolean union(int first, int second) {
+    int firstRoot = find(first);
+    int secondRoot = find(second);
+    if (firstRoot == secondRoot) {
+      return false;
+    }
+    if (rank[firstRoot] < rank[secondRoot]) {
+      parent[firstRoot] = secondRoot;
+    } else if (rank[firstRoot] > rank[secondRoot]) {
+      parent[secondRoot] = firstRoot;
+    } else {
+      parent[secondRoot] = firstRoot;
+      rank[firstRoot]++;
+    }
+    return true;
+  }
+
+  /**
+   * Returns if the two elements belong to the same set.
+   *
+   * @param first  index of the first element.
+   * @param second index of the second element.
+   * @return boolean value.
+   */
+  boolean isConnected(int first, int second) {
+    return find(first) == find(second);
+  }
+}
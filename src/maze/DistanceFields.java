@@ -0,0 +1,168 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Cache of distance fields over the dungeon grid. A distance field holds the number of moves from
+ * a set of source cells to every cell of the dungeon, so once a field has been computed any
+ * distance from its sources is a single array read. Fields from a single cell are kept in a
+ * bounded cache that drops the least recently used field when it is full. The field from the
+ * cells with a live monster is kept separately and is rebuilt only when a monster is placed or
+ * killed.
+ */
+final class DistanceFields {
+
+  static final int UNREACHABLE = -1;
+
+  private static final long MEMORY_BUDGET = 32L * 1024 * 1024;
+  private static final int MAX_FIELDS = 16;
+
+  private final DungeonGrid grid;
+  private final int[] queue;
+
+  private final int[] sources;
+  private final int[][] fields;
+  private final long[] lastUsed;
+  private int cachedFields;
+  private long clock;
+
+  private int[] liveMonsterField;
+
+  /**
+   * Constructs the cache for the given grid. The number of fields kept is bounded so that the
+   * cache stays within a fixed memory budget whatever the size of the dungeon.
+   *
+   * @param grid the dungeon grid.
+   */
+  DistanceFields(DungeonGrid grid) {
+    this(grid, (int) Math.max(1, Math.min(MAX_FIELDS,
+            MEMORY_BUDGET / (Integer.BYTES * (long) grid.size()))));
+  }
+
+  /**
+   * Constructs the cache for the given grid that keeps at most the given number of fields.
+   *
+   * @param grid     the dungeon grid.
+   * @param capacity number of single source fields to keep.
+   */
+  DistanceFields(DungeonGrid grid, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity has to be positive");
+    }
+    this.grid = grid;
+    this.queue = new int[grid.size()];
+    this.sources = new int[capacity];
+    this.fields = new int[capacity][];
+    this.lastUsed = new long[capacity];
+    this.cachedFields = 0;
+    this.clock = 0;
+  }
+
+  /**
+   * Returns the number of moves between the two cells.
+   *
+   * @param from index of the first cell.
+   * @param to   index of the second cell.
+   * @return number of moves or {@link #UNREACHABLE}.
+   */
+  int distance(int from, int to) {
+    return fromCell(from)[to];
+  }
+
+  /**
+   * Returns the field of the number of moves from the given cell to every other cell. The array
+   * is owned by the cache and must not be modified.
+   *
+   * @param source index of the cell.
+   * @return distance field.
+   */
+  int[] fromCell(int source) {
+    clock++;
+    int slot = -1;
+    for (int i = 0; i < cachedFields; i++) {
+      if (sources[i] == source) {
+        lastUsed[i] = clock;
+        return fields[i];
+      }
+      if (slot < 0 || lastUsed[i] < lastUsed[slot]) {
+        slot = i;
+      }
+    }
+    int[] field;
+    if (cachedFields < fields.length) {
+      slot = cachedFields++;
+      field = new int[grid.size()];
+    } else {
+      field = fields[slot];
+    }
+    queue[0] = source;
+    fill(field, 1);
+    sources[slot] = source;
+    fields[slot] = field;
+    lastUsed[slot] = clock;
+    return field;
+  }
+
+  /**
+   * Returns the number of moves from the cell to the nearest live monster.
+   *
+   * @param index index of the cell.
+   * @return number of moves or {@link #UNREACHABLE} when there is no live monster.
+   */
+  int distanceToLiveMonster(int index) {
+    if (liveMonsterField == null) {
+      CellSet monsters = grid.getCells(CellCategory.LIVE_MONSTER);
+      int count = monsters.size();
+      for (int i = 0; i < count; i++) {
+        queue[i] = monsters.get(i);
+      }
+      int[] field = new int[grid.size()];
+      fill(field, count);
+      liveMonsterField = field;
+    }
+    return liveMonsterField[index];
+  }
+
+  /**
+   * Drops the field of the live monsters, it is called whenever a monster is placed or killed.
+   */
+  void invalidateMonsters() {
+    liveMonsterField = null;
+  }
+
+  /**
+   * Drops every field, it is called whenever the entrances of a location change.
+   */
+  void invalidateAll() {
+    Arrays.fill(fields, 0, cachedFields, null);
+    cachedFields = 0;
+    liveMonsterField = null;
+  }
+
+  /**
+   * Runs a breadth first search from the sources that are already at the start of the queue and
+   * writes the number of moves to every cell into the field.
+   *
+   * @param field       array to write the distances to.
+   * @param sourceCount number of sources at the start of the queue.
+   */
+  private void fill(int[] field, int sourceCount) {
+    Arrays.fill(field, UNREACHABLE);
+    for (int i = 0; i < sourceCount; i++) {
+      field[queue[i]] = 0;
+    }
+    int head = 0;
+    int tail = sourceCount;
+    while (head < tail) {
+      int cell = queue[head++];
+      int next = field[cell] + 1;
+      for (Direction direction : DungeonGrid.DIRECTIONS) {
+        int neighbour = grid.neighbour(cell, direction);
+        if (neighbour >= 0 && field[neighbour] == UNREACHABLE) {
+          field[neighbour] = next;
+          queue[tail++] = neighbour;
+        }
+      }
+    }
+  }
+}
@@ -1,21 +1,30 @@
 package maze;
 
+import metrics.Metric;
+import metrics.Metrics;
 import radomnumbergenerator.RandomGenerator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 /**
  * The class that constructs the dungeon. The dungeon that will be created can be wrapping or
  * non-wrapping. It will have edges assigned to it based on the interconnectivity.
  */
 public class Dungeon implements Maze, ReadOnlyDungeon {
+
+  private static final Map<String, Boolean> MISSED = shotResult(false, false);
+  private static final Map<String, Boolean> HIT = shotResult(true, false);
+  private static final Map<String, Boolean> KILLED = shotResult(true, true);
+  private static final int EDGES_BETWEEN_CHECKS = 4096;
+  private static final long BYTES_PER_CELL = 96;
+
   private int rows;
   private int cols;
   private final double treasureCoverage;
@@ -26,7 +35,9 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
   private boolean isGameOver;
 
 
-  private Location[][] locations;
+  private final DungeonGrid grid;
+  private final GameEvents events;
+  private DungeonSnapshot snapshot;
 
   private List<Edge> edgeList;
   private RandomGenerator random;
@@ -47,8 +58,31 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
                  double treasureCoverage, int numberOfMonsters, int noOfPits,
                  RandomGenerator randomGenerator)
           throws IllegalArgumentException {
+    this(rows, cols, toWrap, interconnectivity, treasureCoverage, numberOfMonsters, noOfPits,
+            randomGenerator, GenerationListener.NONE);
+  }
+
+  /**
+   * Constructs the object of dungeon and tells the listener about every completed phase of the
+   * generation.
+   *
+   * @param rows              number of rows for the dungeon.
+   * @param cols              number of columns for the dungeon.
+   * @param toWrap            boolean value for wrapping.
+   * @param interconnectivity interconnectivity value.
+   * @param treasureCoverage  the percentage of treasure to allocated in the caves.
+   * @param randomGenerator   The random generator object.
+   * @param noOfPits          number of pits present in the dungeon.
+   * @param listener          the listener of the generation.
+   * @throws IllegalArgumentException when the entered values are invalid.
+   * @throws CancellationException    when the listener cancelled the generation.
+   */
+  public Dungeon(int rows, int cols, Boolean toWrap, int interconnectivity,
+                 double treasureCoverage, int numberOfMonsters, int noOfPits,
+                 RandomGenerator randomGenerator, GenerationListener listener)
+          throws IllegalArgumentException {
     if (rows <= 0 || cols <= 0 || toWrap == null || toWrap.equals(" ") || interconnectivity < 0
-            || randomGenerator == null
+            || randomGenerator == null || listener == null
             || noOfPits < 0 || noOfPits
             == rows * cols) {
       throw new IllegalArgumentException("The entered parameters are invalid");
@@ -64,7 +98,10 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
     this.numberOfMonsters = numberOfMonsters;
     this.noOfPits = noOfPits;
     this.isGameOver = false;
-    locations = new Location[rows][cols];
+    long started = Metrics.start();
+    long phase = started;
+    grid = new DungeonGrid(rows, cols);
+    events = new GameEvents();
     edgeList = new ArrayList<>();
     List<Edge> extraEdges = new ArrayList<>();
 
@@ -76,16 +113,19 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
      * 7 - 8 - 9
      */
 
-    for (int rowPos = 0; rowPos < rows; rowPos++) {
-      for (int colPos = 0; colPos < cols; colPos++) {
-        locations[rowPos][colPos] = new Location(rowPos, colPos);
-      }
-    }
     wrap(rows, cols, toWrap);
     createEdges();
+    phase = Metrics.lap(Metric.EDGES, phase);
     edgeList = randomizeEdges(edgeList);
+    phase = Metrics.lap(Metric.SHUFFLE, phase);
+    checkCancelled(listener);
+    DisjointSet connectedNodes = new DisjointSet(rows * cols);
+    int checked = 0;
     for (Edge edge : edgeList) {
-      if (!isInSameSet(edge)) {
+      if (++checked % EDGES_BETWEEN_CHECKS == 0) {
+        checkCancelled(listener);
+      }
+      if (!isInSameSet(connectedNodes, edge)) {
         edge.setDirection(edge.getDirection());
         noOfEdges++;
       } else {
@@ -97,43 +137,83 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
       edge.setDirection(edge.getDirection());
       noOfEdges++;
     }
+    // the entrances are stored in the grid, the edges are not needed once the dungeon is built.
+    edgeList = null;
+    phase = Metrics.lap(Metric.SPANNING_TREE, phase);
+    completed(listener, GenerationPhase.SPANNING_TREE);
 
     setCavesAndTunnels();
+    phase = Metrics.lap(Metric.CAVES_AND_TUNNELS, phase);
+    completed(listener, GenerationPhase.CAVES_AND_TUNNELS);
     assignPits();
+    phase = Metrics.lap(Metric.PITS, phase);
+    completed(listener, GenerationPhase.PITS);
 
     allocateItems(true);
     allocateItems(false);
+    phase = Metrics.lap(Metric.ITEMS, phase);
+    completed(listener, GenerationPhase.ITEMS);
     createPlayer();
+    phase = Metrics.lap(Metric.PLAYER, phase);
     allocateMonsters(numberOfMonsters);
+    Metrics.lap(Metric.MONSTERS, phase);
+    listener.phaseCompleted(GenerationPhase.MONSTERS);
+    // a view draws the whole dungeon when it is first shown.
+    grid.getChanges().clear();
+    Metrics.stop(Metric.DUNGEON, started);
 
   }
 
+  private static void completed(GenerationListener listener, GenerationPhase phase) {
+    listener.phaseCompleted(phase);
+    checkCancelled(listener);
+  }
+
+  private static void checkCancelled(GenerationListener listener) {
+    if (listener.isCancelled()) {
+      throw new CancellationException("The generation of the dungeon was cancelled");
+    }
+  }
+
   private void assignPits() {
     int noOfPitsToBeAllocated = getNoOfPits();
     if (noOfPitsToBeAllocated > 0) {
-      int allocated = 0;
-      while (allocated < noOfPitsToBeAllocated) {
-        Map<String, Integer> placement = random.randomPitPlacement(this.rows, this.cols);
-        int randomRow = placement.get("x");
-        int randomCol = placement.get("y");
-        if (!locations[randomRow][randomCol].isPit()) {
-          locations[randomRow][randomCol].setPit(true);
-          allocated++;
+      int[] candidates = new int[grid.size()];
+      int count = 0;
+      for (int i = 0; i < grid.size(); i++) {
+        if (!grid.isPit(i)) {
+          candidates[count++] = i;
         }
       }
+      int[] pits = random.randomPitCells(this.rows, this.cols,
+              Arrays.copyOf(candidates, count), noOfPitsToBeAllocated);
+      for (int pit : pits) {
+        grid.setPit(pit, true);
+      }
     }
   }
 
 
   @Override
   public boolean pickup(boolean isTreasure) {
+    long start = Metrics.start();
+    try {
+      return pickupItem(isTreasure);
+    } finally {
+      Metrics.stop(Metric.PICKUP, start);
+    }
+  }
+
+  private boolean pickupItem(boolean isTreasure) {
 
     List<Treasure> treasureAtLocation = getPlayer().getCurrentLocation().getTreasureAtLocation();
     int arrowCount = getPlayer().getCurrentLocation().getArrowCount();
 
     if (isTreasure) {
       if (treasureAtLocation != null && treasureAtLocation.size() > 0) {
+        int count = treasureAtLocation.size();
         getPlayer().collectTreasure();
+        events.treasurePickedUp(getPlayer().getCurrentLocation(), count);
         return true;
       } else {
         return false;
@@ -141,6 +221,7 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
     } else {
       if (arrowCount > 0) {
         getPlayer().collectArrow();
+        events.arrowsPickedUp(getPlayer().getCurrentLocation(), arrowCount);
         return true;
       } else {
         return false;
@@ -151,102 +232,88 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
 
   @Override
   public Map<String, Boolean> shoot(Direction direction, int distance) {
+    long start = Metrics.start();
+    try {
+      return shootArrow(direction, distance);
+    } finally {
+      Metrics.stop(Metric.SHOOT, start);
+    }
+  }
 
-    boolean monsterHit = false;
-    boolean monsterDead = false;
-
-    Map<String, Boolean> returnVal = new HashMap<>();
+  private Map<String, Boolean> shootArrow(Direction direction, int distance) {
 
     int arrowCount = getPlayer().getArrowCountOfPlayer();
 
     if (arrowCount == 0) {
-      returnVal.put("Monster Hit", monsterHit);
-      returnVal.put("Monster Dead", monsterDead);
-      return returnVal;
+      return MISSED;
     }
 
     getPlayer().setArrowCount(arrowCount - 1);
-    Location currentLocation = getPlayer().getCurrentLocation();
 
-    Map<Direction, Direction> oppositeDirections = new HashMap<>();
-
-    Direction north = Direction.NORTH;
-    Direction south = Direction.SOUTH;
-    Direction west = Direction.WEST;
-    Direction east = Direction.EAST;
-
-    oppositeDirections.put(north, south);
-    oppositeDirections.put(south, north);
-    oppositeDirections.put(west, east);
-    oppositeDirections.put(east, west);
-
-    while (true) {
-      Location arrowLocation = currentLocation.getDirectionOfLocation(direction);
-
-      if (arrowLocation == null) {
-        if (currentLocation.getIsTunnel()) {
+    int cell = grid.getRayTable().monsterHit(
+            getPlayer().getCurrentLocation().getIndex(), direction, distance);
+    if (cell < 0) {
+      return MISSED;
+    }
+    Location arrowLocation = grid.getLocation(cell);
+    Monster monster = arrowLocation.getMonster();
+    monster.decreaseLife();
+    arrowLocation.setMonster(monster);
+    if (monster.getIsAlive()) {
+      events.monsterHit(arrowLocation);
+      return HIT;
+    }
+    events.monsterKilled(arrowLocation);
+    return KILLED;
+  }
 
-          if (currentLocation.getDirectionOfLocation(north) != null
-                  && direction != oppositeDirections.get(north)) {
-            direction = north;
-            continue;
-          }
-          if (currentLocation.getDirectionOfLocation(south) != null
-                  && direction != oppositeDirections.get(south)) {
-            direction = south;
-            continue;
-          }
-          if (currentLocation.getDirectionOfLocation(west) != null
-                  && direction != oppositeDirections.get(west)) {
-            direction = west;
-            continue;
-          }
-          if (currentLocation.getDirectionOfLocation(east) != null
-                  && direction != oppositeDirections.get(east)) {
-            direction = east;
-            continue;
-          }
-        }
-        returnVal.put("Monster Hit", monsterHit);
-        returnVal.put("Monster Dead", monsterDead);
-        return returnVal;
-      } else if (arrowLocation != null && arrowLocation.getIsTunnel()) {
-        currentLocation = arrowLocation;
-        continue;
-      }
+  private static Map<String, Boolean> shotResult(boolean monsterHit, boolean monsterDead) {
+    Map<String, Boolean> returnVal = new HashMap<>();
+    returnVal.put("Monster Hit", monsterHit);
+    returnVal.put("Monster Dead", monsterDead);
+    return Collections.unmodifiableMap(returnVal);
+  }
 
-      if (arrowLocation.getIsCave()) {
-        distance--;
-      }
+  /**
+   * Returns an estimate of the memory a dungeon of the given size holds once it is played, with
+   * its snapshot and the distances of the player taken. Negative sizes count as empty.
+   *
+   * @param rows number of rows of the dungeon.
+   * @param cols number of columns of the dungeon.
+   * @return estimated number of bytes.
+   */
+  public static long estimatedBytes(int rows, int cols) {
+    return (long) Math.max(rows, 0) * Math.max(cols, 0) * BYTES_PER_CELL;
+  }
 
-      Monster monster = arrowLocation.getMonster();
-      if (monster != null && monster.getIsAlive()) {
-        if (distance != 0) {
-          returnVal.put("Monster Hit", monsterHit);
-          returnVal.put("Monster Dead", monsterDead);
-          return returnVal;
-        }
-        monster.decreaseLife();
-        arrowLocation.setMonster(monster);
-        monsterHit = true;
-        if (!monster.getIsAlive()) {
-          monsterDead = true;
-        }
-        returnVal.put("Monster Hit", monsterHit);
-        returnVal.put("Monster Dead", monsterDead);
-        return returnVal;
+  /**
+   * Returns the shots from the current location of the player that would hit a live monster. An
+   * arrow stops at the first live monster on its way, so there is at most one distance for every
+   * direction.
+   *
+   * @return map of the direction of every such shot to the number of caves it has to travel.
+   */
+  public Map<Direction, Integer> getShotsAtLiveMonsters() {
+    Map<Direction, Integer> shots = new EnumMap<>(Direction.class);
+    int cell = getPlayer().getCurrentLocation().getIndex();
+    for (Direction direction : Direction.values()) {
+      int distance = grid.getRayTable().firstLiveMonster(cell, direction, Integer.MAX_VALUE);
+      if (distance > 0) {
+        shots.put(direction, distance);
       }
-      currentLocation = arrowLocation;
     }
+    return shots;
   }
 
 
+
+
   @Override
   public void allocateMonsters(int numberOfMonsters) {
     if (numberOfMonsters == 0) {
       throw new IllegalArgumentException("Enter monsters greater than 1");
     }
-    if (numberOfMonsters > getTotalNodes(getRows() * getCols(), 0)) {
+    if (numberOfMonsters > grid.getCells(CellCategory.CAVE).size()) {
       throw new IllegalArgumentException("Enter monsters less than the total number of caves.");
     }
     Location finalLocation = this.player.getFinalLocation();
@@ -254,80 +321,171 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
     this.player.setFinalLocation(finalLocation);
     numberOfMonsters--;
 
-    while (numberOfMonsters > 0) {
-      Map<String, Integer> monster =
-              random.randomMonsterPlacement(this.getRows(), this.getCols());
-      Location location = getLocations()[monster.get("x")][monster.get("y")];
-      if (location.getIsTunnel() || location.getRowPos() == getPlayer().getStartRow()
-              && location.getColPos() == getPlayer().getStartCol()
-              || location.getMonster() != null) {
-        continue;
+    int start = grid.indexOf(getPlayer().getStartRow(), getPlayer().getStartCol());
+    CellSet caves = grid.getCells(CellCategory.CAVE);
+    int[] candidates = new int[caves.size()];
+    int count = 0;
+    for (int i = 0; i < caves.size(); i++) {
+      int cave = caves.get(i);
+      if (cave != start && grid.getMonsterLives(cave) == DungeonGrid.NO_MONSTER) {
+        candidates[count++] = cave;
       }
-      location.setMonster(new Monster());
-      numberOfMonsters--;
+    }
+    if (numberOfMonsters > count) {
+      throw new IllegalArgumentException("Enter monsters less than the total number of caves.");
+    }
+    int[] monsters = random.randomMonsterCells(getRows(), getCols(),
+            Arrays.copyOf(candidates, count), numberOfMonsters);
+    for (int monster : monsters) {
+      grid.getLocation(monster).setMonster(new Monster());
     }
   }
 
 
   /**
-   * Creates a player who will traverse the dungeon.
+   * Creates a player who will traverse the dungeon. The start is a cave without a pit and the end
+   * is a cave at least {@link Player#MINIMUM_MOVES} moves away from it, both picked uniformly by
+   * the random generator. When the start first picked has no such cave every cave is within a few
+   * moves of it, so there are only a handful of caves left to try as the start.
+   *
+   * @throws IllegalArgumentException when no two caves are far enough apart.
    */
-
   public void createPlayer() {
-    int startRow;
-    int startCol;
-    int endRow;
-    int endCol;
-
-    while (true) {
-      startRow = random.randomRowBoundedValues(this.getRows(), false);
-      startCol = random.randomColBoundedValues(this.getCols(), false);
-
-      if (getLocations()[startRow][startCol].getIsTunnel()
-              || getLocations()[startRow][startCol].isPit()) {
-        continue;
+    CellSet caves = grid.getCells(CellCategory.CAVE);
+    int[] starts = new int[caves.size()];
+    int startCount = 0;
+    for (int i = 0; i < caves.size(); i++) {
+      if (!grid.isPit(caves.get(i))) {
+        starts[startCount++] = caves.get(i);
+      }
+    }
+    if (startCount == 0) {
+      throw new IllegalArgumentException("There is no cave for the player to start in");
+    }
+    starts = Arrays.copyOf(starts, startCount);
+
+    int start = random.randomStartCell(rows, cols, starts);
+    int[] ends = endsFrom(start);
+    if (ends.length == 0) {
+      int[] validStarts = Arrays.stream(starts).filter(cell -> endsFrom(cell).length > 0)
+              .toArray();
+      if (validStarts.length == 0) {
+        throw new IllegalArgumentException("No two caves are at least " + Player.MINIMUM_MOVES
+                + " moves apart");
       }
-      endRow = random.randomRowBoundedValues(this.getRows(), true);
-      endCol = random.randomColBoundedValues(this.getCols(), true);
+      start = random.randomStartCell(rows, cols, validStarts);
+      ends = endsFrom(start);
+    }
+    int end = random.randomEndCell(rows, cols, ends);
+    this.player = new Player(grid.rowOf(start), grid.colOf(start), grid.rowOf(end),
+            grid.colOf(end), this);
+  }
 
-      if (startRow == endRow && startCol == endCol
-              || getLocations()[endRow][endCol].getIsTunnel()) {
-        continue;
+  /**
+   * Returns the caves that are far enough from the start to be the end of the game.
+   *
+   * @param start index of the start cell.
+   * @return indices of the caves.
+   */
+  private int[] endsFrom(int start) {
+    int[] distances = grid.getDistanceFields().fromCell(start);
+    CellSet caves = grid.getCells(CellCategory.CAVE);
+    int[] ends = new int[caves.size()];
+    int count = 0;
+    for (int i = 0; i < caves.size(); i++) {
+      if (distances[caves.get(i)] >= Player.MINIMUM_MOVES) {
+        ends[count++] = caves.get(i);
       }
-      this.player = new Player(startRow, startCol, endRow, endCol, this);
-      break;
     }
+    return Arrays.copyOf(ends, count);
   }
 
+
   @Override
   public boolean movePlayer(Direction direction) {
+    long start = Metrics.start();
+    try {
+      return move(direction);
+    } finally {
+      Metrics.stop(Metric.MOVE_PLAYER, start);
+    }
+  }
+
+  private boolean move(Direction direction) {
+    boolean moved = false;
     if (direction != null) {
-      if (this.player.getCurrentLocation().getDirectionOfLocation(direction) != null) {
-        this.player.getCurrentLocation().setHasPlayer(false);
-        this.player.setCurrentLocation(this.player.getCurrentLocation()
-                .getDirectionOfLocation(direction));
+      Location from = this.player.getCurrentLocation();
+      if (from.getDirectionOfLocation(direction) != null) {
+        from.setHasPlayer(false);
+        this.player.setCurrentLocation(from.getDirectionOfLocation(direction));
         this.player.getCurrentLocation().setHasPlayer(true);
+        moved = true;
+        events.moved(from, this.player.getCurrentLocation(), direction);
         if (this.player.getCurrentLocation().isPit()) {
           setGameOver(true);
           this.player.setIsAlive(false);
+          events.fellIntoPit(this.player.getCurrentLocation());
           return false;
         }
 
       }
     }
+    Location current = this.player.getCurrentLocation();
     double escapeChance = 100;
-    if (this.player.getCurrentLocation().getMonster() != null
-            && this.player.getCurrentLocation().getMonster().getLives() == 2) {
+    if (current.getMonster() != null && current.getMonster().getLives() == 2) {
       escapeChance = 0;
-    } else if (this.player.getCurrentLocation().getMonster() != null
-            && this.player.getCurrentLocation().getMonster().getLives() == 1) {
+    } else if (current.getMonster() != null && current.getMonster().getLives() == 1) {
       escapeChance = random.randomValue(100);
+      if (escapeChance >= 50) {
+        events.escaped(current);
+      }
     }
     if (escapeChance < 50) {
       setGameOver(true);
       this.player.setIsAlive(false);
+      events.eaten(current);
+      return false;
+    }
+    if (moved && current.equals(this.player.getFinalLocation())) {
+      events.reachedEnd(current);
+    }
+    return true;
+  }
+
+  @Override
+  public DungeonSnapshot getSnapshot() {
+    snapshot = DungeonSnapshot.take(grid, snapshot, player, isGameOver);
+    return snapshot;
+  }
+
+  @Override
+  public DungeonCheckpoint checkpoint() {
+    return new DungeonCheckpoint(grid, player, isGameOver);
+  }
+
+  @Override
+  public void restore(DungeonCheckpoint checkpoint) {
+    if (checkpoint == null || checkpoint.grid != grid) {
+      throw new IllegalArgumentException("The checkpoint is not of this dungeon");
+    }
+    grid.restore(checkpoint);
+    if (player != null && checkpoint.playerIndex >= 0) {
+      player.setCurrentLocation(grid.getLocation(checkpoint.playerIndex));
+      player.setArrowCount(checkpoint.playerArrows);
+      player.setIsAlive(checkpoint.playerAlive);
+      player.setTreasureCollected(new ArrayList<>(Arrays.asList(checkpoint.treasureCollected)));
     }
-    return escapeChance >= 50;
+    isGameOver = checkpoint.gameOver;
+  }
+
+  @Override
+  public void addGameEventListener(GameEventListener listener) {
+    events.add(listener);
+  }
+
+  @Override
+  public void removeGameEventListener(GameEventListener listener) {
+    events.remove(listener);
   }
 
   /**
@@ -352,14 +510,14 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
         for (int colPos = 0; colPos < cols; colPos++) {
 
           if (rowPos == 0) {
-            Edge upwardEdge = new Edge(locations[rowPos][colPos],
-                    locations[rows - 1][colPos], Direction.NORTH);
+            Edge upwardEdge = new Edge(locationAt(rowPos, colPos),
+                    locationAt(rows - 1, colPos), Direction.NORTH);
             edgeList.add(upwardEdge);
           }
 
           if (colPos == 0) {
-            Edge leftwardEdge = new Edge(locations[rowPos][colPos],
-                    locations[rowPos][cols - 1], Direction.WEST);
+            Edge leftwardEdge = new Edge(locationAt(rowPos, colPos),
+                    locationAt(rowPos, cols - 1), Direction.WEST);
             edgeList.add(leftwardEdge);
           }
         }
@@ -368,96 +526,34 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
   }
 
   /**
-   * Function that allocates items in the caves, which could either be treasure or arrows.
+   * Function that allocates items in the caves, which could either be treasure or arrows. The
+   * number of caves that get an item is given by the treasure coverage, and every one of them gets
+   * a single item.
    */
   private void allocateItems(boolean isTreasure) {
-    Integer totalNodes = getRows() * getCols();
-    int noOfTunnels = 0;
-    totalNodes = getTotalNodes(totalNodes, noOfTunnels);
-    Integer numberOfNodesToAllocate = Math.toIntExact(Math.round(treasureCoverage * totalNodes));
-    int allocated = 0;
-    Set allocatedNodes = new HashSet();
-    allocateItem(numberOfNodesToAllocate, allocated, allocatedNodes, isTreasure);
-
-  }
-
-
-  private void allocateItem(Integer numberOfNodesToAllocate, int allocated,
-                            Set allocatedNodes, boolean isTreasure) {
-    while (allocated < numberOfNodesToAllocate) {
-      Map<String, Integer> placement =
-              isTreasure ? random.randomTreasurePlacement(getRows(), getCols())
-                      : random.randomArrowPlacement(getRows(), getCols());
-      int randomRow = placement.get("x");
-      int randomCol = placement.get("y");
-      Treasure treasureType = Treasure.values()[random.randomValue(Treasure.values().length)];
-      if (getLocations()[randomRow][randomCol].getIsTunnel()) {
-        continue;
-      }
-      if (!allocatedNodes.contains(getLocations()[randomRow][randomCol])) {
-        allocatedNodes.add(getLocations()[randomRow][randomCol]);
-        if (isTreasure) {
-          List<Treasure> treasureAtLocation =
-                  getLocations()[randomRow][randomCol].getTreasureAtLocation();
-          treasureAtLocation.add(treasureType);
-          getLocations()[randomRow][randomCol].setTreasureAtLocation(treasureAtLocation);
-        } else {
-          getLocations()[randomRow][randomCol].incrementArrowCount();
-        }
+    int[] caves = grid.getCells(CellCategory.CAVE).toArray();
+    int numberOfNodesToAllocate = Math.toIntExact(Math.round(treasureCoverage * caves.length));
+    int[] allocatedNodes = isTreasure
+            ? random.randomTreasureCells(getRows(), getCols(), caves, numberOfNodesToAllocate)
+            : random.randomArrowCells(getRows(), getCols(), caves, numberOfNodesToAllocate);
+    for (int node : allocatedNodes) {
+      if (isTreasure) {
+        Treasure treasureType = Treasure.values()[random.randomValue(Treasure.values().length)];
+        grid.addTreasure(node, treasureType);
       } else {
-        if (isTreasure) {
-          List<Treasure> treasureAtLocation =
-                  getLocations()[randomRow][randomCol].getTreasureAtLocation();
-          treasureAtLocation.add(treasureType);
-          getLocations()[randomRow][randomCol].setTreasureAtLocation(treasureAtLocation);
-        } else {
-          getLocations()[randomRow][randomCol].incrementArrowCount();
-        }
-        continue;
-      }
-      allocated++;
-    }
-  }
-
-  private Integer getTotalNodes(Integer totalNodes, int noOfTunnels) {
-    for (int i = 0; i < locations.length; i++) {
-      for (int j = 0; j < locations[i].length; j++) {
-        if (locations[i][j].getIsTunnel()) {
-          noOfTunnels++;
-        }
+        grid.setArrows(node, grid.getArrows(node) + 1);
       }
     }
-    totalNodes = totalNodes - noOfTunnels;
-    return totalNodes;
   }
 
   /**
    * Function that sets the location nodes in the dungeon as caves and tunnels.
    */
   private void setCavesAndTunnels() {
-    for (int i = 0; i < getRows(); i++) {
-      for (int j = 0; j < getCols(); j++) {
-        int count = 0;
-        if (getLocations()[i][j].getDirectionOfLocation(Direction.WEST) != null) {
-          count++;
-        }
-        if (getLocations()[i][j].getDirectionOfLocation(Direction.EAST) != null) {
-          count++;
-        }
-        if (getLocations()[i][j].getDirectionOfLocation(Direction.SOUTH) != null) {
-          count++;
-        }
-        if (getLocations()[i][j].getDirectionOfLocation(Direction.NORTH) != null) {
-          count++;
-        }
-        if (count == 2) {
-          getLocations()[i][j].setIsCave(false);
-          getLocations()[i][j].setIsTunnel(true);
-        } else {
-          getLocations()[i][j].setIsCave(true);
-          getLocations()[i][j].setIsTunnel(false);
-        }
-      }
+    for (int i = 0; i < grid.size(); i++) {
+      boolean isTunnel = Integer.bitCount(grid.getExits(i)) == 2;
+      grid.setCave(i, !isTunnel);
+      grid.setTunnel(i, isTunnel);
     }
   }
 
@@ -480,12 +576,54 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
   }
 
   /**
-   * Returns the 2D array of locations.
+   * Returns the 2D array of locations. The dungeon keeps no object per location, so every call
+   * makes a new array of views, and views of the same location are equal.
    *
    * @return 2D array.
    */
   public Location[][] getLocations() {
-    return this.locations;
+    return grid.toArray();
+  }
+
+  private Location locationAt(int row, int col) {
+    return grid.getLocation(grid.indexOf(row, col));
+  }
+
+  /**
+   * Returns the number of moves needed to go from one location to the other. The distances from
+   * a location are computed once and kept for the following queries.
+   *
+   * @param from location to start from.
+   * @param to   location to reach.
+   * @return number of moves, or -1 when the location can't be reached.
+   */
+  public int getDistance(Location from, Location to) {
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Locations cant be null");
+    }
+    return grid.getDistanceFields().distance(from.getIndex(), to.getIndex());
+  }
+
+  /**
+   * Returns the number of moves from the location to the nearest Otyugh that is still alive.
+   *
+   * @param location location node.
+   * @return number of moves, or -1 when there is no live Otyugh that can be reached.
+   */
+  public int getDistanceToNearestMonster(Location location) {
+    if (location == null) {
+      throw new IllegalArgumentException("Location cant be null");
+    }
+    return grid.getDistanceFields().distanceToLiveMonster(location.getIndex());
+  }
+
+  /**
+   * Returns the grid that holds the state of every location in the dungeon.
+   *
+   * @return dungeon grid.
+   */
+  DungeonGrid getGrid() {
+    return this.grid;
   }
 
   /**
@@ -495,6 +633,59 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
     return this.noOfEdges;
   }
 
+  /**
+   * Returns the number of locations in the given category. The dungeon keeps an index of every
+   * category, so the count does not depend on the size of the dungeon.
+   *
+   * @param category the category of locations.
+   * @return number of locations.
+   * @throws IllegalArgumentException when the category is null.
+   */
+  public int countLocations(CellCategory category) {
+    if (category == null) {
+      throw new IllegalArgumentException("Category can't be null");
+    }
+    return grid.getCells(category).size();
+  }
+
+  /**
+   * Returns the locations in the given category, in no particular order.
+   *
+   * @param category the category of locations.
+   * @return list of locations.
+   * @throws IllegalArgumentException when the category is null.
+   */
+  public List<Location> getLocations(CellCategory category) {
+    if (category == null) {
+      throw new IllegalArgumentException("Category can't be null");
+    }
+    CellSet cells = grid.getCells(category);
+    List<Location> list = new ArrayList<>(cells.size());
+    for (int i = 0; i < cells.size(); i++) {
+      list.add(grid.getLocation(cells.get(i)));
+    }
+    return list;
+  }
+
+  @Override
+  public List<Location> getChangedLocations() {
+    ChangeTracker changes = grid.getChanges();
+    List<Location> changed;
+    if (changes.isEverythingChanged()) {
+      changed = new ArrayList<>(grid.size());
+      for (int i = 0; i < grid.size(); i++) {
+        changed.add(grid.getLocation(i));
+      }
+    } else {
+      changed = new ArrayList<>(changes.getChangedCount());
+      for (int i = 0; i < changes.getChangedCount(); i++) {
+        changed.add(grid.getLocation(changes.getChanged(i)));
+      }
+    }
+    changes.clear();
+    return changed;
+  }
+
   /**
    * Returns the treasure coverage of the dungeon.
    *
@@ -509,10 +700,10 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
   private List<Edge> createEdges() {
     for (int rowPos = 0; rowPos < rows; rowPos++) {
       for (int colPos = 0; colPos < cols; colPos++) {
-        Edge rightwardEdge = colPos + 1 < cols ? new Edge(locations[rowPos][colPos],
-                locations[rowPos][colPos + 1], Direction.EAST) : null;
-        Edge downwardEdge = rowPos + 1 < rows ? new Edge(locations[rowPos][colPos],
-                locations[rowPos + 1][colPos], Direction.SOUTH) : null;
+        Edge rightwardEdge = colPos + 1 < cols ? new Edge(locationAt(rowPos, colPos),
+                locationAt(rowPos, colPos + 1), Direction.EAST) : null;
+        Edge downwardEdge = rowPos + 1 < rows ? new Edge(locationAt(rowPos, colPos),
+                locationAt(rowPos + 1, colPos), Direction.SOUTH) : null;
         if (rightwardEdge != null) {
           edgeList.add(rightwardEdge);
         }
@@ -528,94 +719,54 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
     return random.randomizeEdges(edges);
   }
 
-  private boolean isInSameSet(Edge edge) {
-
+  /**
+   * Checks if the two nodes of the edge are already connected in the dungeon, and records the edge
+   * in the disjoint set when they are not. The second node is only treated as connected when it can
+   * be reached through a node other than the first one, so that the parallel and looping edges of a
+   * wrapping dungeon with two rows or columns are handled the same way as a full search would.
+   *
+   * @param connectedNodes disjoint set of the nodes that have been connected so far.
+   * @param edge           edge that is being considered.
+   * @return true if the nodes are already connected.
+   */
+  private boolean isInSameSet(DisjointSet connectedNodes, Edge edge) {
     Location point1 = edge.getPoint1();
     Location point2 = edge.getPoint2();
-
-    Set<Location> visited = new HashSet<>();
-
-    Queue<Location> q = new LinkedList<>();
-
-    visited.add(point1);
-
-    if (point1.getDirectionOfLocation(Direction.NORTH) != null) {
-      q.add(point1.getDirectionOfLocation(Direction.NORTH));
-      visited.add(point1.getDirectionOfLocation(Direction.NORTH));
-    }
-    if (point1.getDirectionOfLocation(Direction.SOUTH) != null) {
-      q.add(point1.getDirectionOfLocation(Direction.SOUTH));
-      visited.add(point1.getDirectionOfLocation(Direction.SOUTH));
+    if (point1.equals(point2)) {
+      return hasNeighbourOtherThan(point1, null);
     }
-    if (point1.getDirectionOfLocation(Direction.EAST) != null) {
-      q.add(point1.getDirectionOfLocation(Direction.EAST));
-      visited.add(point1.getDirectionOfLocation(Direction.EAST));
-    }
-    if (point1.getDirectionOfLocation(Direction.WEST) != null) {
-      q.add(point1.getDirectionOfLocation(Direction.WEST));
-      visited.add(point1.getDirectionOfLocation(Direction.WEST));
-    }
-
-    if (q.isEmpty()) {
+    int index1 = getIndex(point1);
+    int index2 = getIndex(point2);
+    if (!connectedNodes.isConnected(index1, index2)) {
+      connectedNodes.union(index1, index2);
       return false;
     }
+    return hasNeighbourOtherThan(point2, point1) || hasSelfLoop(point1);
+  }
 
-    while (!q.isEmpty()) {
-      point1 = q.poll();
-
-      Location directionNorth = point1.getDirectionOfLocation(Direction.NORTH);
-      Location directionSouth = point1.getDirectionOfLocation(Direction.SOUTH);
-      Location directionEast = point1.getDirectionOfLocation(Direction.EAST);
-      Location directionWest = point1.getDirectionOfLocation(Direction.WEST);
-
-
-      if (directionNorth != null) {
-        if (directionNorth == point2) {
-          return true;
-        } else {
-          if (!visited.contains(directionNorth)) {
-            q.add(directionNorth);
-            visited.add(directionNorth);
-          }
-        }
-      }
-
-      if (directionSouth != null) {
-        if (directionSouth == point2) {
-          return true;
-        } else {
-          if (!visited.contains(directionSouth)) {
-            q.add(directionSouth);
-            visited.add(directionSouth);
-          }
-        }
-      }
-
-      if (directionEast != null) {
-        if (directionEast == point2) {
-          return true;
-        } else {
-          if (!visited.contains(directionEast)) {
-            q.add(directionEast);
-            visited.add(directionEast);
-          }
-        }
+  private boolean hasNeighbourOtherThan(Location location, Location excluded) {
+    for (Direction direction : Direction.values()) {
+      Location neighbour = location.getDirectionOfLocation(direction);
+      if (neighbour != null && !neighbour.equals(excluded)) {
+        return true;
       }
+    }
+    return false;
+  }
 
-      if (directionWest != null) {
-        if (directionWest == point2) {
-          return true;
-        } else {
-          if (!visited.contains(directionWest)) {
-            q.add(directionWest);
-            visited.add(directionWest);
-          }
-        }
+  private boolean hasSelfLoop(Location location) {
+    for (Direction direction : Direction.values()) {
+      if (location.equals(location.getDirectionOfLocation(direction))) {
+        return true;
       }
     }
     return false;
   }
 
+  private int getIndex(Location location) {
+    return location.getIndex();
+  }
+
 
   /**
    * To display the dungeon for debugging process.
@@ -630,7 +781,7 @@ public class Dungeon implements Maze, ReadOnlyDungeon {
       for (int j = 0; j < originalMap[i].length; j++) {
         int startRow = i * 3;
         int startCol = j * 3;
-        String[][] miniMap = getLocations()[i][j].toLocation(player);
+        String[][] miniMap = locationAt(i, j).toLocation(player);
         for (int r = 0; r < 3; r++) {
           for (int c = 0; c < 3; c++) {
             output[startRow + r][startCol + c] = miniMap[r][c];
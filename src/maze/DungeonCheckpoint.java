@@ -0,0 +1,51 @@
+package maze;
+
+/**
+ * The saved state of a game at one point, that the dungeon it was taken from can be restored to.
+ * It holds the state that changes while the game is played, the items and monsters of every
+ * location and the player, as primitive arrays copied in bulk from the grid. The entrances and
+ * the kind of every location are fixed once the dungeon is generated, so they are not saved.
+ *
+ * <p>A checkpoint never changes, so a game can be restored to it any number of times, for
+ * instance to restart the same dungeon or to try several moves from the same position. The random
+ * generator of the dungeon is not saved with it.
+ */
+public final class DungeonCheckpoint {
+
+  final DungeonGrid grid;
+  final byte[] flags;
+  final int[] arrows;
+  final short[] treasure;
+  final byte[] monsterLives;
+  final int playerIndex;
+  final int playerArrows;
+  final boolean playerAlive;
+  final Treasure[] treasureCollected;
+  final boolean gameOver;
+
+  DungeonCheckpoint(DungeonGrid grid, Player player, boolean gameOver) {
+    this.grid = grid;
+    this.flags = grid.copyFlags();
+    this.arrows = grid.copyArrows();
+    this.treasure = grid.copyTreasure();
+    this.monsterLives = grid.copyMonsterLives();
+    Location current = player == null ? null : player.getCurrentLocation();
+    this.playerIndex = current == null ? -1 : grid.indexOf(current.getRowPos(),
+            current.getColPos());
+    this.playerArrows = player == null ? 0 : player.getArrowCountOfPlayer();
+    this.playerAlive = player != null && player.isAlive();
+    this.treasureCollected = player == null ? new Treasure[0]
+            : player.getTreasureCollected().toArray(new Treasure[0]);
+    this.gameOver = gameOver;
+  }
+
+  /**
+   * Returns the estimated memory held by the checkpoint.
+   *
+   * @return number of bytes.
+   */
+  public long getSizeInBytes() {
+    return flags.length + 4L * arrows.length + 2L * treasure.length + monsterLives.length
+            + 8L * treasureCollected.length;
+  }
+}
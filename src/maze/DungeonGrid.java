@@ -0,0 +1,516 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The compact representation of the dungeon. Every cell is identified by its index
+ * {@code row * cols + col} and its state is kept in primitive arrays instead of separate objects,
+ * so that even very large dungeons only need a few bytes per cell. The {@link Location} objects
+ * handed out by the dungeon are views over this grid that are made when they are asked for, the
+ * grid keeps no object per cell.
+ */
+final class DungeonGrid {
+
+  static final int NO_MONSTER = -1;
+  static final Direction[] DIRECTIONS = Direction.values();
+
+  private static final int CAVE = 1;
+  private static final int TUNNEL = 1 << 1;
+  private static final int PIT = 1 << 2;
+  private static final int START = 1 << 3;
+  private static final int END = 1 << 4;
+  private static final int PLAYER = 1 << 5;
+
+  private static final int TREASURE_TYPES = Treasure.values().length;
+
+  private final int rows;
+  private final int cols;
+
+  private final byte[] exits;
+  private final byte[] flags;
+  private final int[] arrows;
+  private final short[] treasure;
+  private final byte[] monsterLives;
+
+  private final ChangeTracker changes;
+  private final BitSet staleBlocks;
+  private DistanceFields distanceFields;
+  private CaveGraph caveGraph;
+  private RayTable rayTable;
+  private final SmellField smellField;
+  private final CellSet[] categories;
+
+  /**
+   * Constructs a grid where no cell has any entrance, item or monster.
+   *
+   * @param rows number of rows.
+   * @param cols number of columns.
+   */
+  DungeonGrid(int rows, int cols) {
+    if (rows <= 0 || cols <= 0) {
+      throw new IllegalArgumentException("The grid needs at least one row and column");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    int size = Math.multiplyExact(rows, cols);
+    exits = new byte[size];
+    flags = new byte[size];
+    arrows = new int[size];
+    treasure = new short[Math.multiplyExact(size, TREASURE_TYPES)];
+    monsterLives = new byte[size];
+    Arrays.fill(monsterLives, (byte) NO_MONSTER);
+    changes = new ChangeTracker(size);
+    staleBlocks = new BitSet();
+    smellField = new SmellField(this);
+    categories = new CellSet[CellCategory.values().length];
+    for (int i = 0; i < categories.length; i++) {
+      categories[i] = new CellSet(size);
+    }
+  }
+
+  int getRows() {
+    return rows;
+  }
+
+  int getCols() {
+    return cols;
+  }
+
+  int size() {
+    return exits.length;
+  }
+
+  int indexOf(int row, int col) {
+    return row * cols + col;
+  }
+
+  int rowOf(int index) {
+    return index / cols;
+  }
+
+  int colOf(int index) {
+    return index % cols;
+  }
+
+  /**
+   * Returns a view of the cell. Views are made on every call, two views of the same cell are
+   * equal.
+   *
+   * @param index index of the cell.
+   * @return the location of the cell.
+   */
+  Location getLocation(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Cell " + index + " is not in the grid");
+    }
+    return new Location(this, index);
+  }
+
+  /**
+   * Returns the locations as the two dimensional array that the dungeon exposes.
+   *
+   * @return 2D array of new views of the cells.
+   */
+  Location[][] toArray() {
+    Location[][] locations = new Location[rows][cols];
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        locations[row][col] = new Location(this, indexOf(row, col));
+      }
+    }
+    return locations;
+  }
+
+  /**
+   * Returns the direction that leads back the way the given direction came.
+   *
+   * @param direction enum direction.
+   * @return the opposite direction.
+   */
+  static Direction opposite(Direction direction) {
+    switch (direction) {
+      case NORTH:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.NORTH;
+      case EAST:
+        return Direction.WEST;
+      default:
+        return Direction.EAST;
+    }
+  }
+
+  /**
+   * Returns the index of the cell next to the given one in that direction. The grid is treated as
+   * wrapping, the exits decide whether the two cells are actually connected.
+   *
+   * @param index     index of the cell.
+   * @param direction enum direction.
+   * @return index of the adjacent cell.
+   */
+  int adjacent(int index, Direction direction) {
+    int row = index / cols;
+    int col = index % cols;
+    switch (direction) {
+      case NORTH:
+        return (row == 0 ? rows - 1 : row - 1) * cols + col;
+      case SOUTH:
+        return (row == rows - 1 ? 0 : row + 1) * cols + col;
+      case EAST:
+        return row * cols + (col == cols - 1 ? 0 : col + 1);
+      case WEST:
+        return row * cols + (col == 0 ? cols - 1 : col - 1);
+      default:
+        throw new IllegalArgumentException("Unknown direction");
+    }
+  }
+
+  /**
+   * Returns the index of the connected cell in that direction.
+   *
+   * @param index     index of the cell.
+   * @param direction enum direction.
+   * @return index of the neighbour or -1 when there is no entrance that way.
+   */
+  int neighbour(int index, Direction direction) {
+    return hasExit(index, direction) ? adjacent(index, direction) : -1;
+  }
+
+  boolean hasExit(int index, Direction direction) {
+    return (exits[index] & (1 << direction.ordinal())) != 0;
+  }
+
+  int getExits(int index) {
+    return exits[index];
+  }
+
+  void setExit(int index, Direction direction, boolean open) {
+    if (open) {
+      exits[index] |= 1 << direction.ordinal();
+    } else {
+      exits[index] &= ~(1 << direction.ordinal());
+    }
+    touched(index);
+    caveGraph = null;
+    rayTable = null;
+    if (distanceFields != null) {
+      distanceFields.invalidateAll();
+    }
+    smellField.invalidate();
+  }
+
+  boolean isCave(int index) {
+    return hasFlag(index, CAVE);
+  }
+
+  void setCave(int index, boolean value) {
+    setFlag(index, CAVE, value);
+    index(CellCategory.CAVE, index, value);
+  }
+
+  boolean isTunnel(int index) {
+    return hasFlag(index, TUNNEL);
+  }
+
+  void setTunnel(int index, boolean value) {
+    setFlag(index, TUNNEL, value);
+    index(CellCategory.TUNNEL, index, value);
+    caveGraph = null;
+    rayTable = null;
+  }
+
+  boolean isPit(int index) {
+    return hasFlag(index, PIT);
+  }
+
+  void setPit(int index, boolean value) {
+    setFlag(index, PIT, value);
+    index(CellCategory.PIT, index, value);
+  }
+
+  boolean isStart(int index) {
+    return hasFlag(index, START);
+  }
+
+  void setStart(int index, boolean value) {
+    setFlag(index, START, value);
+  }
+
+  boolean isEnd(int index) {
+    return hasFlag(index, END);
+  }
+
+  void setEnd(int index, boolean value) {
+    setFlag(index, END, value);
+  }
+
+  boolean hasPlayer(int index) {
+    return hasFlag(index, PLAYER);
+  }
+
+  void setPlayer(int index, boolean value) {
+    setFlag(index, PLAYER, value);
+  }
+
+  int getArrows(int index) {
+    return arrows[index];
+  }
+
+  void setArrows(int index, int count) {
+    arrows[index] = count;
+    touched(index);
+    index(CellCategory.ARROWS, index, count > 0);
+  }
+
+  int getTreasure(int index, Treasure type) {
+    return treasure[index * TREASURE_TYPES + type.ordinal()];
+  }
+
+  int getTreasureCount(int index) {
+    int count = 0;
+    for (int i = index * TREASURE_TYPES; i < (index + 1) * TREASURE_TYPES; i++) {
+      count += treasure[i];
+    }
+    return count;
+  }
+
+  void addTreasure(int index, Treasure type) {
+    int slot = index * TREASURE_TYPES + type.ordinal();
+    if (treasure[slot] == Short.MAX_VALUE) {
+      throw new IllegalStateException("Too much treasure at a single location");
+    }
+    treasure[slot]++;
+    touched(index);
+    index(CellCategory.TREASURE, index, true);
+  }
+
+  void clearTreasure(int index) {
+    Arrays.fill(treasure, index * TREASURE_TYPES, (index + 1) * TREASURE_TYPES, (short) 0);
+    touched(index);
+    index(CellCategory.TREASURE, index, false);
+  }
+
+  int getMonsterLives(int index) {
+    return monsterLives[index];
+  }
+
+  void setMonsterLives(int index, int lives) {
+    boolean wasAlive = hasLiveMonster(index);
+    monsterLives[index] = (byte) lives;
+    touched(index);
+    boolean isAlive = hasLiveMonster(index);
+    if (wasAlive == isAlive) {
+      return;
+    }
+    index(CellCategory.LIVE_MONSTER, index, isAlive);
+    if (distanceFields != null) {
+      distanceFields.invalidateMonsters();
+    }
+    smellField.monsterChanged(index, isAlive);
+  }
+
+  boolean hasLiveMonster(int index) {
+    return monsterLives[index] > 0;
+  }
+
+  byte[] copyFlags() {
+    return flags.clone();
+  }
+
+  int[] copyArrows() {
+    return arrows.clone();
+  }
+
+  short[] copyTreasure() {
+    return treasure.clone();
+  }
+
+  byte[] copyMonsterLives() {
+    return monsterLives.clone();
+  }
+
+  /**
+   * Restores the state of the cells saved in a checkpoint of this grid. The saved arrays are
+   * compared with the current ones a run at a time, and only the cells that differ are set, so
+   * the indexes, the smells and the record of changed cells are updated as for a move and a
+   * restore after a few turns only touches a few cells.
+   *
+   * @param checkpoint the checkpoint.
+   */
+  void restore(DungeonCheckpoint checkpoint) {
+    for (int i = next(flags, checkpoint.flags, 0); i >= 0;
+         i = next(flags, checkpoint.flags, i + 1)) {
+      restoreFlags(i, checkpoint.flags[i]);
+    }
+    for (int i = next(arrows, checkpoint.arrows, 0); i >= 0;
+         i = next(arrows, checkpoint.arrows, i + 1)) {
+      setArrows(i, checkpoint.arrows[i]);
+    }
+    for (int i = next(treasure, checkpoint.treasure, 0); i >= 0;
+         i = next(treasure, checkpoint.treasure, i + 1)) {
+      int cell = i / TREASURE_TYPES;
+      System.arraycopy(checkpoint.treasure, cell * TREASURE_TYPES, treasure,
+              cell * TREASURE_TYPES, TREASURE_TYPES);
+      touched(cell);
+      index(CellCategory.TREASURE, cell, getTreasureCount(cell) > 0);
+      i = (cell + 1) * TREASURE_TYPES - 1;
+    }
+    for (int i = next(monsterLives, checkpoint.monsterLives, 0); i >= 0;
+         i = next(monsterLives, checkpoint.monsterLives, i + 1)) {
+      setMonsterLives(i, checkpoint.monsterLives[i]);
+    }
+  }
+
+  private void restoreFlags(int index, int saved) {
+    int changed = flags[index] ^ saved;
+    if ((changed & CAVE) != 0) {
+      setCave(index, (saved & CAVE) != 0);
+    }
+    if ((changed & TUNNEL) != 0) {
+      setTunnel(index, (saved & TUNNEL) != 0);
+    }
+    if ((changed & PIT) != 0) {
+      setPit(index, (saved & PIT) != 0);
+    }
+    if ((changed & START) != 0) {
+      setStart(index, (saved & START) != 0);
+    }
+    if ((changed & END) != 0) {
+      setEnd(index, (saved & END) != 0);
+    }
+    if ((changed & PLAYER) != 0) {
+      setPlayer(index, (saved & PLAYER) != 0);
+    }
+  }
+
+  private static int next(byte[] current, byte[] saved, int from) {
+    int at = Arrays.mismatch(current, from, current.length, saved, from, saved.length);
+    return at < 0 ? -1 : from + at;
+  }
+
+  private static int next(int[] current, int[] saved, int from) {
+    int at = Arrays.mismatch(current, from, current.length, saved, from, saved.length);
+    return at < 0 ? -1 : from + at;
+  }
+
+  private static int next(short[] current, short[] saved, int from) {
+    int at = Arrays.mismatch(current, from, current.length, saved, from, saved.length);
+    return at < 0 ? -1 : from + at;
+  }
+
+  /**
+   * Returns the cache of distance fields over this grid, creating it on first use.
+   *
+   * @return distance fields.
+   */
+  DistanceFields getDistanceFields() {
+    if (distanceFields == null) {
+      distanceFields = new DistanceFields(this);
+    }
+    return distanceFields;
+  }
+
+  /**
+   * Returns the graph of the caves of this grid, building it on first use.
+   *
+   * @return cave graph.
+   */
+  CaveGraph getCaveGraph() {
+    if (caveGraph == null) {
+      caveGraph = new CaveGraph(this);
+    }
+    return caveGraph;
+  }
+
+  /**
+   * Returns the table of the caves arrows fly through, building it on first use.
+   *
+   * @return ray table.
+   */
+  RayTable getRayTable() {
+    if (rayTable == null) {
+      rayTable = new RayTable(this, getCaveGraph());
+    }
+    return rayTable;
+  }
+
+  /**
+   * Returns the record of the cells that changed since the changes were last collected.
+   *
+   * @return change tracker.
+   */
+  ChangeTracker getChanges() {
+    return changes;
+  }
+
+  /**
+   * Returns the blocks of {@link DungeonSnapshot#BLOCK_SIZE} cells that changed since the last
+   * snapshot was taken. The snapshot clears the set once it copied them.
+   *
+   * @return set of block numbers.
+   */
+  BitSet getStaleBlocks() {
+    return staleBlocks;
+  }
+
+  /**
+   * Returns the counts of live monsters near every cell.
+   *
+   * @return smell field.
+   */
+  SmellField getSmellField() {
+    return smellField;
+  }
+
+  /**
+   * Returns the index of the cells of the given category. The index is kept up to date by the
+   * setters of the grid and must not be changed by the caller.
+   *
+   * @param category the category.
+   * @return set of the cells in that category.
+   */
+  CellSet getCells(CellCategory category) {
+    return categories[category.ordinal()];
+  }
+
+  private void index(CellCategory category, int index, boolean value) {
+    if (value) {
+      categories[category.ordinal()].add(index);
+    } else {
+      categories[category.ordinal()].remove(index);
+    }
+  }
+
+  /**
+   * Records that the state of a cell, or what can be seen of it such as its smell, changed. The
+   * view redraws it and the next snapshot copies it.
+   *
+   * @param index index of the cell.
+   */
+  void touched(int index) {
+    changes.mark(index);
+    staleBlocks.set(index / DungeonSnapshot.BLOCK_SIZE);
+  }
+
+  /**
+   * Records that every cell may have changed.
+   */
+  void touchedAll() {
+    changes.markAll();
+    staleBlocks.set(0, (size() + DungeonSnapshot.BLOCK_SIZE - 1) / DungeonSnapshot.BLOCK_SIZE);
+  }
+
+  private boolean hasFlag(int index, int flag) {
+    return (flags[index] & flag) != 0;
+  }
+
+  private void setFlag(int index, int flag, boolean value) {
+    if (value) {
+      flags[index] |= flag;
+    } else {
+      flags[index] &= ~flag;
+    }
+    touched(index);
+  }
+}
@@ -0,0 +1,344 @@
+package maze;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * An immutable copy of the state of a dungeon and its player at one point of the game. The cells
+ * are copied in blocks of {@link #BLOCK_SIZE}, and the blocks are grouped in pages of as many
+ * blocks. A new snapshot only copies the blocks that changed since the previous one and the pages
+ * that hold them, and shares every other block and page with it. A turn only touches a few cells,
+ * so taking a snapshot after every turn costs a handful of small arrays even for a very large
+ * dungeon.
+ *
+ * <p>A snapshot has to be taken by the thread that plays the game, but once taken it never
+ * changes, so renderers, spectators and analytics on other threads can read it without any
+ * locking while the game goes on.
+ */
+public final class DungeonSnapshot {
+
+  /**
+   * Number of consecutive cells that are copied and shared together.
+   */
+  static final int BLOCK_SIZE = 64;
+
+  private static final int PAGE_SIZE = 64;
+
+  private static final int CAVE = 1;
+  private static final int TUNNEL = 1 << 1;
+  private static final int PIT = 1 << 2;
+  private static final int START = 1 << 3;
+  private static final int END = 1 << 4;
+  private static final int PLAYER = 1 << 5;
+
+  private static final Treasure[] TREASURES = Treasure.values();
+  private static final Smell[] SMELLS = Smell.values();
+
+  private final long version;
+  private final int rows;
+  private final int cols;
+  private final Block[][] pages;
+  private final int playerRow;
+  private final int playerCol;
+  private final int playerArrows;
+  private final boolean playerAlive;
+  private final Map<Treasure, Integer> treasureCollected;
+  private final boolean gameOver;
+
+  private DungeonSnapshot(long version, int rows, int cols, Block[][] pages, Player player,
+                          boolean gameOver) {
+    this.version = version;
+    this.rows = rows;
+    this.cols = cols;
+    this.pages = pages;
+    Location current = player == null ? null : player.getCurrentLocation();
+    this.playerRow = current == null ? -1 : current.getRowPos();
+    this.playerCol = current == null ? -1 : current.getColPos();
+    this.playerArrows = player == null ? 0 : player.getArrowCountOfPlayer();
+    this.playerAlive = player != null && player.isAlive();
+    Map<Treasure, Integer> collected = new EnumMap<>(Treasure.class);
+    if (player != null) {
+      for (Treasure treasure : player.getTreasureCollected()) {
+        if (treasure != null) {
+          collected.merge(treasure, 1, Integer::sum);
+        }
+      }
+    }
+    this.treasureCollected = Collections.unmodifiableMap(collected);
+    this.gameOver = gameOver;
+  }
+
+  /**
+   * Takes the snapshot that follows the previous one of the same grid. Only the blocks that
+   * changed since the previous snapshot are copied, when nothing changed at all the previous
+   * snapshot is returned.
+   *
+   * @param grid     the grid of the dungeon.
+   * @param previous the previous snapshot of the grid, or null for the first one.
+   * @param player   the player, or null when it has not been placed yet.
+   * @param gameOver whether the game is over.
+   * @return the snapshot.
+   */
+  static DungeonSnapshot take(DungeonGrid grid, DungeonSnapshot previous, Player player,
+                              boolean gameOver) {
+    BitSet stale = grid.getStaleBlocks();
+    Block[][] pages;
+    if (previous == null) {
+      int blocks = (grid.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+      pages = new Block[(blocks + PAGE_SIZE - 1) / PAGE_SIZE][];
+      for (int page = 0; page < pages.length; page++) {
+        pages[page] = new Block[Math.min(PAGE_SIZE, blocks - page * PAGE_SIZE)];
+        for (int i = 0; i < pages[page].length; i++) {
+          pages[page][i] = new Block(grid, page * PAGE_SIZE + i);
+        }
+      }
+    } else if (stale.isEmpty() && previous.hasSamePlayer(player, gameOver)) {
+      return previous;
+    } else {
+      pages = previous.pages.clone();
+      for (int block = stale.nextSetBit(0); block >= 0; block = stale.nextSetBit(block + 1)) {
+        int page = block / PAGE_SIZE;
+        if (pages[page] == previous.pages[page]) {
+          pages[page] = pages[page].clone();
+        }
+        pages[page][block % PAGE_SIZE] = new Block(grid, block);
+      }
+    }
+    stale.clear();
+    long version = previous == null ? 0 : previous.version + 1;
+    return new DungeonSnapshot(version, grid.getRows(), grid.getCols(), pages, player, gameOver);
+  }
+
+  private boolean hasSamePlayer(Player player, boolean gameOver) {
+    if (player == null || this.gameOver != gameOver || playerAlive != player.isAlive()
+            || playerArrows != player.getArrowCountOfPlayer()
+            || playerRow != player.getCurrentLocation().getRowPos()
+            || playerCol != player.getCurrentLocation().getColPos()) {
+      return false;
+    }
+    int count = 0;
+    for (Treasure treasure : player.getTreasureCollected()) {
+      if (treasure != null) {
+        count++;
+      }
+    }
+    for (int amount : treasureCollected.values()) {
+      count -= amount;
+    }
+    return count == 0;
+  }
+
+  /**
+   * Returns the number of the snapshot, every snapshot of a dungeon that differs from the
+   * previous one has the next number.
+   *
+   * @return version of the snapshot.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+  public int getCols() {
+    return cols;
+  }
+
+  /**
+   * Returns whether the location has an entrance in the given direction.
+   *
+   * @param row       row of the location.
+   * @param col       column of the location.
+   * @param direction the direction.
+   * @return true when the player can leave the location in that direction.
+   * @throws IllegalArgumentException when the location is outside the dungeon.
+   */
+  public boolean hasExit(int row, int col, Direction direction) {
+    int index = indexOf(row, col);
+    return (block(index).exits[index % BLOCK_SIZE] & (1 << direction.ordinal())) != 0;
+  }
+
+  public boolean isCave(int row, int col) {
+    return hasFlag(row, col, CAVE);
+  }
+
+  public boolean isTunnel(int row, int col) {
+    return hasFlag(row, col, TUNNEL);
+  }
+
+  public boolean isPit(int row, int col) {
+    return hasFlag(row, col, PIT);
+  }
+
+  public boolean isStart(int row, int col) {
+    return hasFlag(row, col, START);
+  }
+
+  public boolean isEnd(int row, int col) {
+    return hasFlag(row, col, END);
+  }
+
+  public boolean hasPlayer(int row, int col) {
+    return hasFlag(row, col, PLAYER);
+  }
+
+  /**
+   * Returns the number of arrows lying in the location.
+   *
+   * @param row row of the location.
+   * @param col column of the location.
+   * @return number of arrows.
+   * @throws IllegalArgumentException when the location is outside the dungeon.
+   */
+  public int getArrowCount(int row, int col) {
+    int index = indexOf(row, col);
+    return block(index).arrows[index % BLOCK_SIZE];
+  }
+
+  /**
+   * Returns how many treasures of the given type lie in the location.
+   *
+   * @param row      row of the location.
+   * @param col      column of the location.
+   * @param treasure type of the treasure.
+   * @return number of treasures of that type.
+   * @throws IllegalArgumentException when the location is outside the dungeon.
+   */
+  public int getTreasureCount(int row, int col, Treasure treasure) {
+    int index = indexOf(row, col);
+    return block(index).treasure[index % BLOCK_SIZE * TREASURES.length + treasure.ordinal()];
+  }
+
+  /**
+   * Returns how strongly the location smells of monsters.
+   *
+   * @param row row of the location.
+   * @param col column of the location.
+   * @return the smell strength.
+   * @throws IllegalArgumentException when the location is outside the dungeon.
+   */
+  public Smell getSmell(int row, int col) {
+    int index = indexOf(row, col);
+    return SMELLS[block(index).smells[index % BLOCK_SIZE]];
+  }
+
+  /**
+   * Returns the lives of the monster in the location.
+   *
+   * @param row row of the location.
+   * @param col column of the location.
+   * @return lives left, 0 for a dead monster and -1 when there is no monster.
+   * @throws IllegalArgumentException when the location is outside the dungeon.
+   */
+  public int getMonsterLives(int row, int col) {
+    int index = indexOf(row, col);
+    return block(index).monsterLives[index % BLOCK_SIZE];
+  }
+
+  /**
+   * Returns whether the location is certainly the same as in an earlier snapshot of the same
+   * dungeon, which lets a renderer skip it. The cells are compared by block, so a location can be
+   * reported as changed when only a location near it changed.
+   *
+   * @param earlier   an earlier snapshot of the same dungeon.
+   * @param row       row of the location.
+   * @param col       column of the location.
+   * @return true when the location has not changed since the earlier snapshot.
+   * @throws IllegalArgumentException when the location is outside the dungeon or the snapshots
+   *                                  are not of the same size.
+   */
+  public boolean isUnchangedSince(DungeonSnapshot earlier, int row, int col) {
+    if (earlier == null || earlier.rows != rows || earlier.cols != cols) {
+      throw new IllegalArgumentException("The snapshots are not of the same dungeon");
+    }
+    int index = indexOf(row, col);
+    return block(index) == earlier.block(index);
+  }
+
+  public int getPlayerRow() {
+    return playerRow;
+  }
+
+  public int getPlayerCol() {
+    return playerCol;
+  }
+
+  public int getPlayerArrowCount() {
+    return playerArrows;
+  }
+
+  public boolean isPlayerAlive() {
+    return playerAlive;
+  }
+
+  /**
+   * Returns the treasure the player had collected.
+   *
+   * @return map of the treasure type to how many were collected, it can't be modified.
+   */
+  public Map<Treasure, Integer> getTreasureCollected() {
+    return treasureCollected;
+  }
+
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  private boolean hasFlag(int row, int col, int flag) {
+    int index = indexOf(row, col);
+    return (block(index).flags[index % BLOCK_SIZE] & flag) != 0;
+  }
+
+  private Block block(int index) {
+    int block = index / BLOCK_SIZE;
+    return pages[block / PAGE_SIZE][block % PAGE_SIZE];
+  }
+
+  private int indexOf(int row, int col) {
+    if (row < 0 || row >= rows || col < 0 || col >= cols) {
+      throw new IllegalArgumentException("The location is outside the dungeon");
+    }
+    return row * cols + col;
+  }
+
+  /**
+   * The copy of the state of a run of consecutive cells.
+   */
+  private static final class Block {
+
+    private final byte[] exits;
+    private final byte[] flags;
+    private final int[] arrows;
+    private final short[] treasure;
+    private final byte[] monsterLives;
+    private final byte[] smells;
+
+    Block(DungeonGrid grid, int block) {
+      int first = block * BLOCK_SIZE;
+      int size = Math.min(BLOCK_SIZE, grid.size() - first);
+      exits = new byte[size];
+      flags = new byte[size];
+      arrows = new int[size];
+      treasure = new short[size * TREASURES.length];
+      monsterLives = new byte[size];
+      smells = new byte[size];
+      for (int i = 0; i < size; i++) {
+        int index = first + i;
+        exits[i] = (byte) grid.getExits(index);
+        flags[i] = (byte) ((grid.isCave(index) ? CAVE : 0) | (grid.isTunnel(index) ? TUNNEL : 0)
+                | (grid.isPit(index) ? PIT : 0) | (grid.isStart(index) ? START : 0)
+                | (grid.isEnd(index) ? END : 0) | (grid.hasPlayer(index) ? PLAYER : 0));
+        arrows[i] = grid.getArrows(index);
+        for (Treasure type : TREASURES) {
+          treasure[i * TREASURES.length + type.ordinal()] = (short) grid.getTreasure(index, type);
+        }
+        monsterLives[i] = (byte) grid.getMonsterLives(index);
+        smells[i] = (byte) grid.getSmellField().smellOf(index).ordinal();
+      }
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package maze;
+
+/**
+ * The interface of the observers of a game. The dungeon calls the listeners it has registered
+ * right after the event happened, on the thread that made the move. Every method does nothing by
+ * default, so a listener only overrides the events it is interested in. The events are plain
+ * method calls without an event object, so nothing is allocated to tell a listener.
+ */
+public interface GameEventListener {
+
+  /**
+   * Called when the player moved to a neighbouring location.
+   *
+   * @param from      location the player left.
+   * @param to        location the player entered.
+   * @param direction direction of the move.
+   */
+  default void moved(Location from, Location to, Direction direction) {
+    // not interested.
+  }
+
+  /**
+   * Called when the player fell into a pit, which ends the game.
+   *
+   * @param location location of the pit.
+   */
+  default void fellIntoPit(Location location) {
+    // not interested.
+  }
+
+  /**
+   * Called when the player was eaten by a monster, which ends the game.
+   *
+   * @param location location of the monster.
+   */
+  default void eaten(Location location) {
+    // not interested.
+  }
+
+  /**
+   * Called when the player got away from an injured monster in the same location.
+   *
+   * @param location location of the monster.
+   */
+  default void escaped(Location location) {
+    // not interested.
+  }
+
+  /**
+   * Called when an arrow injured a monster that is still alive.
+   *
+   * @param location location of the monster.
+   */
+  default void monsterHit(Location location) {
+    // not interested.
+  }
+
+  /**
+   * Called when an arrow killed a monster.
+   *
+   * @param location location of the monster.
+   */
+  default void monsterKilled(Location location) {
+    // not interested.
+  }
+
+  /**
+   * Called when the player picked up the treasure in a location.
+   *
+   * @param location location of the treasure.
+   * @param count    number of treasures picked up.
+   */
+  default void treasurePickedUp(Location location, int count) {
+    // not interested.
+  }
+
+  /**
+   * Called when the player picked up the arrows in a location.
+   *
+   * @param location location of the arrows.
+   * @param count    number of arrows picked up.
+   */
+  default void arrowsPickedUp(Location location, int count) {
+    // not interested.
+  }
+
+  /**
+   * Called when the player entered the end location and survived it.
+   *
+   * @param location the end location.
+   */
+  default void reachedEnd(Location location) {
+    // not interested.
+  }
+}
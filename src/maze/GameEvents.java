@@ -0,0 +1,112 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * The listeners registered with a dungeon, which passes every event on to all of them in the
+ * order they were added. The listeners are kept in an array that is copied when a listener is
+ * added or removed, so telling them about an event needs no lock and allocates nothing, and a
+ * listener may remove itself while it is being called.
+ */
+final class GameEvents implements GameEventListener {
+
+  private static final GameEventListener[] NONE = new GameEventListener[0];
+
+  private volatile GameEventListener[] listeners = NONE;
+
+  /**
+   * Adds a listener, a listener that was already added is called twice.
+   *
+   * @param listener the listener.
+   * @throws IllegalArgumentException when the listener is null.
+   */
+  synchronized void add(GameEventListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener can't be null");
+    }
+    GameEventListener[] added = Arrays.copyOf(listeners, listeners.length + 1);
+    added[listeners.length] = listener;
+    listeners = added;
+  }
+
+  /**
+   * Removes the first registration of the listener, nothing happens when it was not added.
+   *
+   * @param listener the listener.
+   */
+  synchronized void remove(GameEventListener listener) {
+    GameEventListener[] current = listeners;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i] == listener) {
+        GameEventListener[] removed = new GameEventListener[current.length - 1];
+        System.arraycopy(current, 0, removed, 0, i);
+        System.arraycopy(current, i + 1, removed, i, current.length - i - 1);
+        listeners = removed.length == 0 ? NONE : removed;
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void moved(Location from, Location to, Direction direction) {
+    for (GameEventListener listener : listeners) {
+      listener.moved(from, to, direction);
+    }
+  }
+
+  @Override
+  public void fellIntoPit(Location location) {
+    for (GameEventListener listener : listeners) {
+      listener.fellIntoPit(location);
+    }
+  }
+
+  @Override
+  public void eaten(Location location) {
+    for (GameEventListener listener : listeners) {
+      listener.eaten(location);
+    }
+  }
+
+  @Override
+  public void escaped(Location location) {
+    for (GameEventListener listener : listeners) {
+      listener.escaped(location);
+    }
+  }
+
+  @Override
+  public void monsterHit(Location location) {
+    for (GameEventListener listener : listeners) {
+      listener.monsterHit(location);
+    }
+  }
+
+  @Override
+  public void monsterKilled(Location location) {
+    for (GameEventListener listener : listeners) {
+      listener.monsterKilled(location);
+    }
+  }
+
+  @Override
+  public void treasurePickedUp(Location location, int count) {
+    for (GameEventListener listener : listeners) {
+      listener.treasurePickedUp(location, count);
+    }
+  }
+
+  @Override
+  public void arrowsPickedUp(Location location, int count) {
+    for (GameEventListener listener : listeners) {
+      listener.arrowsPickedUp(location, count);
+    }
+  }
+
+  @Override
+  public void reachedEnd(Location location) {
+    for (GameEventListener listener : listeners) {
+      listener.reachedEnd(location);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package maze;
+
+/**
+ * The interface of the observers of the generation of a dungeon. The dungeon calls the listener on
+ * the thread that constructs it, and asks it between the phases, and every few thousand edges of
+ * the spanning tree, whether it should go on. A cancelled generation stops at the next of these
+ * checks, and as the dungeon is never handed out its memory can be reclaimed at once.
+ */
+public interface GenerationListener {
+
+  /**
+   * The listener of a generation that nobody is watching and that can't be cancelled.
+   */
+  GenerationListener NONE = new GenerationListener() {
+  };
+
+  /**
+   * Called when a phase of the generation is completed.
+   *
+   * @param phase the completed phase.
+   */
+  default void phaseCompleted(GenerationPhase phase) {
+    // not interested.
+  }
+
+  /**
+   * Returns whether the generation has to be stopped.
+   *
+   * @return true to stop the generation.
+   */
+  default boolean isCancelled() {
+    return false;
+  }
+}
@@ -0,0 +1,31 @@
+package maze;
+
+/**
+ * The phases in which a dungeon is generated, in the order they are run.
+ */
+public enum GenerationPhase {
+  SPANNING_TREE("Connecting the locations"),
+  CAVES_AND_TUNNELS("Digging caves and tunnels"),
+  PITS("Placing the pits"),
+  ITEMS("Placing treasure and arrows"),
+  MONSTERS("Placing the player and the monsters");
+
+  private final String description;
+
+  GenerationPhase(String description) {
+    this.description = description;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * Returns how much of the generation is done once this phase is completed.
+   *
+   * @return percentage between 1 and 100.
+   */
+  public int getPercentDone() {
+    return (ordinal() + 1) * 100 / values().length;
+  }
+}
@@ -2,42 +2,20 @@ package maze;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
 import java.util.TreeMap;
 
 /**
- * The class that actually represents a node in the maze. The object of this class will basically
- * be pointing to other nodes depending on how the objects will be constructing.
+ * The class that actually represents a node in the maze. The object of this class is a view over
+ * a single cell of the dungeon grid, the state of the node is kept in the grid itself so that the
+ * node only knows which cell it is looking at. Views are made whenever they are asked for, so two
+ * locations are equal when they look at the same cell of the same grid.
  */
 public class Location {
 
-  private int rowPos;
-  private int colPos;
-
-  private boolean isCave;
-  private boolean isTunnel;
-  private boolean isPit;
-  private int arrowCount;
-  private Treasure treasure;
-  private Monster monster;
-
-  private Location locationOnNorth;
-  private Location locationOnSouth;
-  private Location locationOnEast;
-  private Location locationOnWest;
-
-  private List<Location> locationPath;
-
-  private List<Treasure> treasureAtLocation;
-
-  private boolean isStartLocation;
-  private boolean isEndLocation;
-  private boolean hasPlayer;
+  private final DungeonGrid grid;
+  private final int index;
 
 
   public static final String ANSI_RED = "\u001B[31m";
@@ -46,43 +24,34 @@ public class Location {
 
 
   /**
-   * Constructor which would construct a location node in the dungeon by accepting the following
-   * parameters.
+   * Constructor which would construct a view of a location node in the dungeon grid by accepting
+   * the following parameters.
    *
-   * @param rowPos position of the row.
-   * @param colPos position of the column.
+   * @param grid  the grid that holds the state of the node.
+   * @param index index of the node in the grid.
    */
-  public Location(int rowPos, int colPos) {
-    this.rowPos = rowPos;
-    this.colPos = colPos;
-    this.treasureAtLocation = new ArrayList<>();
-    this.arrowCount = 0;
-    this.hasPlayer = false;
+  Location(DungeonGrid grid, int index) {
+    this.grid = grid;
+    this.index = index;
   }
 
   /**
-   * Copy constructor for the Location object.
+   * Copy constructor for the Location object. The copy looks at the same node of the dungeon.
    *
    * @param location location object.
    */
   public Location(Location location) {
-    rowPos = location.rowPos;
-    colPos = location.colPos;
-    isCave = location.isCave;
-    isTunnel = location.isTunnel;
-    isPit = location.isPit;
-    arrowCount = location.arrowCount;
-    treasure = location.treasure;
-    monster = location.monster;
-    locationOnNorth = location.locationOnNorth;
-    locationOnSouth = location.locationOnSouth;
-    locationOnEast = location.locationOnEast;
-    locationOnWest = location.locationOnWest;
-    locationPath = location.getLocationPath();
-    treasureAtLocation = location.getTreasureAtLocation();
-    isStartLocation = location.isStartLocation;
-    isEndLocation = location.isEndLocation;
-    hasPlayer = location.hasPlayer;
+    grid = location.grid;
+    index = location.index;
+  }
+
+  /**
+   * Returns the index of the node in the dungeon grid.
+   *
+   * @return index of the node.
+   */
+  int getIndex() {
+    return this.index;
   }
 
   /**
@@ -91,7 +60,7 @@ public class Location {
    * @return position of the row.
    */
   public int getRowPos() {
-    return this.rowPos;
+    return grid.rowOf(index);
   }
 
   /**
@@ -100,7 +69,7 @@ public class Location {
    * @return position of the column.
    */
   public int getColPos() {
-    return this.colPos;
+    return grid.colOf(index);
   }
 
   /**
@@ -109,7 +78,7 @@ public class Location {
    * @return boolean value.
    */
   public boolean getIsTunnel() {
-    return this.isTunnel;
+    return grid.isTunnel(index);
   }
 
   /**
@@ -118,7 +87,7 @@ public class Location {
    * @return boolean value.
    */
   public boolean getIsCave() {
-    return this.isCave;
+    return grid.isCave(index);
   }
 
 
@@ -128,7 +97,7 @@ public class Location {
    * @return arrow count.
    */
   public int getArrowCount() {
-    return this.arrowCount;
+    return grid.getArrows(index);
   }
 
   /**
@@ -137,8 +106,9 @@ public class Location {
    * @return immutable monster object.
    */
   public Monster getMonster() {
-    if (monster != null) {
-      return new Monster(monster);
+    int lives = grid.getMonsterLives(index);
+    if (lives != DungeonGrid.NO_MONSTER) {
+      return new Monster(lives);
     } else {
       return null;
     }
@@ -150,7 +120,7 @@ public class Location {
    * @param monster monster object.
    */
   public void setMonster(Monster monster) {
-    this.monster = monster;
+    grid.setMonsterLives(index, monster == null ? DungeonGrid.NO_MONSTER : monster.getLives());
   }
 
 
@@ -158,7 +128,7 @@ public class Location {
    * Increments the arrow count when the player picks up the arrows in the dungeon.
    */
   public void incrementArrowCount() {
-    this.arrowCount++;
+    grid.setArrows(index, grid.getArrows(index) + 1);
   }
 
   /**
@@ -167,7 +137,7 @@ public class Location {
    * @param value true or false
    */
   public void setIsCave(boolean value) {
-    this.isCave = value;
+    grid.setCave(index, value);
   }
 
   /**
@@ -176,17 +146,20 @@ public class Location {
    * @param value true or false
    */
   public void setIsTunnel(boolean value) {
-    this.isTunnel = value;
+    grid.setTunnel(index, value);
   }
 
 
   /**
-   * Sets the treasure value.
+   * Sets the treasure value, replacing any treasure that is already present at the location.
    *
    * @param treasure treasure in the location.
    */
   public void setTreasure(Treasure treasure) {
-    this.treasure = treasure;
+    grid.clearTreasure(index);
+    if (treasure != null) {
+      grid.addTreasure(index, treasure);
+    }
   }
 
   /**
@@ -195,43 +168,27 @@ public class Location {
    * @return treasure.
    */
   public Treasure getTreasure() {
-    return this.treasure;
-  }
-
-
-  /**
-   * Returns the list of locations which is optimal from the start to that point.
-   *
-   * @return locations present in the dungeon.
-   */
-  public List<Location> getLocationPath() {
-    if (this.locationPath == null) {
-      return null;
+    for (Treasure treasure : Treasure.values()) {
+      if (grid.getTreasure(index, treasure) > 0) {
+        return treasure;
+      }
     }
-    return new ArrayList<>(this.locationPath);
+    return null;
   }
 
-  /**
-   * assigns a list of locations which is optimal from the start to that point.
-   *
-   * @param locationPath list of optimal path.
-   */
-  public void setLocationPath(List<Location> locationPath) {
-    this.locationPath = locationPath;
-  }
 
   /**
    * Clears the treasure from the location once the player has collected the treasure.
    */
   public void removeTreasure() {
-    treasureAtLocation.clear();
+    grid.clearTreasure(index);
   }
 
   /**
    * Clears the arrows from the locations when the player collects the arrows.
    */
   public void removeArrows() {
-    arrowCount = 0;
+    grid.setArrows(index, 0);
   }
 
   /**
@@ -242,45 +199,25 @@ public class Location {
    * @return location node.
    */
   public Location getDirectionOfLocation(Direction direction) {
-    switch (direction) {
-      case NORTH:
-        return locationOnNorth;
-      case SOUTH:
-        return locationOnSouth;
-      case EAST:
-        return locationOnEast;
-      case WEST:
-        return locationOnWest;
-      default:
-        break;
-    }
-    return null;
+    int neighbour = grid.neighbour(index, direction);
+    return neighbour < 0 ? null : grid.getLocation(neighbour);
   }
 
   /**
    * Based on the direction that is passed, the current node points the location node in that
-   * direction.
+   * direction. The location has to be the node next to this one in that direction, or null to
+   * close the entrance.
    *
    * @param direction enum direction.
    * @param location  location node.
+   * @throws IllegalArgumentException when the location is not next to this node.
    */
   public void setDirectionOfLocation(Direction direction, Location location) {
-    switch (direction) {
-      case NORTH:
-        this.locationOnNorth = location;
-        break;
-      case SOUTH:
-        this.locationOnSouth = location;
-        break;
-      case EAST:
-        this.locationOnEast = location;
-        break;
-      case WEST:
-        this.locationOnWest = location;
-        break;
-      default:
-        break;
+    if (location != null && (location.grid != grid
+            || location.index != grid.adjacent(index, direction))) {
+      throw new IllegalArgumentException("Location is not adjacent in the given direction");
     }
+    grid.setExit(index, direction, location != null);
   }
 
   /**
@@ -309,10 +246,12 @@ public class Location {
    */
   public Map<Treasure, Integer> getTreasureMap() {
     Map<Treasure, Integer> treasureIntegerMap = new HashMap();
-    treasureAtLocation.forEach(treasure -> {
-      treasureIntegerMap.putIfAbsent(treasure, 0);
-      treasureIntegerMap.put(treasure, treasureIntegerMap.get(treasure) + 1);
-    });
+    for (Treasure treasure : Treasure.values()) {
+      int count = grid.getTreasure(index, treasure);
+      if (count > 0) {
+        treasureIntegerMap.put(treasure, count);
+      }
+    }
     return treasureIntegerMap;
   }
 
@@ -358,12 +297,18 @@ public class Location {
   }
 
   /**
-   * Returns the treasure at the location.
+   * Returns the treasure at the location, grouped by the type of treasure.
    *
    * @return treasure.
    */
   public List<Treasure> getTreasureAtLocation() {
-    return new ArrayList<>(this.treasureAtLocation);
+    List<Treasure> treasureAtLocation = new ArrayList<>(grid.getTreasureCount(index));
+    for (Treasure treasure : Treasure.values()) {
+      for (int i = grid.getTreasure(index, treasure); i > 0; i--) {
+        treasureAtLocation.add(treasure);
+      }
+    }
+    return treasureAtLocation;
   }
 
   /**
@@ -372,7 +317,14 @@ public class Location {
    * @param treasures list.
    */
   public void setTreasureAtLocation(List<Treasure> treasures) {
-    this.treasureAtLocation = treasures;
+    grid.clearTreasure(index);
+    if (treasures != null) {
+      for (Treasure treasure : treasures) {
+        if (treasure != null) {
+          grid.addTreasure(index, treasure);
+        }
+      }
+    }
   }
 
   /**
@@ -400,17 +352,15 @@ public class Location {
         }
         if (i == 1 && j == 1) {
           strings[i][j] = String.valueOf(0);
-          if (player != null && player.getCurrentLocation().getRowPos() == this.rowPos
-                  && player.getCurrentLocation().getColPos() == this.colPos) {
+          if (player != null && player.getCurrentLocation().getRowPos() == getRowPos()
+                  && player.getCurrentLocation().getColPos() == getColPos()) {
             strings[i][j] = "P";
           }
-          strings[i][j] = this.arrowCount != 0 ? "x" : strings[i][j];
-          strings[i][j] = monster != null && monster.getIsAlive()
-                  && monster.getLives() == 2 ? "👹" : strings[i][j];
-          strings[i][j] = monster != null
-                  && monster.getIsAlive() && monster.getLives() == 1 ? "👿" : strings[i][j];
+          strings[i][j] = getArrowCount() != 0 ? "x" : strings[i][j];
+          strings[i][j] = grid.getMonsterLives(index) == 2 ? "👹" : strings[i][j];
+          strings[i][j] = grid.getMonsterLives(index) == 1 ? "👿" : strings[i][j];
 
-          strings[i][j] = this.isPit ? "o" : strings[i][j];
+          strings[i][j] = isPit() ? "o" : strings[i][j];
 
           strings[i][j] = isStartLocation()
                   ? (ANSI_GREEN + strings[i][j] + ANSI_RESET) : strings[i][j];
@@ -432,7 +382,7 @@ public class Location {
    * @return boolean value.
    */
   public boolean isStartLocation() {
-    return isStartLocation;
+    return grid.isStart(index);
   }
 
   /**
@@ -441,7 +391,7 @@ public class Location {
    * @param startLocation location node.
    */
   public void setStartLocation(boolean startLocation) {
-    isStartLocation = startLocation;
+    grid.setStart(index, startLocation);
   }
 
   /**
@@ -450,7 +400,7 @@ public class Location {
    * @return true or false.
    */
   public boolean isEndLocation() {
-    return isEndLocation;
+    return grid.isEnd(index);
   }
 
   /**
@@ -459,7 +409,7 @@ public class Location {
    * @param endLocation location node.
    */
   public void setEndLocation(boolean endLocation) {
-    isEndLocation = endLocation;
+    grid.setEnd(index, endLocation);
   }
 
   /**
@@ -467,7 +417,7 @@ public class Location {
    * @return boolean value
    */
   public boolean hasPlayer() {
-    return hasPlayer;
+    return grid.hasPlayer(index);
   }
 
   /**
@@ -475,7 +425,7 @@ public class Location {
    * @param hasPlayer boolean value.
    */
   public void setHasPlayer(boolean hasPlayer) {
-    this.hasPlayer = hasPlayer;
+    grid.setPlayer(index, hasPlayer);
   }
 
 
@@ -486,102 +436,29 @@ public class Location {
    * @return Smell Strength.
    */
   public Smell checkSmellStrength() {
-    Map<Integer, Integer> smellyMonsters = checkForMonsters();
-
-    Integer noOfMonstersOnePosAway = smellyMonsters.get(1);
-    Integer noOfMonstersTwoPosAway = smellyMonsters.get(2);
-
-    if (noOfMonstersOnePosAway > 0 || noOfMonstersTwoPosAway > 1) {
-      return Smell.STRONG;
-    }
-    if (noOfMonstersTwoPosAway == 1) {
-      return Smell.WEAK;
-    }
-    return Smell.NONE;
+    return grid.getSmellField().smellOf(index);
   }
 
   /**
-   * This function implements a BFS algorithm, and checks if the monster is one or two positions
-   * away from the player's position.
+   * Returns the number of live monsters that are one and two positions away from this location.
+   * The counts are kept up to date by the dungeon whenever a monster is placed or killed.
    * @return a map which maintains the count of monsters that are one and two positions away.
    */
   public Map<Integer, Integer> checkForMonsters() {
-
+    SmellField smellField = grid.getSmellField();
     Map<Integer, Integer> monsterMap = new HashMap<>();
-
-    int onePosMonsterCount = 0;
-    int twoPosMonsterCount = 0;
-
-    Location checkLocation = this;
-
-    Queue<Location> q = new LinkedList<>();
-    q.add(checkLocation);
-    q.add(null);
-    Set<Location> visited = new HashSet<>();
-    visited.add(checkLocation);
-
-
-    int pathLength = 0;
-
-    while (!q.isEmpty()) {
-      Location location = q.poll();
-
-      checkLocation = location;
-
-      if (location == null) {
-        pathLength++;
-        if (pathLength == 3) {
-          monsterMap.put(1, onePosMonsterCount);
-          monsterMap.put(2, twoPosMonsterCount);
-          return monsterMap;
-        }
-        q.add(null);
-        if (q.peek() == null) {
-          break;
-        } else {
-          continue;
-        }
-      }
-
-      if (checkLocation.getMonster() != null && checkLocation.getMonster().getIsAlive()
-              && pathLength == 1) {
-        onePosMonsterCount++;
-      } else if (checkLocation.getMonster() != null && checkLocation.getMonster().getIsAlive()
-              && pathLength == 2) {
-        twoPosMonsterCount++;
-      }
-
-      Location directionNorth = checkLocation.getDirectionOfLocation(Direction.NORTH);
-      Location directionSouth = checkLocation.getDirectionOfLocation(Direction.SOUTH);
-      Location directionEast = checkLocation.getDirectionOfLocation(Direction.EAST);
-      Location directionWest = checkLocation.getDirectionOfLocation(Direction.WEST);
-
-      addToQueue(q, visited, directionNorth);
-      addToQueue(q, visited, directionSouth);
-      addToQueue(q, visited, directionEast);
-      addToQueue(q, visited, directionWest);
-
-    }
-    monsterMap.put(1, onePosMonsterCount);
-    monsterMap.put(2, twoPosMonsterCount);
+    monsterMap.put(1, smellField.monstersOneAway(index));
+    monsterMap.put(2, smellField.monstersTwoAway(index));
     return monsterMap;
   }
 
-  private void addToQueue(Queue<Location> q, Set<Location> visited, Location directionNorth) {
-    if (directionNorth != null && !visited.contains(directionNorth)) {
-      q.add(directionNorth);
-      visited.add(directionNorth);
-    }
-
-  }
-
   /**
    * Returns if the current location is a pit or not.
    *
    * @return boolean value.
    */
   public boolean isPit() {
-    return isPit;
+    return grid.isPit(index);
   }
 
   /**
@@ -590,7 +467,24 @@ public class Location {
    * @param pit boolean value.
    */
   public void setPit(boolean pit) {
-    isPit = pit;
+    grid.setPit(index, pit);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Location)) {
+      return false;
+    }
+    Location location = (Location) o;
+    return grid == location.grid && index == location.index;
+  }
+
+  @Override
+  public int hashCode() {
+    return index;
   }
 }
 
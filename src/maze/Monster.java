@@ -19,6 +19,15 @@ public class Monster implements Enemy {
     this.lives = 2;
   }
 
+  /**
+   * Constructor to create an object of Monster that has the given number of lives left.
+   * @param lives number of lives.
+   */
+  Monster(int lives) {
+    this.isAlive = lives > 0;
+    this.lives = lives;
+  }
+
   /**
    * Copy constructor for the Monster.
    * @param monster Monster object.
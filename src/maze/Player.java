@@ -2,13 +2,9 @@ package maze;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -17,6 +13,12 @@ import java.util.stream.Collectors;
  * is present in the cave.
  */
 public class Player implements Character {
+
+  /**
+   * The least number of moves between the start and the end location of a game.
+   */
+  public static final int MINIMUM_MOVES = 5;
+
   private Location currentLocation;
   private Location endLocation;
   private final Location startLocation;
@@ -25,6 +27,7 @@ public class Player implements Character {
   private int arrowCount;
   private int minimumMoves;
   private boolean isAlive;
+  private final DungeonGrid grid;
 
 
   private List<Treasure> treasureCollected = new ArrayList<>();
@@ -46,8 +49,9 @@ public class Player implements Character {
     this.startCol = startCol;
     this.arrowCount = 3;
     this.isAlive = true;
-    currentLocation = dungeon.getLocations()[startRow][startCol];
-    endLocation = dungeon.getLocations()[endRow][endCol];
+    this.grid = dungeon.getGrid();
+    currentLocation = grid.getLocation(grid.indexOf(startRow, startCol));
+    endLocation = grid.getLocation(grid.indexOf(endRow, endCol));
 
     this.startLocation = currentLocation;
 
@@ -74,6 +78,7 @@ public class Player implements Character {
     arrowCount = player.arrowCount;
     minimumMoves = player.minimumMoves;
     isAlive = player.isAlive;
+    grid = player.grid;
     treasureCollected = player.getTreasureCollected();
   }
 
@@ -94,81 +99,23 @@ public class Player implements Character {
 
   @Override
   public List<Location> searchForOptimalPaths() {
-
-    Set visited = new HashSet<>();
-    Queue<Location> q1 = new LinkedList<>();
-
-
-    q1.add(currentLocation);
-    q1.add(null);
-
-    visited.add(currentLocation);
-    Location location;
-    int pathLength = 0;
-
-    Location firstLocation = q1.peek();
-    List<Location> pathList = new ArrayList<>();
-    pathList.add(firstLocation);
-    firstLocation.setLocationPath(pathList);
-
-    while (!q1.isEmpty()) {
-      location = q1.poll();
-      currentLocation = location;
-
-      if (location == null) {
-        pathLength++;
-        q1.add(null);
-        if (q1.peek() == null) {
-          break;
-        } else {
-          continue;
-        }
-      }
-
-      if (location == endLocation) {
-        break;
-      }
-
-      Location directionNorth = location.getDirectionOfLocation(Direction.NORTH);
-      Location directionSouth = location.getDirectionOfLocation(Direction.SOUTH);
-      Location directionEast = location.getDirectionOfLocation(Direction.EAST);
-      Location directionWest = location.getDirectionOfLocation(Direction.WEST);
-
-      addPath(location, visited, q1, directionNorth);
-      addPath(location, visited, q1, directionSouth);
-      addPath(location, visited, q1, directionEast);
-      addPath(location, visited, q1, directionWest);
-
+    int start = currentLocation.getIndex();
+    int end = endLocation.getIndex();
+    int[] path = grid.getCaveGraph().shortestPath(start, end);
+    if (path == null) {
+      throw new IllegalStateException("The end location can't be reached from the start");
     }
+    minimumMoves = path.length - 1;
 
-    minimumMoves = pathLength;
-
-    if (this.minimumMoves < 5) {
+    if (this.minimumMoves < MINIMUM_MOVES) {
       throw new IllegalArgumentException("Please change start and end points, minimum number"
               + "of moves to end location is less than 5");
     }
-    return endLocation.getLocationPath();
-  }
-
-  /**
-   * Function that is getting the optimal location path and assigning it to the node.
-   *
-   * @param currentLocation the location node that is calling the function.
-   * @param visited         set of all visited nodes.
-   * @param q               queue which maintains the nodes.
-   * @param nextLocation    the next location node.
-   */
-  private void addPath(Location currentLocation, Set visited, Queue<Location> q,
-                       Location nextLocation) {
-    if (nextLocation != null && !visited.contains(nextLocation)) {
-      q.add(nextLocation);
-      visited.add(nextLocation);
-
-      List<Location> locationPath = new ArrayList<>(currentLocation.getLocationPath());
-      locationPath.add(nextLocation);
-      nextLocation.setLocationPath(locationPath);
+    List<Location> locations = new ArrayList<>(path.length);
+    for (int cell : path) {
+      locations.add(grid.getLocation(cell));
     }
-
+    return locations;
   }
 
   /**
@@ -0,0 +1,165 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * The caves an arrow flies through, in order, for every node of the {@link CaveGraph} and every
+ * direction it can be shot in. An arrow passes straight through caves and follows the tunnels, so
+ * its flight only depends on the entrances and is worked out once for the whole dungeon. A shot
+ * then reads the caves from the table and only checks which of them has a live monster.
+ *
+ * <p>Every entry of the table holds at most {@link #RAY_LENGTH} caves, which covers any shot
+ * entered with a single digit. A longer ray goes on from the entry of its last cave, so arrows shot
+ * further still land in the right cave. The grid drops the table together with the cave graph.
+ */
+final class RayTable {
+
+  static final int RAY_LENGTH = 10;
+
+  private static final int NONE = 0;
+  private static final int DIRECTION_COUNT = DungeonGrid.DIRECTIONS.length;
+  private static final Direction[] TUNNEL_TURNS = {
+      Direction.NORTH, Direction.SOUTH, Direction.WEST, Direction.EAST};
+
+  private final DungeonGrid grid;
+  private final CaveGraph graph;
+  private final int[] rayStart;
+  private int[] rayCaves;
+
+  /**
+   * Builds the table of every ray of the given graph.
+   *
+   * @param grid  the dungeon grid.
+   * @param graph the cave graph of the grid.
+   */
+  RayTable(DungeonGrid grid, CaveGraph graph) {
+    this.grid = grid;
+    this.graph = graph;
+    int states = graph.nodeCount() * DIRECTION_COUNT;
+    this.rayStart = new int[states + 1];
+    this.rayCaves = new int[Math.max(16, states)];
+    int size = 0;
+    for (int state = 0; state < states; state++) {
+      rayStart[state] = size;
+      int cell = graph.cellOf(state / DIRECTION_COUNT);
+      Direction direction = DungeonGrid.DIRECTIONS[state % DIRECTION_COUNT];
+      // an arrow that has left every node in every direction is going round in circles.
+      for (int hops = states + 1; size - rayStart[state] < RAY_LENGTH && hops > 0; hops--) {
+        direction = wayOn(cell, direction);
+        if (direction == null) {
+          break;
+        }
+        long arrival = graph.follow(cell, direction);
+        cell = CaveGraph.arrivalCell(arrival);
+        direction = CaveGraph.arrivalDirection(arrival);
+        if (grid.isTunnel(cell)) {
+          continue;
+        }
+        if (size == rayCaves.length) {
+          rayCaves = Arrays.copyOf(rayCaves, size * 2);
+        }
+        rayCaves[size++] = cell << 2 | direction.ordinal();
+      }
+    }
+    rayStart[states] = size;
+    rayCaves = Arrays.copyOf(rayCaves, size);
+  }
+
+  /**
+   * Returns how many caves away the first live monster is when an arrow is shot from the cell in
+   * the given direction. The arrow stops at that monster, so it is the only one it can hit.
+   *
+   * @param index     index of the cell the arrow is shot from.
+   * @param direction direction of the shot.
+   * @param limit     caves beyond this distance are not looked at.
+   * @return number of caves up to the monster, or 0 when no live monster is within the limit.
+   */
+  int firstLiveMonster(int index, Direction direction, int limit) {
+    long found = scan(index, direction, limit);
+    return found < 0 ? NONE : (int) found;
+  }
+
+  /**
+   * Returns the cell of the monster that an arrow shot from the cell in the given direction hits
+   * when it travels exactly the given number of caves.
+   *
+   * @param index     index of the cell the arrow is shot from.
+   * @param direction direction of the shot.
+   * @param distance  number of caves the arrow travels.
+   * @return index of the cell of the monster hit, or -1 when the arrow misses.
+   */
+  int monsterHit(int index, Direction direction, int distance) {
+    long found = scan(index, direction, distance);
+    return found < 0 || (int) found != distance ? -1 : (int) (found >>> 32);
+  }
+
+  /**
+   * Follows the arrow up to the first live monster within the limit.
+   *
+   * @return the cell of the monster in the upper half and its distance in caves in the lower
+   *         half, or -1 when there is no live monster within the limit.
+   */
+  private long scan(int index, Direction direction, int limit) {
+    if (limit <= 0) {
+      return -1;
+    }
+    int caves = 0;
+    int cell = index;
+    if (graph.nodeOf(cell) < 0) {
+      // a shot from inside a chain reaches the end of it before the table can be read.
+      direction = wayOn(cell, direction);
+      if (direction == null) {
+        return -1;
+      }
+      long arrival = graph.follow(cell, direction);
+      cell = CaveGraph.arrivalCell(arrival);
+      direction = CaveGraph.arrivalDirection(arrival);
+      if (!grid.isTunnel(cell)) {
+        caves++;
+        if (grid.hasLiveMonster(cell)) {
+          return (long) cell << 32 | caves;
+        }
+      }
+    }
+    for (int hops = rayStart.length; hops > 0 && caves < limit; hops--) {
+      int state = graph.nodeOf(cell) * DIRECTION_COUNT + direction.ordinal();
+      int end = rayStart[state + 1];
+      for (int i = rayStart[state]; i < end && caves < limit; i++) {
+        caves++;
+        if (grid.hasLiveMonster(rayCaves[i] >>> 2)) {
+          return (long) (rayCaves[i] >>> 2) << 32 | caves;
+        }
+      }
+      if (end - rayStart[state] < RAY_LENGTH) {
+        return -1;
+      }
+      cell = rayCaves[end - 1] >>> 2;
+      direction = DungeonGrid.DIRECTIONS[rayCaves[end - 1] & 3];
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the direction an arrow flying in the given direction leaves the cell in. It goes on
+   * straight when it can; in a tunnel it turns to the first other entrance that does not lead
+   * back.
+   *
+   * @param index     index of the cell.
+   * @param direction direction the arrow is flying in.
+   * @return the direction it leaves in, or null when the arrow stops in this cell.
+   */
+  private Direction wayOn(int index, Direction direction) {
+    if (grid.hasExit(index, direction)) {
+      return direction;
+    }
+    if (!grid.isTunnel(index)) {
+      return null;
+    }
+    for (Direction turn : TUNNEL_TURNS) {
+      if (grid.hasExit(index, turn) && turn != DungeonGrid.opposite(direction)) {
+        return turn;
+      }
+    }
+    return null;
+  }
+}
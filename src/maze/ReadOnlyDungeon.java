@@ -1,5 +1,6 @@
 package maze;
 
+import java.util.List;
 import java.util.Map;
 
 
@@ -65,7 +66,8 @@ public interface ReadOnlyDungeon {
    *
    * @param direction enum direction.
    * @param distance  number of caves as direction.
-   * @return a pair of boolean values which consists whether the monster is hit or dead.
+   * @return a pair of boolean values which consists whether the monster is hit or dead, the map
+   *         can't be modified.
    */
   public Map<String, Boolean> shoot(Direction direction, int distance);
 
@@ -121,6 +123,58 @@ public interface ReadOnlyDungeon {
    */
   int getNoOfEdges();
 
+  /**
+   * Returns the locations whose state has changed since the last call, after a move, a shot or a
+   * pickup. The view uses it to redraw only those locations.
+   *
+   * @return list of changed locations.
+   */
+  List<Location> getChangedLocations();
+
+  /**
+   * Returns an immutable copy of the current state of the dungeon and the player. It has to be
+   * called by the thread that plays the game, the copy can then be read by any thread while the
+   * game goes on. Only the parts that changed since the previous call are copied.
+   *
+   * @return the snapshot.
+   */
+  DungeonSnapshot getSnapshot();
+
+  /**
+   * Saves the state of the game, the items and monsters of every location and the player, so
+   * that the game can be restored to this point later. It has to be called by the thread that
+   * plays the game.
+   *
+   * @return the checkpoint.
+   */
+  DungeonCheckpoint checkpoint();
+
+  /**
+   * Restores the game to the state saved in a checkpoint. Only the locations that differ from the
+   * checkpoint are changed, and they are reported as changed to the view and the next snapshot.
+   *
+   * @param checkpoint a checkpoint taken from this dungeon.
+   * @throws IllegalArgumentException when the checkpoint is null or was taken from another
+   *                                  dungeon.
+   */
+  void restore(DungeonCheckpoint checkpoint);
+
+  /**
+   * Registers a listener that is told about every event of the game from now on, so that views,
+   * loggers and recorders can follow the game without asking the dungeon after every move.
+   *
+   * @param listener the listener.
+   * @throws IllegalArgumentException when the listener is null.
+   */
+  void addGameEventListener(GameEventListener listener);
+
+  /**
+   * Removes a listener, it is no longer told about the events of the game.
+   *
+   * @param listener the listener.
+   */
+  void removeGameEventListener(GameEventListener listener);
+
 
 }
 
@@ -0,0 +1,145 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Number of live monsters that are one and two moves away from every cell of the dungeon. The
+ * counts are updated around a single cell whenever a monster is placed or killed there, so a smell
+ * query is a single array read instead of a search. When an entrance changes the counts are marked
+ * stale and rebuilt on the next query.
+ */
+final class SmellField {
+
+  private static final int MAX_REACH = 1 + 4 + 4 * 4;
+
+  private final DungeonGrid grid;
+  private final byte[] oneAway;
+  private final byte[] twoAway;
+  private final int[] reach;
+  private boolean stale;
+
+  /**
+   * Constructs the smell field for the given grid. The counts are built from the monsters already
+   * in the grid on the first query.
+   *
+   * @param grid the dungeon grid.
+   */
+  SmellField(DungeonGrid grid) {
+    this.grid = grid;
+    this.oneAway = new byte[grid.size()];
+    this.twoAway = new byte[grid.size()];
+    this.reach = new int[MAX_REACH];
+    this.stale = true;
+  }
+
+  /**
+   * Returns the number of live monsters exactly one move away from the cell.
+   *
+   * @param index index of the cell.
+   * @return number of monsters.
+   */
+  int monstersOneAway(int index) {
+    refresh();
+    return oneAway[index];
+  }
+
+  /**
+   * Returns the number of live monsters exactly two moves away from the cell.
+   *
+   * @param index index of the cell.
+   * @return number of monsters.
+   */
+  int monstersTwoAway(int index) {
+    refresh();
+    return twoAway[index];
+  }
+
+  /**
+   * Updates the counts around a cell where a monster has been placed or killed. When the counts
+   * are stale they are left alone, the cells around are still recorded as changed.
+   *
+   * @param index index of the cell of the monster.
+   * @param alive true when the monster has become alive, false when it has died.
+   */
+  void monsterChanged(int index, boolean alive) {
+    spread(index, stale ? 0 : alive ? 1 : -1);
+  }
+
+  /**
+   * Marks every count as stale, it is called whenever the entrances of a location change. The
+   * smell of any cell may change with it, so every cell is recorded as changed.
+   */
+  void invalidate() {
+    stale = true;
+    grid.touchedAll();
+  }
+
+  /**
+   * Returns the smell of the cell.
+   *
+   * @param index index of the cell.
+   * @return strong when a monster is one move away or two are two moves away, weak when a single
+   *         monster is two moves away.
+   */
+  Smell smellOf(int index) {
+    refresh();
+    if (oneAway[index] > 0 || twoAway[index] > 1) {
+      return Smell.STRONG;
+    }
+    if (twoAway[index] == 1) {
+      return Smell.WEAK;
+    }
+    return Smell.NONE;
+  }
+
+  private void refresh() {
+    if (!stale) {
+      return;
+    }
+    Arrays.fill(oneAway, (byte) 0);
+    Arrays.fill(twoAway, (byte) 0);
+    stale = false;
+    CellSet monsters = grid.getCells(CellCategory.LIVE_MONSTER);
+    for (int i = 0; i < monsters.size(); i++) {
+      spread(monsters.get(i), 1);
+    }
+  }
+
+  /**
+   * Adds the delta to the counts of the cells one and two moves away from the monster. Moves are
+   * symmetric, so these are exactly the cells that have the monster one or two moves away. Their
+   * smell changes, so they are recorded as changed cells.
+   */
+  private void spread(int monster, int delta) {
+    reach[0] = monster;
+    int count = 1;
+    int levelStart = 0;
+    for (int depth = 1; depth <= 2; depth++) {
+      int levelEnd = count;
+      for (int i = levelStart; i < levelEnd; i++) {
+        for (Direction direction : DungeonGrid.DIRECTIONS) {
+          int next = grid.neighbour(reach[i], direction);
+          if (next >= 0 && !reached(next, count)) {
+            reach[count++] = next;
+            grid.touched(next);
+            if (depth == 1) {
+              oneAway[next] += delta;
+            } else {
+              twoAway[next] += delta;
+            }
+          }
+        }
+      }
+      levelStart = levelEnd;
+    }
+  }
+
+  private boolean reached(int cell, int count) {
+    for (int i = 0; i < count; i++) {
+      if (reach[i] == cell) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,59 @@
+package metrics;
+
+/**
+ * The enum of the operations that are timed. Every metric has its own timer, which is registered
+ * over JMX under the type and the name of the metric.
+ */
+public enum Metric {
+  EDGES("Generation", "edges"),
+  SHUFFLE("Generation", "shuffle"),
+  SPANNING_TREE("Generation", "spanningTree"),
+  CAVES_AND_TUNNELS("Generation", "cavesAndTunnels"),
+  PITS("Generation", "pits"),
+  ITEMS("Generation", "items"),
+  PLAYER("Generation", "player"),
+  MONSTERS("Generation", "monsters"),
+  DUNGEON("Generation", "total"),
+  MOVE_PLAYER("Model", "movePlayer"),
+  SHOOT("Model", "shoot"),
+  PICKUP("Model", "pickup"),
+  CONSOLE_TURN("Controller", "consoleTurn"),
+  MAP_PAINT("View", "mapPaint");
+
+  private final String type;
+  private final String displayName;
+  private final Timer timer;
+
+  Metric(String type, String displayName) {
+    this.type = type;
+    this.displayName = displayName;
+    this.timer = new Timer();
+  }
+
+  /**
+   * Returns the group the metric belongs to, such as the generation of the dungeon.
+   *
+   * @return type of the metric.
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Returns the name the metric is registered under.
+   *
+   * @return name of the metric.
+   */
+  public String getDisplayName() {
+    return displayName;
+  }
+
+  /**
+   * Returns the timer that records the latencies of the metric.
+   *
+   * @return the timer.
+   */
+  public Timer getTimer() {
+    return timer;
+  }
+}
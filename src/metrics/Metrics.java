@@ -0,0 +1,135 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The registry of the timers of the game. The metrics are only recorded when the JVM is started
+ * with {@code -Dadventure.metrics=true}, in which case every timer is registered with the platform
+ * MBean server under {@code adventure:type=<type>,name=<name>}. The switch is read once into a
+ * constant, so when it is off the calls below do not even read the clock and are removed by the
+ * JIT.
+ *
+ * <p>An operation is timed with
+ * <pre>
+ *   long start = Metrics.start();
+ *   ...
+ *   Metrics.stop(Metric.SHOOT, start);
+ * </pre>
+ */
+public final class Metrics {
+
+  /**
+   * The system property that turns the metrics on.
+   */
+  public static final String PROPERTY = "adventure.metrics";
+
+  /**
+   * The JMX domain the timers are registered in.
+   */
+  public static final String DOMAIN = "adventure";
+
+  private static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+  static {
+    if (ENABLED) {
+      register(ManagementFactory.getPlatformMBeanServer());
+    }
+  }
+
+  private Metrics() {
+    // static helper only.
+  }
+
+  /**
+   * Returns whether the metrics are recorded.
+   *
+   * @return true when the metrics were turned on at start up.
+   */
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /**
+   * Starts timing an operation.
+   *
+   * @return the current time in nanoseconds, or 0 when the metrics are off.
+   */
+  public static long start() {
+    return ENABLED ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records the time since the operation was started.
+   *
+   * @param metric the metric of the operation.
+   * @param start  the value returned by {@link #start()}.
+   */
+  public static void stop(Metric metric, long start) {
+    if (ENABLED) {
+      metric.getTimer().record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Records the time since the operation was started and starts timing the next one, which is
+   * used for the phases of a longer operation.
+   *
+   * @param metric the metric of the operation that ended.
+   * @param start  the value returned by {@link #start()} or by the previous lap.
+   * @return the start of the next operation.
+   */
+  public static long lap(Metric metric, long start) {
+    if (!ENABLED) {
+      return 0;
+    }
+    long now = System.nanoTime();
+    metric.getTimer().record(now - start);
+    return now;
+  }
+
+  /**
+   * Registers the timer of every metric with the given MBean server.
+   *
+   * @param server the MBean server.
+   * @throws IllegalArgumentException when the server is null.
+   * @throws IllegalStateException    when a timer could not be registered.
+   */
+  public static void register(MBeanServer server) {
+    if (server == null) {
+      throw new IllegalArgumentException("Server can't be null");
+    }
+    try {
+      for (Metric metric : Metric.values()) {
+        ObjectName name = nameOf(metric);
+        if (!server.isRegistered(name)) {
+          server.registerMBean(metric.getTimer(), name);
+        }
+      }
+    } catch (JMException e) {
+      throw new IllegalStateException("Metrics could not be registered", e);
+    }
+  }
+
+  /**
+   * Returns the name the timer of the metric is registered under.
+   *
+   * @param metric the metric.
+   * @return the JMX object name.
+   * @throws IllegalArgumentException when the metric is null.
+   */
+  public static ObjectName nameOf(Metric metric) {
+    if (metric == null) {
+      throw new IllegalArgumentException("Metric can't be null");
+    }
+    try {
+      return new ObjectName(DOMAIN + ":type=" + metric.getType()
+              + ",name=" + metric.getDisplayName());
+    } catch (JMException e) {
+      throw new IllegalStateException("Invalid name for " + metric, e);
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts an operation and keeps a histogram of how long it took. The histogram has eight buckets
+ * for every power of two nanoseconds, so a percentile is at most an eighth above the real value
+ * while the whole histogram stays a fixed array. A timer can be recorded from several threads
+ * without locking.
+ */
+public final class Timer implements TimerMBean {
+
+  private static final int SUB_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+  private final LongAdder count;
+  private final LongAdder totalNanos;
+  private final AtomicLong maxNanos;
+  private final AtomicLongArray buckets;
+
+  /**
+   * Constructs a timer with nothing recorded.
+   */
+  public Timer() {
+    this.count = new LongAdder();
+    this.totalNanos = new LongAdder();
+    this.maxNanos = new AtomicLong();
+    this.buckets = new AtomicLongArray(BUCKETS);
+  }
+
+  /**
+   * Records one run of the operation.
+   *
+   * @param nanos time the operation took in nanoseconds, a negative time is recorded as 0.
+   */
+  public void record(long nanos) {
+    long time = Math.max(0, nanos);
+    count.increment();
+    totalNanos.add(time);
+    maxNanos.accumulateAndGet(time, Math::max);
+    buckets.incrementAndGet(bucketOf(time));
+  }
+
+  @Override
+  public long getCount() {
+    return count.sum();
+  }
+
+  @Override
+  public double getTotalMillis() {
+    return totalNanos.sum() / 1e6;
+  }
+
+  @Override
+  public double getMeanMicros() {
+    long runs = count.sum();
+    return runs == 0 ? 0 : totalNanos.sum() / 1e3 / runs;
+  }
+
+  @Override
+  public double getMaxMicros() {
+    return maxNanos.get() / 1e3;
+  }
+
+  @Override
+  public double getPercentile50Micros() {
+    return getPercentileMicros(50);
+  }
+
+  @Override
+  public double getPercentile90Micros() {
+    return getPercentileMicros(90);
+  }
+
+  @Override
+  public double getPercentile99Micros() {
+    return getPercentileMicros(99);
+  }
+
+  /**
+   * Returns the time that the given percentage of the recordings took at most.
+   *
+   * @param percentile percentage between 0 and 100.
+   * @return the time in microseconds, or 0 when nothing was recorded.
+   * @throws IllegalArgumentException when the percentage is outside 0 to 100.
+   */
+  public double getPercentileMicros(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile has to be between 0 and 100");
+    }
+    long[] counts = new long[BUCKETS];
+    long runs = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+      runs += counts[i];
+    }
+    if (runs == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * runs));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(i), maxNanos.get()) / 1e3;
+      }
+    }
+    return maxNanos.get() / 1e3;
+  }
+
+  @Override
+  public void reset() {
+    count.reset();
+    totalNanos.reset();
+    maxNanos.set(0);
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets.set(i, 0);
+    }
+  }
+
+  private static int bucketOf(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+    int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+  }
+
+  private static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lower + (1L << shift) - 1;
+  }
+}
@@ -0,0 +1,61 @@
+package metrics;
+
+/**
+ * The management interface of a timer, the attributes are shown by any JMX console.
+ */
+public interface TimerMBean {
+
+  /**
+   * Returns how many times the operation was recorded.
+   *
+   * @return number of recordings.
+   */
+  long getCount();
+
+  /**
+   * Returns the time spent in the operation over all the recordings.
+   *
+   * @return total time in milliseconds.
+   */
+  double getTotalMillis();
+
+  /**
+   * Returns the average time of the operation.
+   *
+   * @return mean time in microseconds, or 0 when nothing was recorded.
+   */
+  double getMeanMicros();
+
+  /**
+   * Returns the longest time of the operation.
+   *
+   * @return maximum time in microseconds.
+   */
+  double getMaxMicros();
+
+  /**
+   * Returns the time that half of the recordings took at most.
+   *
+   * @return median time in microseconds.
+   */
+  double getPercentile50Micros();
+
+  /**
+   * Returns the time that nine out of ten recordings took at most.
+   *
+   * @return 90th percentile in microseconds.
+   */
+  double getPercentile90Micros();
+
+  /**
+   * Returns the time that 99 out of 100 recordings took at most.
+   *
+   * @return 99th percentile in microseconds.
+   */
+  double getPercentile99Micros();
+
+  /**
+   * Forgets every recording made so far.
+   */
+  void reset();
+}
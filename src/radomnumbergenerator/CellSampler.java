@@ -0,0 +1,53 @@
+package radomnumbergenerator;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Picks distinct cells out of a set of candidate cells with a partial Fisher-Yates shuffle. Only
+ * the first count positions of the candidates are shuffled, so a sample takes one random draw per
+ * cell picked and never has to retry.
+ */
+final class CellSampler {
+
+  private CellSampler() {
+    // static helper only.
+  }
+
+  /**
+   * Returns count distinct cells chosen uniformly from the candidates. The candidates array is
+   * reordered.
+   *
+   * @param candidates indices of the cells that can be picked.
+   * @param count      number of cells to pick.
+   * @param nextInt    returns a random value between 0 inclusive and the bound exclusive.
+   * @return indices of the cells picked.
+   * @throws IllegalArgumentException when there are fewer candidates than cells to pick.
+   */
+  static int[] sample(int[] candidates, int count, IntUnaryOperator nextInt) {
+    validate(candidates, count);
+    for (int i = 0; i < count; i++) {
+      int j = i + nextInt.applyAsInt(candidates.length - i);
+      int swap = candidates[i];
+      candidates[i] = candidates[j];
+      candidates[j] = swap;
+    }
+    return Arrays.copyOf(candidates, count);
+  }
+
+  /**
+   * Checks that count cells can be picked from the candidates.
+   *
+   * @param candidates indices of the cells that can be picked.
+   * @param count      number of cells to pick.
+   * @throws IllegalArgumentException when there are fewer candidates than cells to pick.
+   */
+  static void validate(int[] candidates, int count) {
+    if (candidates == null || count < 0) {
+      throw new IllegalArgumentException("Candidates can't be null and count can't be negative");
+    }
+    if (count > candidates.length) {
+      throw new IllegalArgumentException("There are not enough cells to pick from");
+    }
+  }
+}
@@ -65,6 +65,65 @@ public interface RandomGenerator {
    */
   int randomColBoundedValues(int bound, boolean isUpperBound);
 
+  /**
+   * Picks distinct cells to place the monsters in. The cells are identified by their index
+   * row * cols + col, and every call draws each candidate at most once without retrying.
+   * @param rows number of rows.
+   * @param cols number of columns.
+   * @param candidates indices of the cells that can hold a monster, the array may be reordered.
+   * @param count number of cells to pick.
+   * @return indices of the cells picked.
+   */
+  int[] randomMonsterCells(int rows, int cols, int[] candidates, int count);
+
+  /**
+   * Picks distinct cells to place the treasure in.
+   * @param rows number of rows.
+   * @param cols number of columns.
+   * @param candidates indices of the cells that can hold treasure, the array may be reordered.
+   * @param count number of cells to pick.
+   * @return indices of the cells picked.
+   */
+  int[] randomTreasureCells(int rows, int cols, int[] candidates, int count);
+
+  /**
+   * Picks distinct cells to place the arrows in.
+   * @param rows number of rows.
+   * @param cols number of columns.
+   * @param candidates indices of the cells that can hold arrows, the array may be reordered.
+   * @param count number of cells to pick.
+   * @return indices of the cells picked.
+   */
+  int[] randomArrowCells(int rows, int cols, int[] candidates, int count);
+
+  /**
+   * Picks distinct cells to turn into pits.
+   * @param rows number of rows.
+   * @param cols number of columns.
+   * @param candidates indices of the cells that can be a pit, the array may be reordered.
+   * @param count number of cells to pick.
+   * @return indices of the cells picked.
+   */
+  int[] randomPitCells(int rows, int cols, int[] candidates, int count);
+
+  /**
+   * Picks the cell the player starts in.
+   * @param rows number of rows.
+   * @param cols number of columns.
+   * @param candidates indices of the cells the player can start in, the array is not changed.
+   * @return index of the cell picked.
+   */
+  int randomStartCell(int rows, int cols, int[] candidates);
+
+  /**
+   * Picks the cell the player has to reach.
+   * @param rows number of rows.
+   * @param cols number of columns.
+   * @param candidates indices of the cells that can be the end, the array is not changed.
+   * @return index of the cell picked.
+   */
+  int randomEndCell(int rows, int cols, int[] candidates);
+
   /**
    * Returns the list of edges.
    * @param edges list of edges.
@@ -7,17 +7,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 
 /**
- * The class that implements the RandomNumber Interface.
+ * The class that implements the RandomNumber Interface. The values come from the random generator
+ * of the current thread, so drawing them doesn't allocate and many dungeons can be generated on
+ * different threads at once. Use {@link SeededRandomGenerator} to build a dungeon that can be
+ * reproduced.
  */
 public class RandomNumberGenerator implements RandomGenerator {
 
   @Override
   public int randomValue(int bound) {
-    Random random = new Random();
-    return random.nextInt(bound);
+    return ThreadLocalRandom.current().nextInt(bound);
   }
 
   @Override
@@ -38,28 +41,58 @@ public class RandomNumberGenerator implements RandomGenerator {
 
   @Override
   public Map<String, Integer> randomMonsterPlacement(int bound1, int bound2) {
-    Random random = new Random();
+    Random random = ThreadLocalRandom.current();
     Map<String, Integer> randomMonsterPlacementMap = new HashMap<>();
     randomMonsterPlacementMap.put("x",random.nextInt(bound1));
     randomMonsterPlacementMap.put("y",random.nextInt(bound2));
     return randomMonsterPlacementMap;
   }
 
+  @Override
+  public int[] randomMonsterCells(int rows, int cols, int[] candidates, int count) {
+    return CellSampler.sample(candidates, count, ThreadLocalRandom.current()::nextInt);
+  }
+
+  @Override
+  public int[] randomTreasureCells(int rows, int cols, int[] candidates, int count) {
+    return CellSampler.sample(candidates, count, ThreadLocalRandom.current()::nextInt);
+  }
+
+  @Override
+  public int[] randomArrowCells(int rows, int cols, int[] candidates, int count) {
+    return CellSampler.sample(candidates, count, ThreadLocalRandom.current()::nextInt);
+  }
+
+  @Override
+  public int[] randomPitCells(int rows, int cols, int[] candidates, int count) {
+    return CellSampler.sample(candidates, count, ThreadLocalRandom.current()::nextInt);
+  }
+
+  @Override
+  public int randomStartCell(int rows, int cols, int[] candidates) {
+    CellSampler.validate(candidates, 1);
+    return candidates[ThreadLocalRandom.current().nextInt(candidates.length)];
+  }
+
+  @Override
+  public int randomEndCell(int rows, int cols, int[] candidates) {
+    CellSampler.validate(candidates, 1);
+    return candidates[ThreadLocalRandom.current().nextInt(candidates.length)];
+  }
+
   @Override
   public int randomRowBoundedValues(int bound, boolean isUpperBound) {
-    Random random = new Random();
-    return random.nextInt(bound);
+    return ThreadLocalRandom.current().nextInt(bound);
   }
 
   @Override
   public int randomColBoundedValues(int bound, boolean isUpperBound) {
-    Random random = new Random();
-    return random.nextInt(bound);
+    return ThreadLocalRandom.current().nextInt(bound);
   }
 
   @Override
   public List<Edge> randomizeEdges(List<Edge> edgeList) {
-    Collections.shuffle(edgeList);
+    Collections.shuffle(edgeList, ThreadLocalRandom.current());
     return edgeList;
   }
 
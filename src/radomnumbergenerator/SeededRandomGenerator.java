@@ -0,0 +1,153 @@
+package radomnumbergenerator;
+
+import maze.Edge;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The class that implements the RandomGenerator interface with a seed, so that the same seed and
+ * the same parameters always build the same dungeon. It is backed by a SplittableRandom, and every
+ * phase of the generation draws from its own stream forked from the seed, so that for example the
+ * number of draws used to place the treasure does not change where the monsters go. An object
+ * must only be used by one thread, use {@link #split()} to get an independent generator for
+ * another dungeon or another thread.
+ */
+public class SeededRandomGenerator implements RandomGenerator {
+
+  private final long seed;
+  private final SplittableRandom root;
+  private final SplittableRandom edges;
+  private final SplittableRandom player;
+  private final SplittableRandom treasure;
+  private final SplittableRandom arrows;
+  private final SplittableRandom pits;
+  private final SplittableRandom monsters;
+  private final SplittableRandom values;
+
+  /**
+   * Constructs the generator for the given seed.
+   *
+   * @param seed the seed of every random value drawn.
+   */
+  public SeededRandomGenerator(long seed) {
+    this(seed, new SplittableRandom(seed));
+  }
+
+  private SeededRandomGenerator(long seed, SplittableRandom root) {
+    this.seed = seed;
+    this.root = root;
+    this.edges = root.split();
+    this.player = root.split();
+    this.treasure = root.split();
+    this.arrows = root.split();
+    this.pits = root.split();
+    this.monsters = root.split();
+    this.values = root.split();
+  }
+
+  /**
+   * Returns the seed that the generator was constructed with.
+   *
+   * @return the seed.
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Returns a new generator whose values are independent of this one. Splitting the same sequence
+   * of generators from the same seed always gives the same generators.
+   *
+   * @return the new generator.
+   */
+  public SeededRandomGenerator split() {
+    SplittableRandom forked = root.split();
+    return new SeededRandomGenerator(forked.nextLong(), forked);
+  }
+
+  @Override
+  public int randomValue(int bound) {
+    return values.nextInt(bound);
+  }
+
+  @Override
+  public Map<String, Integer> randomMonsterPlacement(int bound1, int bound2) {
+    return placement(monsters, bound1, bound2);
+  }
+
+  @Override
+  public Map<String, Integer> randomTreasurePlacement(int bound1, int bound2) {
+    return placement(treasure, bound1, bound2);
+  }
+
+  @Override
+  public Map<String, Integer> randomArrowPlacement(int bound1, int bound2) {
+    return placement(arrows, bound1, bound2);
+  }
+
+  @Override
+  public Map<String, Integer> randomPitPlacement(int bound1, int bound2) {
+    return placement(pits, bound1, bound2);
+  }
+
+  @Override
+  public int[] randomMonsterCells(int rows, int cols, int[] candidates, int count) {
+    return CellSampler.sample(candidates, count, monsters::nextInt);
+  }
+
+  @Override
+  public int[] randomTreasureCells(int rows, int cols, int[] candidates, int count) {
+    return CellSampler.sample(candidates, count, treasure::nextInt);
+  }
+
+  @Override
+  public int[] randomArrowCells(int rows, int cols, int[] candidates, int count) {
+    return CellSampler.sample(candidates, count, arrows::nextInt);
+  }
+
+  @Override
+  public int[] randomPitCells(int rows, int cols, int[] candidates, int count) {
+    return CellSampler.sample(candidates, count, pits::nextInt);
+  }
+
+  @Override
+  public int randomStartCell(int rows, int cols, int[] candidates) {
+    CellSampler.validate(candidates, 1);
+    return candidates[player.nextInt(candidates.length)];
+  }
+
+  @Override
+  public int randomEndCell(int rows, int cols, int[] candidates) {
+    CellSampler.validate(candidates, 1);
+    return candidates[player.nextInt(candidates.length)];
+  }
+
+  @Override
+  public int randomRowBoundedValues(int bound, boolean isUpperBound) {
+    return player.nextInt(bound);
+  }
+
+  @Override
+  public int randomColBoundedValues(int bound, boolean isUpperBound) {
+    return player.nextInt(bound);
+  }
+
+  @Override
+  public List<Edge> randomizeEdges(List<Edge> edgeList) {
+    for (int i = edgeList.size() - 1; i > 0; i--) {
+      int j = edges.nextInt(i + 1);
+      edgeList.set(i, edgeList.set(j, edgeList.get(i)));
+    }
+    return edgeList;
+  }
+
+  private Map<String, Integer> placement(SplittableRandom random, int bound1, int bound2) {
+    Map<String, Integer> placementMap = new HashMap<>();
+    placementMap.put("x", random.nextInt(bound1));
+    placementMap.put("y", random.nextInt(bound2));
+    return placementMap;
+  }
+}
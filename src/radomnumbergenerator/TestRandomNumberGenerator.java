@@ -4,8 +4,12 @@ import maze.Edge;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 
 /**
@@ -149,6 +153,87 @@ public class TestRandomNumberGenerator implements RandomGenerator {
   }
 
 
+  @Override
+  public int[] randomMonsterCells(int rows, int cols, int[] candidates, int count) {
+    return drawCells(rows, cols, candidates, count, this::randomMonsterPlacement);
+  }
+
+  @Override
+  public int[] randomTreasureCells(int rows, int cols, int[] candidates, int count) {
+    return drawCells(rows, cols, candidates, count, this::randomTreasurePlacement);
+  }
+
+  @Override
+  public int[] randomArrowCells(int rows, int cols, int[] candidates, int count) {
+    return drawCells(rows, cols, candidates, count, this::randomArrowPlacement);
+  }
+
+  @Override
+  public int[] randomPitCells(int rows, int cols, int[] candidates, int count) {
+    return drawCells(rows, cols, candidates, count, this::randomPitPlacement);
+  }
+
+  @Override
+  public int randomStartCell(int rows, int cols, int[] candidates) {
+    return drawCell(rows, cols, candidates, false);
+  }
+
+  @Override
+  public int randomEndCell(int rows, int cols, int[] candidates) {
+    return drawCell(rows, cols, candidates, true);
+  }
+
+  /**
+   * Walks the same sequence of rows and columns as the bounded values until it reaches one of the
+   * candidates. The sequence leaves the grid after a while, the first candidate is taken then.
+   */
+  private int drawCell(int rows, int cols, int[] candidates, boolean isUpper) {
+    CellSampler.validate(candidates, 1);
+    Set<Integer> allowed = new HashSet<>();
+    for (int candidate : candidates) {
+      allowed.add(candidate);
+    }
+    while (true) {
+      int row = randomRowBoundedValues(rows, isUpper);
+      int col = randomColBoundedValues(cols, isUpper);
+      if (row < 0 || col < 0 || row >= rows || col >= cols) {
+        return candidates[0];
+      }
+      if (allowed.contains(row * cols + col)) {
+        return row * cols + col;
+      }
+    }
+  }
+
+  /**
+   * Picks the cells in the same fixed order as the single placements, skipping the cells that
+   * are not candidates, so that the tests see the same dungeons as before. The placements only
+   * return a new cell while the grid has cells they did not return before, once they are used up
+   * the remaining candidates are taken in order, as in {@link #drawCell}.
+   */
+  private int[] drawCells(int rows, int cols, int[] candidates, int count,
+                          BiFunction<Integer, Integer, Map<String, Integer>> placement) {
+    CellSampler.validate(candidates, count);
+    Set<Integer> remaining = new LinkedHashSet<>();
+    for (int candidate : candidates) {
+      remaining.add(candidate);
+    }
+    int[] cells = new int[count];
+    int picked = 0;
+    for (int draws = 0; picked < count && draws < rows * cols; draws++) {
+      Map<String, Integer> pair = placement.apply(rows, cols);
+      int cell = pair.get("x") * cols + pair.get("y");
+      if (remaining.remove(cell)) {
+        cells[picked++] = cell;
+      }
+    }
+    Iterator<Integer> rest = remaining.iterator();
+    while (picked < count) {
+      cells[picked++] = rest.next();
+    }
+    return cells;
+  }
+
   /**
    * Resets the static variable values.
    */
@@ -156,6 +241,7 @@ public class TestRandomNumberGenerator implements RandomGenerator {
     hashSetMonsters.clear();
     hashSetTreasure.clear();
     hashSetArrow.clear();
+    hashSetPits.clear();
     lowerBound = -1;
     upperBound = Integer.MAX_VALUE;
   }
@@ -0,0 +1,290 @@
+package server;
+
+import metrics.Metrics;
+import metrics.Timer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A server that lets many players play the console game at the same time over TCP, for instance
+ * with {@code telnet} or {@code nc}. Every connection is a session with its own dungeon, played by
+ * its own {@code DungeonConsoleController} on a thread of the server.
+ *
+ * <p>A session spends nearly all its time waiting for the player, so its thread is started with a
+ * small stack, and the threads of ended sessions are reused. The number of sessions is capped,
+ * a connection beyond the cap is told that the server is full and closed at once, and the size of
+ * the dungeon of a session is capped by the estimated memory it takes.
+ *
+ * <p>The number of sessions is available over JMX under {@code adventure:type=Server,name=sessions}
+ * and the time the server takes to answer a turn under {@code adventure:type=Server,name=turn}.
+ */
+public class GameServer implements GameServerMBean, Closeable {
+
+  /**
+   * Time in milliseconds after which a player that typed nothing is disconnected.
+   */
+  public static final int IDLE_MILLIS = 10 * 60 * 1000;
+
+  /**
+   * Stack size of the thread of a session, a session never goes deep.
+   */
+  static final long STACK_BYTES = 256 * 1024;
+
+  private static final int BACKLOG = 4096;
+  private static final byte[] FULL = "The server is full, try again later.\n"
+          .getBytes(StandardCharsets.UTF_8);
+
+  private final ServerSocket listener;
+  private final int maxSessions;
+  private final long maxSessionBytes;
+  private final ExecutorService sessions;
+  private final Set<Socket> connections;
+  private final AtomicInteger active;
+  private final AtomicLong total;
+  private final AtomicLong rejected;
+  private final Timer turns;
+  private final Thread acceptor;
+  private volatile boolean closed;
+
+  /**
+   * Constructs the server and binds it to the port on the loopback address, the server accepts
+   * connections once it is started.
+   *
+   * @param port            the port, 0 for any free port.
+   * @param maxSessions     number of games that can be played at the same time.
+   * @param maxSessionBytes estimated memory the dungeon of a session may take.
+   * @throws IllegalArgumentException when a limit is not positive.
+   * @throws IOException              when the port can't be bound.
+   */
+  public GameServer(int port, int maxSessions, long maxSessionBytes) throws IOException {
+    if (maxSessions <= 0 || maxSessionBytes <= 0) {
+      throw new IllegalArgumentException("The entered parameters are invalid");
+    }
+    this.maxSessions = maxSessions;
+    this.maxSessionBytes = maxSessionBytes;
+    this.listener = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+    AtomicInteger threads = new AtomicInteger();
+    this.sessions = Executors.newCachedThreadPool(session -> {
+      Thread thread = new Thread(null, session, "session-" + threads.incrementAndGet(),
+              STACK_BYTES);
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.connections = ConcurrentHashMap.newKeySet();
+    this.active = new AtomicInteger();
+    this.total = new AtomicLong();
+    this.rejected = new AtomicLong();
+    this.turns = new Timer();
+    this.acceptor = new Thread(this::accept, "game-server");
+    this.acceptor.setDaemon(true);
+  }
+
+  /**
+   * Starts accepting connections.
+   *
+   * @throws IllegalStateException when the server was started or closed before.
+   */
+  public void start() {
+    if (closed || acceptor.isAlive()) {
+      throw new IllegalStateException("The server can only be started once");
+    }
+    acceptor.start();
+  }
+
+  /**
+   * Returns the port the server listens on.
+   *
+   * @return the port.
+   */
+  public int getPort() {
+    return listener.getLocalPort();
+  }
+
+  /**
+   * Returns the timer of the time the server takes to answer a turn, from the arrival of what
+   * the player typed to the answer being sent.
+   *
+   * @return the timer.
+   */
+  public Timer getTurnTimer() {
+    return turns;
+  }
+
+  @Override
+  public int getActiveSessions() {
+    return active.get();
+  }
+
+  @Override
+  public long getTotalSessions() {
+    return total.get();
+  }
+
+  @Override
+  public long getRejectedSessions() {
+    return rejected.get();
+  }
+
+  @Override
+  public int getMaxSessions() {
+    return maxSessions;
+  }
+
+  @Override
+  public long getMaxSessionBytes() {
+    return maxSessionBytes;
+  }
+
+  /**
+   * Registers the server and the timer of its turns with the given MBean server. A server
+   * registered before under the same names is replaced.
+   *
+   * @param server the MBean server.
+   * @throws IllegalArgumentException when the server is null.
+   * @throws IllegalStateException    when the beans could not be registered.
+   */
+  public void register(MBeanServer server) {
+    if (server == null) {
+      throw new IllegalArgumentException("Server can't be null");
+    }
+    try {
+      register(server, this, nameOf("sessions"));
+      register(server, turns, nameOf("turn"));
+    } catch (JMException e) {
+      throw new IllegalStateException("The server could not be registered", e);
+    }
+  }
+
+  private static void register(MBeanServer server, Object bean, ObjectName name)
+          throws JMException {
+    if (server.isRegistered(name)) {
+      server.unregisterMBean(name);
+    }
+    server.registerMBean(bean, name);
+  }
+
+  /**
+   * Returns the name a bean of the server is registered under.
+   *
+   * @param name name of the bean.
+   * @return the JMX object name.
+   * @throws IllegalArgumentException when the name is not valid.
+   */
+  public static ObjectName nameOf(String name) {
+    try {
+      return new ObjectName(Metrics.DOMAIN + ":type=Server,name=" + name);
+    } catch (JMException e) {
+      throw new IllegalArgumentException("Invalid name " + name, e);
+    }
+  }
+
+  /**
+   * Stops accepting connections and ends every session.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      listener.close();
+    } catch (IOException e) {
+      // closing anyway.
+    }
+    for (Socket connection : connections) {
+      try {
+        connection.close();
+      } catch (IOException e) {
+        // closing anyway.
+      }
+    }
+    sessions.shutdownNow();
+  }
+
+  private void accept() {
+    while (!closed) {
+      Socket connection;
+      try {
+        connection = listener.accept();
+      } catch (SocketException e) {
+        // the server was closed.
+        return;
+      } catch (IOException e) {
+        continue;
+      }
+      if (active.incrementAndGet() > maxSessions) {
+        active.decrementAndGet();
+        rejected.incrementAndGet();
+        reject(connection);
+        continue;
+      }
+      total.incrementAndGet();
+      connections.add(connection);
+      try {
+        sessions.execute(new Session(this, connection));
+      } catch (RuntimeException e) {
+        ended(connection);
+        reject(connection);
+      }
+    }
+  }
+
+  private static void reject(Socket connection) {
+    try (Socket rejected = connection) {
+      OutputStream out = rejected.getOutputStream();
+      out.write(FULL);
+      out.flush();
+    } catch (IOException e) {
+      // the player went away already.
+    }
+  }
+
+  void ended(Socket connection) {
+    if (connections.remove(connection)) {
+      active.decrementAndGet();
+    }
+  }
+
+  /**
+   * Runs the server until the process is stopped.
+   *
+   * @param args the port, optionally followed by the number of sessions and the memory of the
+   *             dungeon of a session in megabytes.
+   * @throws IOException when the port can't be bound.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 3) {
+      System.out.println("Usage: GameServer <port> [sessions] [megabytes per session]");
+      return;
+    }
+    int port = Integer.parseInt(args[0]);
+    int maxSessions = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    long maxSessionBytes = (args.length > 2 ? Long.parseLong(args[2]) : 16) * 1024 * 1024;
+    GameServer server = new GameServer(port, maxSessions, maxSessionBytes);
+    server.register(ManagementFactory.getPlatformMBeanServer());
+    server.start();
+    System.out.println("Listening on port " + server.getPort() + " of the loopback address for"
+            + " up to " + maxSessions + " players");
+    try {
+      server.acceptor.join();
+    } catch (InterruptedException e) {
+      server.close();
+    }
+  }
+}
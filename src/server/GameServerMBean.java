@@ -0,0 +1,43 @@
+package server;
+
+/**
+ * The management interface of the game server, the attributes are shown by any JMX console. The
+ * latency of the turns is registered as a timer of its own.
+ */
+public interface GameServerMBean {
+
+  /**
+   * Returns the number of games being played.
+   *
+   * @return number of open sessions.
+   */
+  int getActiveSessions();
+
+  /**
+   * Returns the number of sessions accepted since the server started.
+   *
+   * @return number of sessions.
+   */
+  long getTotalSessions();
+
+  /**
+   * Returns the number of connections turned away because the server was full.
+   *
+   * @return number of rejected connections.
+   */
+  long getRejectedSessions();
+
+  /**
+   * Returns the number of games that can be played at the same time.
+   *
+   * @return maximum number of sessions.
+   */
+  int getMaxSessions();
+
+  /**
+   * Returns the estimated memory a session may use for its dungeon.
+   *
+   * @return number of bytes.
+   */
+  long getMaxSessionBytes();
+}
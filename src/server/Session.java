@@ -0,0 +1,94 @@
+package server;
+
+import controller.DungeonConsoleController;
+import maze.Dungeon;
+import radomnumbergenerator.RandomNumberGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A game played over a connection. The player first sends the parameters of the dungeon on one
+ * line, in the order the driver takes them, and then plays the console game on its own dungeon.
+ * The session ends when the player quits, the game is over, the connection is closed or the
+ * player has been idle for too long.
+ */
+final class Session implements Runnable {
+
+  static final String WELCOME = "Enter rows, columns, wrap (true/false), interconnectivity,"
+          + " treasure coverage, monsters and pits:\n";
+
+  private static final int MAX_LINE = 256;
+
+  private final GameServer server;
+  private final Socket socket;
+
+  Session(GameServer server, Socket socket) {
+    this.server = server;
+    this.socket = socket;
+  }
+
+  @Override
+  public void run() {
+    try (Socket connection = socket) {
+      connection.setSoTimeout(GameServer.IDLE_MILLIS);
+      Reader in = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8);
+      Writer out = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(),
+              StandardCharsets.UTF_8));
+      out.write(WELCOME);
+      out.flush();
+      Dungeon dungeon = createDungeon(readLine(in), out);
+      if (dungeon != null) {
+        new DungeonConsoleController(new TurnReader(in, out, server.getTurnTimer()), out, dungeon)
+                .playGame();
+      }
+      out.write("\nGoodbye!\n");
+      out.flush();
+    } catch (IOException | IllegalStateException e) {
+      // the player went away, there is nobody left to tell.
+    } finally {
+      server.ended(socket);
+    }
+  }
+
+  private Dungeon createDungeon(String line, Writer out) throws IOException {
+    String[] args = line == null ? new String[0] : line.trim().split("\\s+");
+    if (args.length != 7) {
+      out.write("Expected 7 parameters.\n");
+      return null;
+    }
+    try {
+      int rows = Integer.parseInt(args[0]);
+      int columns = Integer.parseInt(args[1]);
+      if (Dungeon.estimatedBytes(rows, columns) > server.getMaxSessionBytes()) {
+        out.write("The dungeon is too large for this server.\n");
+        return null;
+      }
+      return new Dungeon(rows, columns, Boolean.parseBoolean(args[2]),
+              Integer.parseInt(args[3]), Double.parseDouble(args[4]), Integer.parseInt(args[5]),
+              Integer.parseInt(args[6]), new RandomNumberGenerator());
+    } catch (NumberFormatException e) {
+      out.write("The parameters have to be numbers.\n");
+    } catch (IllegalArgumentException e) {
+      out.write(e.getMessage() + "\n");
+    }
+    return null;
+  }
+
+  private static String readLine(Reader in) throws IOException {
+    StringBuilder line = new StringBuilder();
+    for (int c = in.read(); c != '\n'; c = in.read()) {
+      if (c == -1 || line.length() == MAX_LINE) {
+        return null;
+      }
+      line.append((char) c);
+    }
+    return line.toString();
+  }
+}
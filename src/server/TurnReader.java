@@ -0,0 +1,60 @@
+package server;
+
+import metrics.Timer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * The input of a session. The controller only reads when it has answered everything the player
+ * typed, so before every read the answer is sent to the player, and the time from the arrival of
+ * the input to that point is recorded as the latency of the turn. A word longer than
+ * {@link #MAX_WORD} characters ends the input, so a client can't make the session buffer an
+ * endless word.
+ */
+final class TurnReader extends Reader {
+
+  /**
+   * Longest word a player can type, the longest command is a direction.
+   */
+  static final int MAX_WORD = 64;
+
+  private final Reader in;
+  private final Writer out;
+  private final Timer turns;
+  private long arrived;
+  private int word;
+
+  TurnReader(Reader in, Writer out, Timer turns) {
+    this.in = in;
+    this.out = out;
+    this.turns = turns;
+  }
+
+  @Override
+  public int read(char[] buffer, int offset, int length) throws IOException {
+    out.flush();
+    if (arrived != 0) {
+      turns.record(System.nanoTime() - arrived);
+      arrived = 0;
+    }
+    int read = in.read(buffer, offset, length);
+    for (int i = offset; i < offset + read; i++) {
+      if (Character.isWhitespace(buffer[i])) {
+        word = 0;
+      } else if (++word > MAX_WORD) {
+        throw new IOException("The player typed a word that is too long");
+      }
+    }
+    if (read > 0) {
+      arrived = System.nanoTime();
+    }
+    return read;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
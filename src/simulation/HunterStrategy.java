@@ -0,0 +1,30 @@
+package simulation;
+
+import java.util.SplittableRandom;
+
+import maze.Direction;
+import maze.Dungeon;
+import maze.Location;
+import maze.Smell;
+
+/**
+ * Strategy that heads for the end location along a shortest path and fights its way through. It
+ * picks up any arrows it finds, and when it smells a monster right next to it, it shoots into the
+ * cave of its next step before walking into it.
+ */
+public class HunterStrategy implements PlayerStrategy {
+
+  @Override
+  public Turn nextTurn(Dungeon dungeon, SplittableRandom random) {
+    Location current = dungeon.getPlayer().getCurrentLocation();
+    if (current.getArrowCount() > 0) {
+      return Turn.pickupArrows();
+    }
+    Direction step = ShortestPathStrategy.nextStep(dungeon);
+    if (dungeon.getPlayer().getArrowCountOfPlayer() > 0
+            && current.checkSmellStrength().equals(Smell.STRONG)) {
+      return Turn.shoot(step, 1);
+    }
+    return Turn.move(step);
+  }
+}
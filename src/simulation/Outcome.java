@@ -0,0 +1,8 @@
+package simulation;
+
+/**
+ * The ways a simulated game can end.
+ */
+public enum Outcome {
+  WON, KILLED_BY_MONSTER, FELL_IN_PIT, OUT_OF_TURNS
+}
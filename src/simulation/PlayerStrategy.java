@@ -0,0 +1,22 @@
+package simulation;
+
+import java.util.SplittableRandom;
+
+import maze.Dungeon;
+
+/**
+ * A strategy that plays the game without a user. The simulation asks the strategy for a turn until
+ * the game is over. A new strategy object is created for every game, so a strategy may keep state
+ * about the game it is playing.
+ */
+public interface PlayerStrategy {
+
+  /**
+   * Returns the next action of the player in the given dungeon.
+   *
+   * @param dungeon the dungeon being played.
+   * @param random  source of randomness for this game.
+   * @return the turn to take.
+   */
+  Turn nextTurn(Dungeon dungeon, SplittableRandom random);
+}
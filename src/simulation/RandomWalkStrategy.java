@@ -0,0 +1,32 @@
+package simulation;
+
+import java.util.SplittableRandom;
+
+import maze.Direction;
+import maze.Dungeon;
+import maze.Location;
+
+/**
+ * Strategy that wanders through the dungeon. It picks up any treasure it finds and otherwise
+ * moves through a random entrance of its location.
+ */
+public class RandomWalkStrategy implements PlayerStrategy {
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  @Override
+  public Turn nextTurn(Dungeon dungeon, SplittableRandom random) {
+    Location current = dungeon.getPlayer().getCurrentLocation();
+    if (!current.getTreasureAtLocation().isEmpty()) {
+      return Turn.pickupTreasure();
+    }
+    Direction[] exits = new Direction[DIRECTIONS.length];
+    int count = 0;
+    for (Direction direction : DIRECTIONS) {
+      if (current.getDirectionOfLocation(direction) != null) {
+        exits[count++] = direction;
+      }
+    }
+    return Turn.move(exits[random.nextInt(count)]);
+  }
+}
@@ -0,0 +1,50 @@
+package simulation;
+
+import java.util.SplittableRandom;
+
+import maze.Direction;
+import maze.Dungeon;
+import maze.Location;
+
+/**
+ * Strategy that walks straight to the end location along a shortest path and ignores everything
+ * else in the dungeon.
+ */
+public class ShortestPathStrategy implements PlayerStrategy {
+
+  @Override
+  public Turn nextTurn(Dungeon dungeon, SplittableRandom random) {
+    return Turn.move(nextStep(dungeon));
+  }
+
+  /**
+   * Returns the direction of the next step along a shortest path from the location of the player
+   * to the end location. The distances are measured from the end location so that every step of
+   * the game reads the same cached distance field.
+   *
+   * @param dungeon the dungeon being played.
+   * @return direction of the next step.
+   */
+  static Direction nextStep(Dungeon dungeon) {
+    Location current = dungeon.getPlayer().getCurrentLocation();
+    Location end = dungeon.getPlayer().getFinalLocation();
+    int remaining = dungeon.getDistance(end, current);
+    Direction fallback = null;
+    for (Direction direction : Direction.values()) {
+      Location next = current.getDirectionOfLocation(direction);
+      if (next == null) {
+        continue;
+      }
+      if (dungeon.getDistance(end, next) == remaining - 1) {
+        return direction;
+      }
+      if (fallback == null) {
+        fallback = direction;
+      }
+    }
+    if (fallback == null) {
+      throw new IllegalStateException("The player has no way to move");
+    }
+    return fallback;
+  }
+}
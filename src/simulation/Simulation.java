@@ -0,0 +1,195 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import maze.Dungeon;
+import maze.Location;
+import maze.Player;
+import radomnumbergenerator.SeededRandomGenerator;
+
+/**
+ * Plays batches of games without any view or text output. Every game is played on a freshly built
+ * dungeon with the parameters of the simulation by a player strategy, and the games are spread
+ * over a pool of threads. Every game gets its own seeded random generator, so the games don't
+ * contend for one. Only the aggregate statistics of the batch are returned.
+ */
+public class Simulation {
+
+  private static final int BATCHES_PER_THREAD = 4;
+
+  private final int rows;
+  private final int cols;
+  private final boolean toWrap;
+  private final int interconnectivity;
+  private final double treasureCoverage;
+  private final int numberOfMonsters;
+  private final int noOfPits;
+  private final int maxTurns;
+
+  /**
+   * Constructs a simulation for dungeons with the given parameters.
+   *
+   * @param rows              number of rows for the dungeon.
+   * @param cols              number of columns for the dungeon.
+   * @param toWrap            boolean value for wrapping.
+   * @param interconnectivity interconnectivity value.
+   * @param treasureCoverage  the percentage of treasure to allocated in the caves.
+   * @param numberOfMonsters  number of monsters in the dungeon.
+   * @param noOfPits          number of pits present in the dungeon.
+   * @param maxTurns          number of turns after which a game is stopped.
+   * @throws IllegalArgumentException when the number of turns is not positive.
+   */
+  public Simulation(int rows, int cols, boolean toWrap, int interconnectivity,
+                    double treasureCoverage, int numberOfMonsters, int noOfPits, int maxTurns) {
+    if (maxTurns <= 0) {
+      throw new IllegalArgumentException("Number of turns has to be positive");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.toWrap = toWrap;
+    this.interconnectivity = interconnectivity;
+    this.treasureCoverage = treasureCoverage;
+    this.numberOfMonsters = numberOfMonsters;
+    this.noOfPits = noOfPits;
+    this.maxTurns = maxTurns;
+  }
+
+  /**
+   * Plays the games using every available processor.
+   *
+   * @param games    number of games to play.
+   * @param strategy creates the strategy for every game.
+   * @param seed     seed of the dungeons and of the strategies.
+   * @return statistics of the games.
+   */
+  public SimulationResult run(int games, Supplier<? extends PlayerStrategy> strategy, long seed) {
+    return run(games, strategy, Runtime.getRuntime().availableProcessors(), seed);
+  }
+
+  /**
+   * Plays the games on the given number of threads. The same seed and number of threads always
+   * play the same games.
+   *
+   * @param games    number of games to play.
+   * @param strategy creates the strategy for every game.
+   * @param threads  number of threads to play on.
+   * @param seed     seed of the dungeons and of the strategies.
+   * @return statistics of the games.
+   * @throws IllegalArgumentException when the arguments are invalid.
+   * @throws IllegalStateException    when a game fails or the simulation is interrupted.
+   */
+  public SimulationResult run(int games, Supplier<? extends PlayerStrategy> strategy, int threads,
+                              long seed) {
+    if (games < 0 || strategy == null || threads <= 0) {
+      throw new IllegalArgumentException("The entered parameters are invalid");
+    }
+    long startTime = System.nanoTime();
+    SplittableRandom random = new SplittableRandom(seed);
+    int batches = Math.max(1, Math.min(games, threads * BATCHES_PER_THREAD));
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<SimulationResult.Tally>> futures = new ArrayList<>(batches);
+      for (int i = 0; i < batches; i++) {
+        int batchGames = games / batches + (i < games % batches ? 1 : 0);
+        SplittableRandom batchRandom = random.split();
+        futures.add(pool.submit(() -> playBatch(batchGames, strategy, batchRandom)));
+      }
+      SimulationResult.Tally total = new SimulationResult.Tally();
+      for (Future<SimulationResult.Tally> future : futures) {
+        total.merge(future.get());
+      }
+      return new SimulationResult(total, System.nanoTime() - startTime);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("The simulation was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A simulated game failed", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private SimulationResult.Tally playBatch(int games, Supplier<? extends PlayerStrategy> strategy,
+                                           SplittableRandom random) {
+    SimulationResult.Tally tally = new SimulationResult.Tally();
+    for (int i = 0; i < games; i++) {
+      playGame(strategy.get(), random.split(), tally);
+    }
+    return tally;
+  }
+
+  /**
+   * Plays a single game to its end and adds it to the tally.
+   *
+   * @param strategy the strategy playing the game.
+   * @param random   randomness for the dungeon and the strategy.
+   * @param tally    the counts to add the game to.
+   */
+  private void playGame(PlayerStrategy strategy, SplittableRandom random,
+                        SimulationResult.Tally tally) {
+    Dungeon dungeon;
+    try {
+      dungeon = new Dungeon(rows, cols, toWrap, interconnectivity, treasureCoverage,
+              numberOfMonsters, noOfPits, new SeededRandomGenerator(random.nextLong()));
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      tally.addGenerationFailure();
+      return;
+    }
+    Outcome outcome = play(dungeon, strategy, random, tally);
+    tally.addOutcome(outcome);
+    tally.addTreasure(dungeon.getPlayer().getTreasureCollected().size());
+  }
+
+  private Outcome play(Dungeon dungeon, PlayerStrategy strategy, SplittableRandom random,
+                       SimulationResult.Tally tally) {
+    Player player = dungeon.getPlayer();
+    for (int turn = 0; turn < maxTurns; turn++) {
+      Turn next = strategy.nextTurn(dungeon, random);
+      tally.addTurn();
+      switch (next.getKind()) {
+        case MOVE:
+          if (player.getCurrentLocation().getDirectionOfLocation(next.getDirection()) == null) {
+            break;
+          }
+          if (!dungeon.movePlayer(next.getDirection())) {
+            return player.getCurrentLocation().isPit() ? Outcome.FELL_IN_PIT
+                    : Outcome.KILLED_BY_MONSTER;
+          }
+          if (isAtEnd(player)) {
+            return Outcome.WON;
+          }
+          break;
+        case SHOOT:
+          if (player.getArrowCountOfPlayer() == 0) {
+            break;
+          }
+          Map<String, Boolean> shot = dungeon.shoot(next.getDirection(), next.getDistance());
+          tally.addArrowShot(shot.get("Monster Dead"));
+          break;
+        case PICKUP_TREASURE:
+          dungeon.pickup(true);
+          break;
+        case PICKUP_ARROWS:
+          dungeon.pickup(false);
+          break;
+        default:
+          throw new IllegalStateException("Unknown turn");
+      }
+    }
+    return Outcome.OUT_OF_TURNS;
+  }
+
+  private boolean isAtEnd(Player player) {
+    Location current = player.getCurrentLocation();
+    Location end = player.getFinalLocation();
+    return current.getRowPos() == end.getRowPos() && current.getColPos() == end.getColPos();
+  }
+}
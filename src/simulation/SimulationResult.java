@@ -0,0 +1,209 @@
+package simulation;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The aggregate statistics of a batch of simulated games.
+ */
+public final class SimulationResult {
+
+  private final long[] outcomes;
+  private final long generationFailures;
+  private final long turns;
+  private final long arrowsShot;
+  private final long monstersKilled;
+  private final long treasureCollected;
+  private final long elapsedNanos;
+
+  SimulationResult(Tally tally, long elapsedNanos) {
+    this.outcomes = tally.outcomes.clone();
+    this.generationFailures = tally.generationFailures;
+    this.turns = tally.turns;
+    this.arrowsShot = tally.arrowsShot;
+    this.monstersKilled = tally.monstersKilled;
+    this.treasureCollected = tally.treasureCollected;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the number of games that were played to an outcome.
+   *
+   * @return number of games.
+   */
+  public long getGamesPlayed() {
+    long played = 0;
+    for (long count : outcomes) {
+      played += count;
+    }
+    return played;
+  }
+
+  /**
+   * Returns the number of games that ended with the given outcome.
+   *
+   * @param outcome the outcome.
+   * @return number of games.
+   */
+  public long getCount(Outcome outcome) {
+    return outcomes[outcome.ordinal()];
+  }
+
+  /**
+   * Returns the number of games of each outcome.
+   *
+   * @return map of outcome and number of games.
+   */
+  public Map<Outcome, Long> getOutcomes() {
+    Map<Outcome, Long> map = new EnumMap<>(Outcome.class);
+    for (Outcome outcome : Outcome.values()) {
+      map.put(outcome, outcomes[outcome.ordinal()]);
+    }
+    return map;
+  }
+
+  /**
+   * Returns the number of games that could not be played because the dungeon could not be built
+   * with the given parameters.
+   *
+   * @return number of games.
+   */
+  public long getGenerationFailures() {
+    return generationFailures;
+  }
+
+  /**
+   * Returns the fraction of the played games that were won.
+   *
+   * @return win rate between 0 and 1.
+   */
+  public double getWinRate() {
+    long played = getGamesPlayed();
+    return played == 0 ? 0 : (double) getCount(Outcome.WON) / played;
+  }
+
+  /**
+   * Returns the average number of turns of a played game.
+   *
+   * @return average number of turns.
+   */
+  public double getAverageTurns() {
+    long played = getGamesPlayed();
+    return played == 0 ? 0 : (double) turns / played;
+  }
+
+  /**
+   * Returns the total number of turns taken in all the games.
+   *
+   * @return number of turns.
+   */
+  public long getTurns() {
+    return turns;
+  }
+
+  /**
+   * Returns the total number of arrows shot in all the games.
+   *
+   * @return number of arrows.
+   */
+  public long getArrowsShot() {
+    return arrowsShot;
+  }
+
+  /**
+   * Returns the total number of monsters killed in all the games.
+   *
+   * @return number of monsters.
+   */
+  public long getMonstersKilled() {
+    return monstersKilled;
+  }
+
+  /**
+   * Returns the total number of treasure items collected in all the games.
+   *
+   * @return number of treasure items.
+   */
+  public long getTreasureCollected() {
+    return treasureCollected;
+  }
+
+  /**
+   * Returns the wall clock time that the batch took, including building the dungeons.
+   *
+   * @return time in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Returns the number of games, played or failed, that were run per second.
+   *
+   * @return throughput in games per second.
+   */
+  public double getGamesPerSecond() {
+    long games = getGamesPlayed() + generationFailures;
+    return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "SimulationResult{"
+            + "outcomes=" + getOutcomes()
+            + ", generationFailures=" + generationFailures
+            + ", averageTurns=" + getAverageTurns()
+            + ", arrowsShot=" + arrowsShot
+            + ", monstersKilled=" + monstersKilled
+            + ", treasureCollected=" + treasureCollected
+            + ", gamesPerSecond=" + getGamesPerSecond()
+            + '}';
+  }
+
+  /**
+   * The counts of a batch of games while it is running. Every worker keeps its own tally and the
+   * tallies are merged once the workers are done.
+   */
+  static final class Tally {
+    private final long[] outcomes = new long[Outcome.values().length];
+    private long generationFailures;
+    private long turns;
+    private long arrowsShot;
+    private long monstersKilled;
+    private long treasureCollected;
+
+    void addOutcome(Outcome outcome) {
+      outcomes[outcome.ordinal()]++;
+    }
+
+    void addGenerationFailure() {
+      generationFailures++;
+    }
+
+    void addTurn() {
+      turns++;
+    }
+
+    void addArrowShot(boolean killed) {
+      arrowsShot++;
+      if (killed) {
+        monstersKilled++;
+      }
+    }
+
+    void addTreasure(int count) {
+      treasureCollected += count;
+    }
+
+    void merge(Tally other) {
+      for (int i = 0; i < outcomes.length; i++) {
+        outcomes[i] += other.outcomes[i];
+      }
+      generationFailures += other.generationFailures;
+      turns += other.turns;
+      arrowsShot += other.arrowsShot;
+      monstersKilled += other.monstersKilled;
+      treasureCollected += other.treasureCollected;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package simulation;
+
+import maze.Direction;
+
+/**
+ * A single action that a strategy takes in its turn. The player can move, shoot an arrow or pick
+ * up the treasure or the arrows at the location.
+ */
+public final class Turn {
+
+  /**
+   * The kinds of action a player can take.
+   */
+  public enum Kind {
+    MOVE, SHOOT, PICKUP_TREASURE, PICKUP_ARROWS
+  }
+
+  private static final Turn PICKUP_TREASURE = new Turn(Kind.PICKUP_TREASURE, null, 0);
+  private static final Turn PICKUP_ARROWS = new Turn(Kind.PICKUP_ARROWS, null, 0);
+
+  private final Kind kind;
+  private final Direction direction;
+  private final int distance;
+
+  private Turn(Kind kind, Direction direction, int distance) {
+    this.kind = kind;
+    this.direction = direction;
+    this.distance = distance;
+  }
+
+  /**
+   * Returns the turn that moves the player in the given direction.
+   *
+   * @param direction direction to move in.
+   * @return move turn.
+   */
+  public static Turn move(Direction direction) {
+    if (direction == null) {
+      throw new IllegalArgumentException("Direction can't be null");
+    }
+    return new Turn(Kind.MOVE, direction, 0);
+  }
+
+  /**
+   * Returns the turn that shoots an arrow in the given direction.
+   *
+   * @param direction direction to shoot in.
+   * @param distance  number of caves the arrow travels.
+   * @return shoot turn.
+   */
+  public static Turn shoot(Direction direction, int distance) {
+    if (direction == null || distance <= 0) {
+      throw new IllegalArgumentException("Shooting needs a direction and a positive distance");
+    }
+    return new Turn(Kind.SHOOT, direction, distance);
+  }
+
+  /**
+   * Returns the turn that picks up the treasure at the location of the player.
+   *
+   * @return pickup turn.
+   */
+  public static Turn pickupTreasure() {
+    return PICKUP_TREASURE;
+  }
+
+  /**
+   * Returns the turn that picks up the arrows at the location of the player.
+   *
+   * @return pickup turn.
+   */
+  public static Turn pickupArrows() {
+    return PICKUP_ARROWS;
+  }
+
+  /**
+   * Returns the kind of the action.
+   *
+   * @return kind of the turn.
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Returns the direction to move or shoot in.
+   *
+   * @return direction, or null when the turn is a pickup.
+   */
+  public Direction getDirection() {
+    return direction;
+  }
+
+  /**
+   * Returns the number of caves that the arrow travels.
+   *
+   * @return distance of the shot, or 0 when the turn is not a shot.
+   */
+  public int getDistance() {
+    return distance;
+  }
+}
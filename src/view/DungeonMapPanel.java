@@ -0,0 +1,259 @@
+package view;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.util.BitSet;
+import javax.swing.JPanel;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+
+import maze.Direction;
+import maze.DungeonSnapshot;
+import maze.Smell;
+import maze.Treasure;
+import metrics.Metric;
+import metrics.Metrics;
+
+/**
+ * The panel that draws the map of the dungeon in the MenuView. It is a single component placed in
+ * a scroll pane, and only the cells inside the visible part of it are drawn on a repaint, so the
+ * cost of the map depends on the size of the window and not on the size of the dungeon. The cells
+ * can be drawn at different zoom levels. The panel draws a snapshot of the dungeon and never reads
+ * the model itself.
+ */
+public class DungeonMapPanel extends JPanel implements Scrollable {
+
+  private static final int[] ZOOM_LEVELS = {16, 24, 32, 48, 64, 96, 128};
+
+  private DungeonSnapshot snapshot;
+  private final BitSet visible;
+  private int zoom;
+
+  /**
+   * Constructor of the map panel. The zoom level is chosen so that the whole dungeon fits in the
+   * given size when it is small enough.
+   *
+   * @param snapshot snapshot of the dungeon to draw.
+   * @param fitSize  size that the map should fit in.
+   */
+  public DungeonMapPanel(DungeonSnapshot snapshot, Dimension fitSize) {
+    if (snapshot == null) {
+      throw new IllegalArgumentException("Model can't be null");
+    }
+    this.snapshot = snapshot;
+    this.visible = new BitSet(snapshot.getRows() * snapshot.getCols());
+    int fit = Math.min(fitSize.width / snapshot.getCols(), fitSize.height / snapshot.getRows());
+    zoom = 0;
+    while (zoom < ZOOM_LEVELS.length - 1 && ZOOM_LEVELS[zoom + 1] <= fit) {
+      zoom++;
+    }
+    setFocusable(false);
+  }
+
+  /**
+   * Sets the snapshot of the dungeon that is drawn from now on. The caller repaints the cells that
+   * changed.
+   *
+   * @param snapshot snapshot of the same dungeon.
+   */
+  public void setSnapshot(DungeonSnapshot snapshot) {
+    if (snapshot == null || snapshot.getRows() != this.snapshot.getRows()
+            || snapshot.getCols() != this.snapshot.getCols()) {
+      throw new IllegalArgumentException("The snapshot is not of the same dungeon");
+    }
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * Returns the size in pixels of a cell at the current zoom level.
+   *
+   * @return size of a cell.
+   */
+  public int getCellSize() {
+    return ZOOM_LEVELS[zoom];
+  }
+
+  /**
+   * Changes the zoom level by the given number of steps and keeps the player in view.
+   *
+   * @param steps positive to zoom in and negative to zoom out.
+   */
+  public void zoom(int steps) {
+    int next = Math.max(0, Math.min(ZOOM_LEVELS.length - 1, zoom + steps));
+    if (next != zoom) {
+      zoom = next;
+      revalidate();
+      repaint();
+      showPlayer();
+    }
+  }
+
+  /**
+   * Returns the row of the cell at the given point of the panel.
+   *
+   * @param y vertical position in pixels.
+   * @return row of the cell.
+   */
+  public int rowAt(int y) {
+    return y / getCellSize();
+  }
+
+  /**
+   * Returns the column of the cell at the given point of the panel.
+   *
+   * @param x horizontal position in pixels.
+   * @return column of the cell.
+   */
+  public int colAt(int x) {
+    return x / getCellSize();
+  }
+
+  /**
+   * Sets the cell as visited so that it is drawn from now on.
+   *
+   * @param row row of the cell.
+   * @param col column of the cell.
+   */
+  public void setVisibility(int row, int col) {
+    int index = row * snapshot.getCols() + col;
+    if (!visible.get(index)) {
+      visible.set(index);
+      repaintCell(row, col);
+    }
+  }
+
+  /**
+   * Repaints a single cell, nothing is drawn when the cell is outside the visible part of the map.
+   *
+   * @param row row of the cell.
+   * @param col column of the cell.
+   */
+  public void repaintCell(int row, int col) {
+    int size = getCellSize();
+    repaint(col * size, row * size, size, size);
+  }
+
+  /**
+   * Scrolls the map so that the cell of the player is visible.
+   */
+  public void showPlayer() {
+    int size = getCellSize();
+    scrollRectToVisible(new Rectangle(snapshot.getPlayerCol() * size - size,
+            snapshot.getPlayerRow() * size - size, 3 * size, 3 * size));
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    return new Dimension(snapshot.getCols() * getCellSize(), snapshot.getRows() * getCellSize());
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    long start = Metrics.start();
+    super.paintComponent(g);
+    int size = getCellSize();
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    int firstRow = Math.max(0, clip.y / size);
+    int lastRow = Math.min(snapshot.getRows() - 1, (clip.y + clip.height - 1) / size);
+    int firstCol = Math.max(0, clip.x / size);
+    int lastCol = Math.min(snapshot.getCols() - 1, (clip.x + clip.width - 1) / size);
+    try {
+      for (int row = firstRow; row <= lastRow; row++) {
+        for (int col = firstCol; col <= lastCol; col++) {
+          if (visible.get(row * snapshot.getCols() + col)) {
+            Image image = TileAtlas.getTile(checkState(snapshot, row, col), size, size);
+            g.drawImage(image, col * size, row * size, this);
+          }
+        }
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+    Metrics.stop(Metric.MAP_PAINT, start);
+  }
+
+  /**
+   * Returns the bits of the visual state of the location, two locations with the same state are
+   * drawn with the same tile.
+   * @param snapshot snapshot of the dungeon.
+   * @param row      row of the location.
+   * @param col      column of the location.
+   * @return bits of the visual state.
+   */
+  protected int checkState(DungeonSnapshot snapshot, int row, int col) {
+    int state = 0;
+    if (snapshot.hasExit(row, col, Direction.NORTH)) {
+      state |= TileAtlas.NORTH;
+    }
+    if (snapshot.hasExit(row, col, Direction.SOUTH)) {
+      state |= TileAtlas.SOUTH;
+    }
+    if (snapshot.hasExit(row, col, Direction.EAST)) {
+      state |= TileAtlas.EAST;
+    }
+    if (snapshot.hasExit(row, col, Direction.WEST)) {
+      state |= TileAtlas.WEST;
+    }
+    if (snapshot.hasPlayer(row, col)) {
+      state |= TileAtlas.PLAYER;
+    }
+    Smell smell = snapshot.getSmell(row, col);
+    if (smell.equals(Smell.WEAK)) {
+      state |= TileAtlas.WEAK_SMELL;
+    } else if (smell.equals(Smell.STRONG)) {
+      state |= TileAtlas.STRONG_SMELL;
+    }
+    if (snapshot.isPit(row, col)) {
+      state |= TileAtlas.PIT;
+    }
+    if (snapshot.getTreasureCount(row, col, Treasure.RUBY) > 0) {
+      state |= TileAtlas.RUBY;
+    }
+    if (snapshot.getTreasureCount(row, col, Treasure.DIAMOND) > 0) {
+      state |= TileAtlas.DIAMOND;
+    }
+    if (snapshot.getTreasureCount(row, col, Treasure.SAPPHIRE) > 0) {
+      state |= TileAtlas.EMERALD;
+    }
+    if (snapshot.getArrowCount(row, col) > 0) {
+      state |= TileAtlas.ARROW;
+    }
+    if (snapshot.getMonsterLives(row, col) > 0) {
+      state |= TileAtlas.MONSTER;
+    }
+    return state;
+  }
+
+  @Override
+  public Dimension getPreferredScrollableViewportSize() {
+    return getPreferredSize();
+  }
+
+  @Override
+  public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return getCellSize();
+  }
+
+  @Override
+  public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+    int size = getCellSize();
+    int extent = orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    return Math.max(size, extent / size * size);
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportWidth() {
+    return false;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportHeight() {
+    return false;
+  }
+}
@@ -1,6 +1,7 @@
 package view;
 
 import controller.GuiController;
+import maze.GenerationPhase;
 
 /**
  * The interface that is implemented by the class StartView that appears as soon as the driver is
@@ -29,4 +30,18 @@ public interface IStarterView {
    * Make the view visible to start the game session.
    */
   void makeVisible(boolean visible);
+
+  /**
+   * Shows how far the generation of the dungeon has got.
+   *
+   * @param phase the last completed phase of the generation.
+   */
+  void showProgress(GenerationPhase phase);
+
+  /**
+   * Shows that the generation of the dungeon was cancelled or failed.
+   *
+   * @param message the reason the generation stopped.
+   */
+  void showGenerationStopped(String message);
 }
@@ -18,7 +18,8 @@ public interface IView {
   void addClickListener(GuiController listener);
 
   /**
-   * Used to refresh the view.
+   * Used to refresh the parts of the view whose locations have changed. It is called on the thread
+   * that plays the game after every move, shot or pickup.
    */
   void refresh();
 
@@ -37,4 +38,12 @@ public interface IView {
    * Make the view visible to start the game session.
    */
   void makeVisible(boolean visible);
+
+  /**
+   * Tells the player that a command could not be played. It is called on the event dispatch
+   * thread.
+   *
+   * @param message the reason the command failed.
+   */
+  void showError(String message);
 }
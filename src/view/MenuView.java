@@ -2,22 +2,27 @@ package view;
 
 import controller.GuiController;
 import maze.Direction;
+import maze.DungeonSnapshot;
 import maze.Location;
 import maze.ReadOnlyDungeon;
+import maze.Treasure;
 
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
-import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.swing.GroupLayout;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -26,38 +31,56 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
+import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 
 /**
  * This class is used to create the view which would display the dungeon and the panel with the
- * location and the player information.
+ * location and the player information. The view only reads the model through snapshots, which the
+ * thread that plays the game hands to the event dispatch thread on every refresh, so painting
+ * never waits for the model.
  */
 public class MenuView extends JFrame implements IView, ActionListener, KeyListener {
   private final Set<Integer> pressedKeys;
   private final JMenuBar menu;
-  private final JPanel displayPanel;
+  private final JScrollPane displayPanel;
   private final JPanel textPanel;
   private final JSplitPane splitPane;
   private final ReadOnlyDungeon d;
+  private DungeonSnapshot snapshot;
   private GuiController listener;
-  private CellLocation[][] location;
+  private DungeonMapPanel location;
   private final JLabel label1;
 
   /**
-   * Constructor for the view class. It takes in the Maze object.
+   * Constructor for the view class. It takes in the Maze object, and has to be called by the
+   * thread that owns the model.
    *
    * @param d ReadOnlyDungeon object.
    */
   public MenuView(ReadOnlyDungeon d) {
-    if (d == null) {
+    this(d, d == null ? null : d.getSnapshot());
+  }
+
+  /**
+   * Constructor for the view class that shows a snapshot that was already taken of the model.
+   *
+   * @param d        ReadOnlyDungeon object.
+   * @param snapshot the snapshot of the model to show first.
+   */
+  public MenuView(ReadOnlyDungeon d, DungeonSnapshot snapshot) {
+    if (d == null || snapshot == null) {
       throw new IllegalArgumentException("Model can't be null");
     }
+    this.snapshot = snapshot;
     this.setSize(new Dimension(1400, 900));
     this.setLayout(new FlowLayout());
     this.setFont(new Font("Comic Sans MS", Font.PLAIN, 13));
-    displayPanel = new JPanel(new FlowLayout());
+    displayPanel = new JScrollPane();
     displayPanel.setSize(new Dimension(960, 900));
+    displayPanel.setFocusable(false);
     textPanel = new JPanel(new FlowLayout());
     textPanel.setSize(new Dimension(200, 1000));
     menu = new JMenuBar();
@@ -70,7 +93,7 @@ public class MenuView extends JFrame implements IView, ActionListener, KeyListen
     this.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
     this.d = d;
     createMenu();
-    displayLocation(d);
+    displayLocation(snapshot);
 
   }
 
@@ -104,34 +127,41 @@ public class MenuView extends JFrame implements IView, ActionListener, KeyListen
       listener.quitGame();
     });
     menu.add(quit);
+    JMenu zoom = new JMenu(" Zoom ");
+    zoom.setFont(new Font("Comic Sans MS", Font.PLAIN, 13));
+    JMenuItem zoomIn = new JMenuItem("Zoom In");
+    zoomIn.setFont(new Font("Comic Sans MS", Font.PLAIN, 13));
+    zoomIn.addActionListener(e -> {
+      location.zoom(1);
+    });
+    zoom.add(zoomIn);
+    JMenuItem zoomOut = new JMenuItem("Zoom Out");
+    zoomOut.setFont(new Font("Comic Sans MS", Font.PLAIN, 13));
+    zoomOut.addActionListener(e -> {
+      location.zoom(-1);
+    });
+    zoom.add(zoomOut);
+    menu.add(zoom);
     menu.setVisible(true);
     this.setJMenuBar(menu);
   }
 
 
   /**
-   * Function that adds the dungeon cells to the panel and splits the frame to two different panels.
+   * Function that adds the dungeon map to the panel and splits the frame to two different panels.
    * Display panel for the dungeon and the text panel for the information about the location and the
-   * player information.
+   * player information. The map is a single scrollable panel that only draws the visible cells.
    *
-   * @param d Maze object.
+   * @param snapshot snapshot of the dungeon.
    */
-  public void displayLocation(ReadOnlyDungeon d) {
+  public void displayLocation(DungeonSnapshot snapshot) {
     textContent();
+    label1.setFont(new Font("Comic Sans MS", Font.PLAIN, 15));
+    textPanel.add(label1);
 
-    location = new CellLocation[d.getRows()][d.getCols()];
-
-    for (int i = 0; i < d.getRows(); i++) {
-      for (int j = 0; j < d.getCols(); j++) {
-        location[i][j] = new CellLocation(d.getLocations()[i][j]);
-        Location currentLocation = d.getPlayer().getCurrentLocation();
-        if (currentLocation.getRowPos() == i && currentLocation.getColPos() == j) {
-          location[i][j].setVisibility();
-        }
-        displayPanel.add(location[i][j]);
-      }
-    }
-    displayPanel.setLayout(new GridLayout(d.getRows(), d.getCols()));
+    location = new DungeonMapPanel(snapshot, new Dimension(960, 900));
+    location.setVisibility(snapshot.getPlayerRow(), snapshot.getPlayerCol());
+    displayPanel.setViewportView(location);
     splitPane.setLeftComponent(displayPanel);
     splitPane.setRightComponent(textPanel);
     splitPane.setDividerLocation(1000);
@@ -143,11 +173,24 @@ public class MenuView extends JFrame implements IView, ActionListener, KeyListen
    * Function that displays the location and player information.
    */
   public void textContent() {
-    String res = d.getPlayer().getCurrentLocation().getDirectionBooleanMap().toString();
-    String treasureText = d.getPlayer().getCurrentLocation().getTreasureMap().toString();
-    String arrow = String.valueOf(d.getPlayer().getCurrentLocation().getArrowCount());
-    String playerTreasure = d.getPlayer().printDescription().toString();
-    String arrowCount = String.valueOf(d.getPlayer().getArrowCountOfPlayer());
+    int row = snapshot.getPlayerRow();
+    int col = snapshot.getPlayerCol();
+    Map<Direction, Boolean> possibleMoves = new TreeMap<>();
+    for (Direction direction : Direction.values()) {
+      possibleMoves.put(direction, snapshot.hasExit(row, col, direction));
+    }
+    Map<Treasure, Integer> treasureAtLocation = new HashMap<>();
+    for (Treasure treasure : Treasure.values()) {
+      int count = snapshot.getTreasureCount(row, col, treasure);
+      if (count > 0) {
+        treasureAtLocation.put(treasure, count);
+      }
+    }
+    String res = possibleMoves.toString();
+    String treasureText = treasureAtLocation.toString();
+    String arrow = String.valueOf(snapshot.getArrowCount(row, col));
+    String playerTreasure = snapshot.getTreasureCollected().toString();
+    String arrowCount = String.valueOf(snapshot.getPlayerArrowCount());
     label1.setText("<html><body><br>Location Description : <br> <br> Possible Moves: <br>"
             + res + "<br><br> Treasure at Location:" + treasureText
             + "<br><br> Arrows at the location:" + arrow + "<br><br><br>"
@@ -155,8 +198,6 @@ public class MenuView extends JFrame implements IView, ActionListener, KeyListen
             + "Treasure the player has: <br>"
             + playerTreasure + "<br><br> Arrow’s that the player has:"
             + arrowCount + "<br></body><html>");
-    label1.setFont(new Font("Comic Sans MS", Font.PLAIN, 15));
-    textPanel.add(label1);
   }
 
   @Override
@@ -167,78 +208,56 @@ public class MenuView extends JFrame implements IView, ActionListener, KeyListen
       public void mouseClicked(MouseEvent e) {
 
         super.mouseClicked(e);
-        CellLocation a = (CellLocation) e.getSource();
-        int colPos = a.getX() / a.getWidth();
-        int rowPos = a.getY() / a.getHeight();
-
-        if (d.getPlayer().getCurrentLocation().getDirectionOfLocation(Direction.NORTH) != null) {
-          if ((rowPos == d.getPlayer().getCurrentLocation().getRowPos() - 1 && colPos
-                  == d.getPlayer().getCurrentLocation().getColPos()) || (rowPos == d.getPlayer()
-                  .getCurrentLocation().getRowPos() + (d.getRows() - 1) && colPos
-                  == d.getPlayer().getCurrentLocation().getColPos())) {
-            int moveValue = listener.moveInView(Direction.NORTH);
-            dialogPane(moveValue);
-            location[d.getPlayer().getCurrentLocation().getRowPos()][d.getPlayer()
-                    .getCurrentLocation().getColPos()].setVisibility();
-            textContent();
-            displayPanel.repaint();
+        int colPos = location.colAt(e.getX());
+        int rowPos = location.rowAt(e.getY());
+
+        int playerRow = snapshot.getPlayerRow();
+        int playerCol = snapshot.getPlayerCol();
+
+        if (snapshot.hasExit(playerRow, playerCol, Direction.NORTH)) {
+          if ((rowPos == playerRow - 1 && colPos == playerCol)
+                  || (rowPos == playerRow + (snapshot.getRows() - 1) && colPos == playerCol)) {
+            listener.move(Direction.NORTH, MenuView.this::dialogPane);
           }
         }
-        if (d.getPlayer().getCurrentLocation().getDirectionOfLocation(Direction.SOUTH) != null) {
-          if ((rowPos == d.getPlayer().getCurrentLocation().getRowPos() + 1 && colPos
-                  ==  d.getPlayer().getCurrentLocation().getColPos()) || (rowPos == d.getPlayer()
-                  .getCurrentLocation().getRowPos() - (d.getRows() - 1) && colPos
-                  == d.getPlayer().getCurrentLocation().getColPos())) {
-            int moveValue = listener.moveInView(Direction.SOUTH);
-            dialogPane(moveValue);
-            textContent();
-            location[d.getPlayer().getCurrentLocation().getRowPos()][d.getPlayer()
-                    .getCurrentLocation().getColPos()].setVisibility();
+        if (snapshot.hasExit(playerRow, playerCol, Direction.SOUTH)) {
+          if ((rowPos == playerRow + 1 && colPos == playerCol)
+                  || (rowPos == playerRow - (snapshot.getRows() - 1) && colPos == playerCol)) {
+            listener.move(Direction.SOUTH, MenuView.this::dialogPane);
           }
         }
-        if (d.getPlayer().getCurrentLocation().getDirectionOfLocation(Direction.EAST) != null) {
-          if ((rowPos == d.getPlayer().getCurrentLocation().getRowPos() && colPos
-                  == d.getPlayer().getCurrentLocation().getColPos() + 1) || (rowPos == d.getPlayer()
-                  .getCurrentLocation().getRowPos() && colPos
-                  == d.getPlayer().getCurrentLocation().getColPos() - (d.getCols() - 1))) {
-            int moveValue = listener.moveInView(Direction.EAST);
-            dialogPane(moveValue);
-            textContent();
-            location[d.getPlayer().getCurrentLocation().getRowPos()][d.getPlayer()
-                    .getCurrentLocation().getColPos()].setVisibility();
+        if (snapshot.hasExit(playerRow, playerCol, Direction.EAST)) {
+          if ((rowPos == playerRow && colPos == playerCol + 1)
+                  || (rowPos == playerRow && colPos == playerCol - (snapshot.getCols() - 1))) {
+            listener.move(Direction.EAST, MenuView.this::dialogPane);
           }
         }
-        if (d.getPlayer().getCurrentLocation().getDirectionOfLocation(Direction.WEST) != null) {
-          if ((rowPos == d.getPlayer().getCurrentLocation().getRowPos() && colPos
-                  == d.getPlayer().getCurrentLocation().getColPos() - 1) || (rowPos == d.getPlayer()
-                  .getCurrentLocation().getRowPos() && colPos
-                  == d.getPlayer().getCurrentLocation().getColPos() + (d.getCols() - 1))) {
-            int moveValue = listener.moveInView(Direction.WEST);
-            dialogPane(moveValue);
-            textContent();
-            location[d.getPlayer().getCurrentLocation().getRowPos()][d.getPlayer()
-                    .getCurrentLocation().getColPos()].setVisibility();
+        if (snapshot.hasExit(playerRow, playerCol, Direction.WEST)) {
+          if ((rowPos == playerRow && colPos == playerCol - 1)
+                  || (rowPos == playerRow && colPos == playerCol + (snapshot.getCols() - 1))) {
+            listener.move(Direction.WEST, MenuView.this::dialogPane);
           }
         }
 
       }
     };
-    for (int i = 0; i < d.getRows(); i++) {
-      for (int j = 0; j < d.getCols(); j++) {
-        location[i][j].addMouseListener(clickAdapter);
-
-      }
-    }
+    location.addMouseListener(clickAdapter);
   }
 
 
+  private void showPlayer() {
+    location.setVisibility(snapshot.getPlayerRow(), snapshot.getPlayerCol());
+    location.showPlayer();
+  }
+
   private void dialogPane(int val) {
     switch (val) {
       case 2:
-        if (d.getPlayer().getCurrentLocation().isPit()) {
+        if (snapshot.isPit(snapshot.getPlayerRow(), snapshot.getPlayerCol())) {
           JOptionPane.showMessageDialog(this, "Oooff..Mind your "
                   + "step next time");
-        } else if (d.getPlayer().getCurrentLocation().getMonster().getIsAlive()) {
+        } else if (snapshot.getMonsterLives(snapshot.getPlayerRow(),
+                snapshot.getPlayerCol()) > 0) {
           JOptionPane.showMessageDialog(this, "Can't win against "
                   + "the beast..Try again!");
         }
@@ -273,9 +292,45 @@ public class MenuView extends JFrame implements IView, ActionListener, KeyListen
     }
   }
 
+  /**
+   * Takes a snapshot of the dungeon and shows it on the event dispatch thread. It is called on the
+   * thread that plays the game, which is the only one that reads the model.
+   */
   @Override
   public void refresh() {
-    repaint();
+    List<Location> changed = d.getChangedLocations();
+    DungeonSnapshot next = d.getSnapshot();
+    int[] cells = null;
+    if (changed.size() != d.getRows() * d.getCols()) {
+      cells = new int[changed.size() * 2];
+      for (int i = 0; i < changed.size(); i++) {
+        cells[2 * i] = changed.get(i).getRowPos();
+        cells[2 * i + 1] = changed.get(i).getColPos();
+      }
+    }
+    int[] changedCells = cells;
+    SwingUtilities.invokeLater(() -> show(next, changedCells));
+  }
+
+  /**
+   * Shows a new snapshot of the dungeon, only the changed cells are redrawn.
+   *
+   * @param next  the snapshot.
+   * @param cells row and column of every changed cell one after the other, or null when every
+   *              cell may have changed.
+   */
+  private void show(DungeonSnapshot next, int[] cells) {
+    snapshot = next;
+    location.setSnapshot(next);
+    if (cells == null) {
+      location.repaint();
+    } else {
+      for (int i = 0; i < cells.length; i += 2) {
+        location.repaintCell(cells[i], cells[i + 1]);
+      }
+    }
+    showPlayer();
+    textContent();
   }
 
   @Override
@@ -326,8 +381,7 @@ public class MenuView extends JFrame implements IView, ActionListener, KeyListen
                 int check = it.next();
                 if (check >= KeyEvent.VK_0 && check <= KeyEvent.VK_9) {
                   distance = check - KeyEvent.VK_0;
-                  int value = listener.shootArrow(shootDirection, distance);
-                  shootPopUp(value);
+                  listener.shoot(shootDirection, distance, this::shootPopUp);
                 }
 
               }
@@ -354,32 +408,19 @@ public class MenuView extends JFrame implements IView, ActionListener, KeyListen
           default:
             break;
         }
-        location[d.getPlayer().getCurrentLocation().getRowPos()][d.getPlayer()
-                .getCurrentLocation().getColPos()].repaint();
-        int moveValue = listener.moveInView(direction);
-        dialogPane(moveValue);
-        textContent();
-        location[d.getPlayer().getCurrentLocation().getRowPos()][d.getPlayer()
-                .getCurrentLocation().getColPos()].setVisibility();
+        listener.move(direction, this::dialogPane);
 
         if (e.getKeyChar() == 't') {
-          listener.collectTreasure(true);
-          location[d.getPlayer().getCurrentLocation().getRowPos()][d.getPlayer()
-                  .getCurrentLocation().getColPos()].repaint();
+          listener.pickup(true);
         }
         if (e.getKeyChar() == 'a') {
-          listener.collectTreasure(false);
-          location[d.getPlayer().getCurrentLocation().getRowPos()][d.getPlayer()
-                  .getCurrentLocation().getColPos()].repaint();
+          listener.pickup(false);
         }
-        location[d.getPlayer().getCurrentLocation().getRowPos()][d.getPlayer()
-                .getCurrentLocation().getColPos()].repaint();
         pressedKeys.clear();
       }
 
     }
 
-    this.refresh();
   }
 
   @Override
@@ -393,6 +434,11 @@ public class MenuView extends JFrame implements IView, ActionListener, KeyListen
     setVisible(visible);
   }
 
+  @Override
+  public void showError(String message) {
+    JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
+  }
+
   /**
    * This function is used to split the frame into two different panels to display dungeon and the
    * information.
@@ -1,6 +1,7 @@
 package view;
 
 import controller.GuiController;
+import maze.GenerationPhase;
 
 import java.awt.Color;
 import java.awt.Container;
@@ -18,6 +19,7 @@ import javax.swing.JLabel;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.JProgressBar;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.WindowConstants;
@@ -34,6 +36,8 @@ public class StartView extends JFrame implements IStarterView {
   private final JFrame formFrame;
   private JButton reset;
   private JButton submit;
+  private JButton cancel;
+  private JProgressBar progress;
   private JTextField rows;
   private JTextField columns;
   private JTextField wrapLabel;
@@ -210,10 +214,22 @@ public class StartView extends JFrame implements IStarterView {
     reset.setFont(new Font("Comic Sans MS", Font.PLAIN, 15));
     reset.setBounds(300, 410, 150, 50);
     c.add(reset);
+    cancel = new JButton("Cancel");
+    cancel.setFont(new Font("Comic Sans MS", Font.PLAIN, 15));
+    cancel.setBounds(500, 410, 150, 50);
+    cancel.setEnabled(false);
+    c.add(cancel);
 
 
     displayMessage.setBounds(50, 490, 450, 100);
     c.add((displayMessage));
+
+    progress = new JProgressBar(0, 100);
+    progress.setFont(new Font("Comic Sans MS", Font.PLAIN, 13));
+    progress.setBounds(50, 610, 450, 30);
+    progress.setStringPainted(true);
+    progress.setVisible(false);
+    c.add(progress);
     formFrame.setVisible(true);
 
 
@@ -227,7 +243,12 @@ public class StartView extends JFrame implements IStarterView {
       public void mouseClicked(MouseEvent e) {
         super.mouseClicked(e);
         JButton ch = (JButton) e.getSource();
-        if (ch.getText().equals("Reset")) {
+        if (ch.getText().equals("Cancel")) {
+          if (ch.isEnabled()) {
+            listener.cancelGeneration();
+          }
+        }
+        else if (ch.getText().equals("Reset")) {
           rows.setText(null);
           columns.setText(null);
           wrapLabel.setText(null);
@@ -261,6 +282,10 @@ public class StartView extends JFrame implements IStarterView {
               displayMessage.setWrapStyleWord(true);
             }
             System.out.println(listener + "1");
+            progress.setValue(0);
+            progress.setString("Creating the dungeon...");
+            progress.setVisible(true);
+            cancel.setEnabled(true);
             if (wrapLabel.getText().equals("n") || wrapLabel.getText().equals("N")) {
               listener.createDungeon(row, column, false, interconnectivity, treasureCoverage,
                       noOfMonsters, noOfPits);
@@ -280,6 +305,20 @@ public class StartView extends JFrame implements IStarterView {
     };
     submit.addMouseListener(clickAdapter);
     reset.addMouseListener(clickAdapter);
+    cancel.addMouseListener(clickAdapter);
+  }
+
+  @Override
+  public void showProgress(GenerationPhase phase) {
+    progress.setValue(phase.getPercentDone());
+    progress.setString(phase.getDescription());
+  }
+
+  @Override
+  public void showGenerationStopped(String message) {
+    progress.setVisible(false);
+    cancel.setEnabled(false);
+    displayMessage.setText(message);
   }
 
   @Override
@@ -297,6 +336,8 @@ public class StartView extends JFrame implements IStarterView {
 
   @Override
   public void makeVisible(boolean visible) {
+    progress.setVisible(false);
+    cancel.setEnabled(false);
     frame.setVisible(visible);
     formFrame.setVisible(visible);
   }
@@ -0,0 +1,136 @@
+package view;
+
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * Shared store of the images used to draw the cells of the dungeon. Every sprite is read from the
+ * resources only once, and the tiles composed from them are cached by the visual state of the cell
+ * and the size they are drawn at, so repainting a cell that did not change does not read or
+ * allocate any image.
+ */
+final class TileAtlas {
+
+  static final int NORTH = 1;
+  static final int SOUTH = 1 << 1;
+  static final int EAST = 1 << 2;
+  static final int WEST = 1 << 3;
+  static final int PLAYER = 1 << 4;
+  static final int WEAK_SMELL = 1 << 5;
+  static final int STRONG_SMELL = 1 << 6;
+  static final int PIT = 1 << 7;
+  static final int RUBY = 1 << 8;
+  static final int DIAMOND = 1 << 9;
+  static final int EMERALD = 1 << 10;
+  static final int ARROW = 1 << 11;
+  static final int MONSTER = 1 << 12;
+
+  private static final int MAX_TILES = 1024;
+
+  private static final Map<String, BufferedImage> SPRITES = new HashMap<>();
+
+  private static final Map<Long, Image> TILES =
+          new LinkedHashMap<Long, Image>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Image> eldest) {
+              return size() > MAX_TILES;
+            }
+          };
+
+  private TileAtlas() {
+    // static store only.
+  }
+
+  /**
+   * Returns the tile for the given visual state scaled to the given size. The overlays are drawn
+   * on the base tile in the order player, smell, pit, treasure, arrow and monster.
+   *
+   * @param state  bits of the visual state of the cell.
+   * @param width  width of the tile.
+   * @param height height of the tile.
+   * @return the scaled tile.
+   * @throws IOException if one of the images can't be read.
+   */
+  static Image getTile(int state, int width, int height) throws IOException {
+    Long key = ((long) state << 32) | ((long) (width & 0xFFFF) << 16) | (height & 0xFFFF);
+    Image tile = TILES.get(key);
+    if (tile == null) {
+      tile = scale(compose(state), width, height);
+      TILES.put(key, tile);
+    }
+    return tile;
+  }
+
+  private static BufferedImage compose(int state) throws IOException {
+    String exits = "";
+    if ((state & NORTH) != 0) {
+      exits += "N";
+    }
+    if ((state & SOUTH) != 0) {
+      exits += "S";
+    }
+    if ((state & EAST) != 0) {
+      exits += "E";
+    }
+    if ((state & WEST) != 0) {
+      exits += "W";
+    }
+    BufferedImage tile = sprite("/images/" + exits + ".png");
+    tile = overlay(tile, state, PLAYER, "/images/player.png", 30, 25);
+    tile = overlay(tile, state, WEAK_SMELL, "/images/weak.png", 25, 27);
+    tile = overlay(tile, state, STRONG_SMELL, "/images/strong.png", 25, 27);
+    tile = overlay(tile, state, PIT, "/images/pit.png", 30, 30);
+    tile = overlay(tile, state, RUBY, "/images/ruby_1.png", 20, 10);
+    tile = overlay(tile, state, DIAMOND, "/images/diamond_1.png", 30, 10);
+    tile = overlay(tile, state, EMERALD, "/images/emerald_1.png", 40, 10);
+    tile = overlay(tile, state, ARROW, "/images/arrow-white.png", 15, 20);
+    tile = overlay(tile, state, MONSTER, "/images/otyugh.png", 25, 27);
+    return tile;
+  }
+
+  private static BufferedImage overlay(BufferedImage starting, int state, int flag, String path,
+                                       int x, int y) throws IOException {
+    if ((state & flag) == 0) {
+      return starting;
+    }
+    BufferedImage overlay = sprite(path);
+    int w = Math.max(starting.getWidth(), overlay.getWidth());
+    int h = Math.max(starting.getHeight(), overlay.getHeight());
+    BufferedImage combined = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+    Graphics g = combined.getGraphics();
+    g.drawImage(starting, 0, 0, null);
+    g.drawImage(overlay, x, y, null);
+    g.dispose();
+    return combined;
+  }
+
+  private static Image scale(BufferedImage tile, int width, int height) {
+    Image scaled = tile.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics g = image.getGraphics();
+    g.drawImage(scaled, 0, 0, null);
+    g.dispose();
+    return image;
+  }
+
+  private static BufferedImage sprite(String path) throws IOException {
+    BufferedImage sprite = SPRITES.get(path);
+    if (sprite == null) {
+      try (InputStream in = TileAtlas.class.getResourceAsStream(path)) {
+        if (in == null) {
+          throw new IOException("Missing image " + path);
+        }
+        sprite = ImageIO.read(in);
+      }
+      SPRITES.put(path, sprite);
+    }
+    return sprite;
+  }
+}
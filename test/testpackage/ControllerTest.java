@@ -5,6 +5,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.StringReader;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import controller.DungeonConsoleController;
 import controller.GuiController;
@@ -20,6 +22,7 @@ import view.IView;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Class created to test the functionality of the controller and model together.
@@ -175,6 +178,46 @@ public class ControllerTest {
     assertEquals(str,log.toString());
   }
 
+  @Test
+  public void mockViewOnGameLoop() throws InterruptedException {
+    StringBuilder log = new StringBuilder();
+    IStarterView view = new MockView(log);
+    IView view1 = new MockView(log);
+    ReadOnlyDungeon mock = new MockModel(log, "abc");
+    GuiController a = new GuiController(view);
+    a.copyViewCreated(view1);
+    a.copyDungeonCreated(mock);
+    CountDownLatch done = new CountDownLatch(1);
+    int[] outcome = new int[1];
+    a.move(Direction.EAST, value -> {
+      outcome[0] = value;
+      done.countDown();
+    });
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(1, outcome[0]);
+    assertEquals("\nThe player is moving in EAST direction.\nrefresh\n", log.toString());
+  }
+
+  @Test
+  public void failedCommandReachesTheView() throws InterruptedException {
+    StringBuilder log = new StringBuilder();
+    GuiController a = new GuiController(new MockView(new StringBuilder()));
+    a.copyViewCreated(new MockView(log));
+    a.copyDungeonCreated(new MockModel(new StringBuilder(), "abc") {
+      @Override
+      public boolean movePlayer(Direction direction) {
+        throw new IllegalStateException("The game is over");
+      }
+    });
+    a.move(Direction.EAST, value -> fail("A failed move has no outcome"));
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!log.toString().contains("Error: The game is over")) {
+      assertTrue("The view was not told", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+    assertEquals("\nrefresh\n\nError: The game is over\n", log.toString());
+  }
+
   @Test
   public void mockCheck() {
     testRandomNumberGenerator.resetStaticVariablesForTesting();
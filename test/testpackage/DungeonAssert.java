@@ -0,0 +1,112 @@
+package testpackage;
+
+import maze.Direction;
+import maze.Dungeon;
+import maze.DungeonSnapshot;
+import maze.Location;
+import maze.Treasure;
+import radomnumbergenerator.SeededRandomGenerator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The fixture and the assertions on the state of a dungeon shared by the tests of snapshots,
+ * checkpoints and journals.
+ */
+final class DungeonAssert {
+
+  private DungeonAssert() {
+  }
+
+  /**
+   * Builds the same small wrapping dungeon on every call.
+   *
+   * @return a new dungeon.
+   */
+  static Dungeon smallDungeon() {
+    return new Dungeon(20, 30, true, 5, 0.5, 8, 4, new SeededRandomGenerator(11));
+  }
+
+  /**
+   * Asserts that two snapshots hold the same state, cell by cell and for the player.
+   *
+   * @param expected the expected state.
+   * @param actual   the actual state.
+   */
+  static void assertSameState(DungeonSnapshot expected, DungeonSnapshot actual) {
+    assertEquals(expected.getRows(), actual.getRows());
+    assertEquals(expected.getCols(), actual.getCols());
+    for (int row = 0; row < expected.getRows(); row++) {
+      for (int col = 0; col < expected.getCols(); col++) {
+        for (Direction direction : Direction.values()) {
+          assertEquals(expected.hasExit(row, col, direction),
+                  actual.hasExit(row, col, direction));
+        }
+        assertEquals(expected.isCave(row, col), actual.isCave(row, col));
+        assertEquals(expected.isTunnel(row, col), actual.isTunnel(row, col));
+        assertEquals(expected.isPit(row, col), actual.isPit(row, col));
+        assertEquals(expected.hasPlayer(row, col), actual.hasPlayer(row, col));
+        assertEquals(expected.getArrowCount(row, col), actual.getArrowCount(row, col));
+        for (Treasure treasure : Treasure.values()) {
+          assertEquals(expected.getTreasureCount(row, col, treasure),
+                  actual.getTreasureCount(row, col, treasure));
+        }
+        assertEquals(expected.getMonsterLives(row, col), actual.getMonsterLives(row, col));
+        assertEquals(expected.getSmell(row, col), actual.getSmell(row, col));
+      }
+    }
+    assertEquals(expected.getPlayerRow(), actual.getPlayerRow());
+    assertEquals(expected.getPlayerCol(), actual.getPlayerCol());
+    assertEquals(expected.getPlayerArrowCount(), actual.getPlayerArrowCount());
+    assertEquals(expected.isPlayerAlive(), actual.isPlayerAlive());
+    assertEquals(expected.getTreasureCollected(), actual.getTreasureCollected());
+    assertEquals(expected.isGameOver(), actual.isGameOver());
+  }
+
+  /**
+   * Asserts that two dungeons are in the same state.
+   *
+   * @param expected the dungeon in the expected state.
+   * @param actual   the dungeon in the actual state.
+   */
+  static void assertSameState(Dungeon expected, Dungeon actual) {
+    assertSameState(expected.getSnapshot(), actual.getSnapshot());
+  }
+
+  /**
+   * Asserts that a snapshot holds the state the locations of the dungeon are in.
+   *
+   * @param dungeon  the dungeon.
+   * @param snapshot the snapshot of the dungeon.
+   */
+  static void assertMatches(Dungeon dungeon, DungeonSnapshot snapshot) {
+    Location[][] locations = dungeon.getLocations();
+    for (int row = 0; row < dungeon.getRows(); row++) {
+      for (int col = 0; col < dungeon.getCols(); col++) {
+        Location location = locations[row][col];
+        for (Direction direction : Direction.values()) {
+          assertEquals(location.getDirectionOfLocation(direction) != null,
+                  snapshot.hasExit(row, col, direction));
+        }
+        assertEquals(location.getIsCave(), snapshot.isCave(row, col));
+        assertEquals(location.getIsTunnel(), snapshot.isTunnel(row, col));
+        assertEquals(location.isPit(), snapshot.isPit(row, col));
+        assertEquals(location.hasPlayer(), snapshot.hasPlayer(row, col));
+        assertEquals(location.getArrowCount(), snapshot.getArrowCount(row, col));
+        for (Treasure treasure : Treasure.values()) {
+          assertEquals((int) location.getTreasureMap().getOrDefault(treasure, 0),
+                  snapshot.getTreasureCount(row, col, treasure));
+        }
+        assertEquals(location.getMonster() == null ? -1 : location.getMonster().getLives(),
+                snapshot.getMonsterLives(row, col));
+        assertEquals(location.checkSmellStrength(), snapshot.getSmell(row, col));
+      }
+    }
+    Location current = dungeon.getPlayer().getCurrentLocation();
+    assertEquals(current.getRowPos(), snapshot.getPlayerRow());
+    assertEquals(current.getColPos(), snapshot.getPlayerCol());
+    assertEquals(dungeon.getPlayer().getArrowCountOfPlayer(), snapshot.getPlayerArrowCount());
+    assertEquals(dungeon.getPlayer().isAlive(), snapshot.isPlayerAlive());
+    assertEquals(dungeon.isGameOver(), snapshot.isGameOver());
+  }
+}
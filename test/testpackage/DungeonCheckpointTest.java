@@ -0,0 +1,175 @@
+package testpackage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import maze.CellCategory;
+import maze.Direction;
+import maze.Dungeon;
+import maze.DungeonCheckpoint;
+import maze.DungeonSnapshot;
+import maze.Location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static testpackage.DungeonAssert.assertSameState;
+
+/**
+ * The test class that tests saving the state of a game and restoring it.
+ */
+public class DungeonCheckpointTest {
+
+  private Dungeon dungeon;
+
+  @Before
+  public void setUp() {
+    dungeon = DungeonAssert.smallDungeon();
+  }
+
+  private void killMonster() {
+    for (Location[] row : dungeon.getLocations()) {
+      for (Location location : row) {
+        dungeon.getPlayer().getCurrentLocation().setHasPlayer(false);
+        dungeon.getPlayer().setCurrentLocation(location);
+        location.setHasPlayer(true);
+        Map<Direction, Integer> shots = dungeon.getShotsAtLiveMonsters();
+        if (!shots.isEmpty()) {
+          Direction direction = shots.keySet().iterator().next();
+          dungeon.getPlayer().setArrowCount(2);
+          dungeon.shoot(direction, shots.get(direction));
+          dungeon.shoot(direction, shots.get(direction));
+          return;
+        }
+      }
+    }
+    throw new IllegalStateException("No monster can be shot");
+  }
+
+  private void collectEverything() {
+    for (Location location : dungeon.getLocations(CellCategory.TREASURE)) {
+      dungeon.getPlayer().setCurrentLocation(location);
+      dungeon.pickup(true);
+    }
+    for (Location location : dungeon.getLocations(CellCategory.ARROWS)) {
+      dungeon.getPlayer().setCurrentLocation(location);
+      dungeon.pickup(false);
+    }
+  }
+
+  @Test
+  public void testRestoreUndoesTheGame() {
+    DungeonSnapshot initial = dungeon.getSnapshot();
+    int monsters = dungeon.countLocations(CellCategory.LIVE_MONSTER);
+    int treasure = dungeon.countLocations(CellCategory.TREASURE);
+    int arrows = dungeon.countLocations(CellCategory.ARROWS);
+    DungeonCheckpoint checkpoint = dungeon.checkpoint();
+    killMonster();
+    collectEverything();
+    dungeon.setGameOver(true);
+    assertEquals(monsters - 1, dungeon.countLocations(CellCategory.LIVE_MONSTER));
+    assertEquals(0, dungeon.countLocations(CellCategory.TREASURE));
+
+    dungeon.restore(checkpoint);
+    assertSameState(initial, dungeon.getSnapshot());
+    assertEquals(monsters, dungeon.countLocations(CellCategory.LIVE_MONSTER));
+    assertEquals(treasure, dungeon.countLocations(CellCategory.TREASURE));
+    assertEquals(arrows, dungeon.countLocations(CellCategory.ARROWS));
+    assertFalse(dungeon.isGameOver());
+    assertTrue(dungeon.getPlayer().getTreasureCollected().isEmpty());
+  }
+
+  @Test
+  public void testRestoreMoreThanOnce() {
+    DungeonCheckpoint checkpoint = dungeon.checkpoint();
+    DungeonSnapshot initial = dungeon.getSnapshot();
+    collectEverything();
+    dungeon.restore(checkpoint);
+    killMonster();
+    dungeon.restore(checkpoint);
+    assertSameState(initial, dungeon.getSnapshot());
+  }
+
+  @Test
+  public void testRestoreOnlyTouchesChangedCells() {
+    DungeonCheckpoint checkpoint = dungeon.checkpoint();
+    dungeon.getSnapshot();
+    dungeon.getChangedLocations();
+    dungeon.restore(checkpoint);
+    assertTrue(dungeon.getChangedLocations().isEmpty());
+    Location arrows = dungeon.getLocations(CellCategory.ARROWS).get(0);
+    int count = arrows.getArrowCount();
+    dungeon.getPlayer().setCurrentLocation(arrows);
+    dungeon.pickup(false);
+    assertEquals(0, arrows.getArrowCount());
+    dungeon.getChangedLocations();
+    dungeon.restore(checkpoint);
+    assertEquals(1, dungeon.getChangedLocations().size());
+    assertEquals(count, arrows.getArrowCount());
+    assertEquals(3, dungeon.getPlayer().getArrowCountOfPlayer());
+  }
+
+  @Test
+  public void testBranchFromTheSameTurn() {
+    DungeonCheckpoint checkpoint = dungeon.checkpoint();
+    Location start = dungeon.getPlayer().getCurrentLocation();
+    for (Direction direction : Direction.values()) {
+      if (start.getDirectionOfLocation(direction) != null) {
+        dungeon.movePlayer(direction);
+        assertEquals(start.getDirectionOfLocation(direction),
+                dungeon.getPlayer().getCurrentLocation());
+        dungeon.restore(checkpoint);
+        assertEquals(start, dungeon.getPlayer().getCurrentLocation());
+        assertTrue(start.hasPlayer());
+      }
+    }
+  }
+
+  @Test
+  public void testIndexAfterPickupsAndRestore() {
+    DungeonCheckpoint start = dungeon.checkpoint();
+    List<Location> treasure = dungeon.getLocations(CellCategory.TREASURE);
+    // well past the number of cells the index keeps positions for in a grid of this size.
+    assertTrue(treasure.size() > 64);
+    Set<Location> left = new HashSet<>();
+    for (int i = 0; i < treasure.size(); i++) {
+      if (i % 2 == 0) {
+        dungeon.getPlayer().setCurrentLocation(treasure.get(i));
+        dungeon.pickup(true);
+      } else {
+        left.add(treasure.get(i));
+      }
+    }
+    assertEquals(left.size(), dungeon.countLocations(CellCategory.TREASURE));
+    List<Location> remaining = dungeon.getLocations(CellCategory.TREASURE);
+    assertEquals(left.size(), remaining.size());
+    assertEquals(left, new HashSet<>(remaining));
+
+    dungeon.getPlayer().setCurrentLocation(treasure.get(1));
+    dungeon.pickup(true);
+    dungeon.restore(start);
+    dungeon.getPlayer().setCurrentLocation(treasure.get(0));
+    dungeon.pickup(true);
+    dungeon.restore(start);
+    assertEquals(treasure.size(), dungeon.countLocations(CellCategory.TREASURE));
+    remaining = dungeon.getLocations(CellCategory.TREASURE);
+    assertEquals(treasure.size(), remaining.size());
+    assertEquals(new HashSet<>(treasure), new HashSet<>(remaining));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCheckpointOfAnotherDungeon() {
+    Dungeon other = DungeonAssert.smallDungeon();
+    dungeon.restore(other.checkpoint());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullCheckpoint() {
+    dungeon.restore(null);
+  }
+}
@@ -0,0 +1,76 @@
+package testpackage;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import maze.Dungeon;
+import maze.GenerationListener;
+import maze.GenerationPhase;
+import radomnumbergenerator.SeededRandomGenerator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The test class that tests reporting the progress of the dungeon generation and cancelling it.
+ */
+public class DungeonGenerationTest {
+
+  private static final long SEED = 21;
+
+  @Test
+  public void testGenerationPhasesInOrder() {
+    List<GenerationPhase> phases = new ArrayList<>();
+    new Dungeon(30, 40, false, 4, 0.5, 6, 5, new SeededRandomGenerator(SEED),
+            new GenerationListener() {
+          @Override
+          public void phaseCompleted(GenerationPhase phase) {
+            phases.add(phase);
+          }
+        });
+    assertEquals(Arrays.asList(GenerationPhase.values()), phases);
+    assertEquals(100, GenerationPhase.MONSTERS.getPercentDone());
+  }
+
+  @Test
+  public void testCancelledGeneration() {
+    List<GenerationPhase> phases = new ArrayList<>();
+    try {
+      new Dungeon(30, 40, false, 4, 0.5, 6, 5, new SeededRandomGenerator(SEED),
+              new GenerationListener() {
+            @Override
+            public void phaseCompleted(GenerationPhase phase) {
+              phases.add(phase);
+            }
+
+            @Override
+            public boolean isCancelled() {
+              return phases.contains(GenerationPhase.CAVES_AND_TUNNELS);
+            }
+          });
+      throw new AssertionError("The generation was not cancelled");
+    } catch (CancellationException e) {
+      assertEquals(Arrays.asList(GenerationPhase.SPANNING_TREE,
+              GenerationPhase.CAVES_AND_TUNNELS), phases);
+    }
+  }
+
+  @Test(expected = CancellationException.class)
+  public void testCancelledBeforeSpanningTree() {
+    new Dungeon(100, 100, true, 4, 0.5, 6, 5, new SeededRandomGenerator(SEED),
+            new GenerationListener() {
+          @Override
+          public boolean isCancelled() {
+            return true;
+          }
+        });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullGenerationListener() {
+    new Dungeon(6, 7, true, 0, 0.2, 5, 3, new SeededRandomGenerator(SEED), null);
+  }
+}
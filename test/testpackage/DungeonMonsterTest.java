@@ -4,11 +4,21 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
 import maze.Direction;
 import maze.Dungeon;
+import maze.GameEventListener;
+import maze.Location;
 import maze.Maze;
 import maze.Monster;
 import maze.Smell;
+import radomnumbergenerator.SeededRandomGenerator;
 import radomnumbergenerator.TestRandomNumberGenerator;
 
 import static org.junit.Assert.assertEquals;
@@ -28,6 +38,7 @@ public class DungeonMonsterTest {
   @Before
   public void setUp() {
     TestRandomNumberGenerator testRandomNumberGenerator = new TestRandomNumberGenerator();
+    testRandomNumberGenerator.resetStaticVariablesForTesting();
     dungeon = new Dungeon(6, 8, false,0, 0.3,
             4,2, testRandomNumberGenerator);
     this.testRandomNumberGenerator = testRandomNumberGenerator;
@@ -207,6 +218,242 @@ public class DungeonMonsterTest {
     assertFalse(dungeon.getPlayer().isAlive());
   }
 
+  private StringBuilder recordEvents(Maze maze) {
+    StringBuilder events = new StringBuilder();
+    maze.addGameEventListener(new GameEventListener() {
+      @Override
+      public void moved(Location from, Location to, Direction direction) {
+        events.append("moved ").append(direction).append(' ');
+      }
+
+      @Override
+      public void eaten(Location location) {
+        events.append("eaten ");
+      }
+
+      @Override
+      public void escaped(Location location) {
+        events.append("escaped ");
+      }
+
+      @Override
+      public void monsterHit(Location location) {
+        events.append("hit ").append(location.getRowPos()).append(location.getColPos())
+                .append(' ');
+      }
+
+      @Override
+      public void monsterKilled(Location location) {
+        events.append("killed ");
+      }
+
+      @Override
+      public void treasurePickedUp(Location location, int count) {
+        events.append("treasure ").append(count).append(' ');
+      }
+
+      @Override
+      public void arrowsPickedUp(Location location, int count) {
+        events.append("arrows ").append(count).append(' ');
+      }
+
+      @Override
+      public void reachedEnd(Location location) {
+        events.append("end ");
+      }
+    });
+    return events;
+  }
+
+  @Test
+  public void testShotEvents() {
+    StringBuilder events = recordEvents(dungeon);
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[4][4]);
+    dungeon.shoot(Direction.NORTH, 1);
+    dungeon.shoot(Direction.SOUTH, 1);
+    dungeon.shoot(Direction.SOUTH, 1);
+    assertEquals("hit 54 killed ", events.toString());
+  }
+
+  @Test
+  public void testEatenEvent() {
+    StringBuilder events = recordEvents(dungeon);
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[4][4]);
+    dungeon.movePlayer(Direction.SOUTH);
+    assertEquals("moved SOUTH eaten ", events.toString());
+  }
+
+  @Test
+  public void testPickupEvents() {
+    StringBuilder events = recordEvents(dungeon);
+    dungeon.pickup(true);
+    dungeon.pickup(true);
+    assertEquals("treasure 1 ", events.toString());
+  }
+
+  @Test
+  public void testRemovedListener() {
+    StringBuilder events = new StringBuilder();
+    GameEventListener listener = new GameEventListener() {
+      @Override
+      public void monsterHit(Location location) {
+        events.append("hit ");
+      }
+    };
+    dungeon.addGameEventListener(listener);
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[4][4]);
+    dungeon.shoot(Direction.SOUTH, 1);
+    dungeon.removeGameEventListener(listener);
+    dungeon.shoot(Direction.SOUTH, 1);
+    assertEquals("hit ", events.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullListener() {
+    dungeon.addGameEventListener(null);
+  }
+
+  @Test
+  public void testDistanceBetweenLocations() {
+    Dungeon d = (Dungeon) dungeon;
+    assertEquals(8, d.getDistance(d.getPlayer().getStartLocation(),
+            d.getPlayer().getFinalLocation()));
+    assertEquals(1, d.getDistance(d.getLocations()[4][4], d.getLocations()[5][4]));
+    assertEquals(0, d.getDistance(d.getLocations()[4][4], d.getLocations()[4][4]));
+  }
+
+  @Test
+  public void testDistanceToNearestMonsterAfterKill() {
+    Dungeon d = (Dungeon) dungeon;
+    d.getPlayer().setCurrentLocation(d.getLocations()[4][4]);
+    assertEquals(1, d.getDistanceToNearestMonster(d.getLocations()[4][4]));
+    d.shoot(Direction.SOUTH, 1);
+    assertEquals(1, d.getDistanceToNearestMonster(d.getLocations()[4][4]));
+    d.shoot(Direction.SOUTH, 1);
+    assertEquals(10, d.getDistanceToNearestMonster(d.getLocations()[4][4]));
+  }
+
+  @Test
+  public void testOptimalPathFromEveryLocation() {
+    Dungeon d = (Dungeon) dungeon;
+    Location end = d.getPlayer().getFinalLocation();
+    for (Location[] row : d.getLocations()) {
+      for (Location location : row) {
+        int distance = d.getDistance(location, end);
+        if (distance < 5) {
+          continue;
+        }
+        d.getPlayer().setCurrentLocation(location);
+        List<Location> path = d.getPlayer().searchForOptimalPaths();
+        assertEquals(distance + 1, path.size());
+        assertEquals(location, path.get(0));
+        assertEquals(end, path.get(path.size() - 1));
+        for (int i = 1; i < path.size(); i++) {
+          assertEquals(1, d.getDistance(path.get(i - 1), path.get(i)));
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the path the way the breadth first search over the locations did, trying the
+   * directions in their order and keeping the first way every location was reached by.
+   */
+  private List<Location> breadthFirstPath(Location start, Location end) {
+    Map<Location, Location> parent = new HashMap<>();
+    Deque<Location> queue = new ArrayDeque<>();
+    parent.put(start, start);
+    queue.add(start);
+    while (!queue.isEmpty() && !parent.containsKey(end)) {
+      Location location = queue.poll();
+      for (Direction direction : Direction.values()) {
+        Location next = location.getDirectionOfLocation(direction);
+        if (next != null && !parent.containsKey(next)) {
+          parent.put(next, location);
+          queue.add(next);
+        }
+      }
+    }
+    LinkedList<Location> path = new LinkedList<>();
+    for (Location location = end; !location.equals(start); location = parent.get(location)) {
+      path.addFirst(location);
+    }
+    path.addFirst(start);
+    return path;
+  }
+
+  @Test
+  public void testOptimalPathBreaksTiesLikeBreadthFirstSearch() {
+    for (int seed = 0; seed < 6; seed++) {
+      Dungeon d = new Dungeon(12, 16, seed % 2 == 0, 12, 0.3, 3, 2,
+              new SeededRandomGenerator(seed));
+      Location end = d.getPlayer().getFinalLocation();
+      for (Location[] row : d.getLocations()) {
+        for (Location location : row) {
+          if (d.getDistance(location, end) < 5) {
+            continue;
+          }
+          d.getPlayer().setCurrentLocation(location);
+          assertEquals(breadthFirstPath(location, end), d.getPlayer().searchForOptimalPaths());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDungeonsAfterPlacementsRunOut() {
+    for (int i = 0; i < 60; i++) {
+      Maze maze = new Dungeon(6, 8, false, 0, 0.3, 4, 2, testRandomNumberGenerator);
+      int countMonsters = 0;
+      for (Location[] row : maze.getLocations()) {
+        for (Location location : row) {
+          if (location.getMonster() != null) {
+            countMonsters++;
+          }
+        }
+      }
+      assertEquals(4, countMonsters);
+      assertNotNull(maze.getPlayer().getCurrentLocation());
+    }
+  }
+
+  @Test
+  public void testShotsAtLiveMonsters() {
+    Dungeon d = (Dungeon) dungeon;
+    d.getPlayer().setCurrentLocation(d.getLocations()[4][4]);
+    assertEquals(Integer.valueOf(1), d.getShotsAtLiveMonsters().get(Direction.SOUTH));
+    d.shoot(Direction.SOUTH, 1);
+    assertEquals(Integer.valueOf(1), d.getShotsAtLiveMonsters().get(Direction.SOUTH));
+    d.shoot(Direction.SOUTH, 1);
+    assertNull(d.getShotsAtLiveMonsters().get(Direction.SOUTH));
+  }
+
+  @Test
+  public void testSmellClearsAfterKill() {
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[4][4]);
+    assertEquals(Smell.STRONG, dungeon.getLocations()[4][4].checkSmellStrength());
+    dungeon.shoot(Direction.SOUTH, 1);
+    assertEquals(Smell.STRONG, dungeon.getLocations()[4][4].checkSmellStrength());
+    dungeon.shoot(Direction.SOUTH, 1);
+    assertEquals(Smell.NONE, dungeon.getLocations()[4][4].checkSmellStrength());
+    assertEquals(0, (int) dungeon.getLocations()[4][4].checkForMonsters().get(1));
+  }
+
+  @Test
+  public void testChangedLocationsAfterKill() {
+    assertTrue(dungeon.getChangedLocations().isEmpty());
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[4][4]);
+    dungeon.getChangedLocations();
+    dungeon.shoot(Direction.SOUTH, 1);
+    assertTrue(dungeon.getChangedLocations().contains(dungeon.getLocations()[5][4]));
+    dungeon.shoot(Direction.SOUTH, 1);
+    List<Location> changed = dungeon.getChangedLocations();
+    assertTrue(changed.contains(dungeon.getLocations()[5][4]));
+    assertTrue(changed.contains(dungeon.getLocations()[4][4]));
+    assertFalse(changed.contains(dungeon.getLocations()[0][0]));
+    assertTrue(dungeon.getChangedLocations().isEmpty());
+  }
+
   @Test
   public void testNoOfPits() {
     int noOfPits = 0;
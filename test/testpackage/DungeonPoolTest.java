@@ -0,0 +1,93 @@
+package testpackage;
+
+import org.junit.After;
+import org.junit.Test;
+
+import controller.DungeonPool;
+import maze.Dungeon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The test class that tests the pool of dungeons generated ahead of time.
+ */
+public class DungeonPoolTest {
+
+  private static final long ONE_DUNGEON = Dungeon.estimatedBytes(10, 10);
+
+  private DungeonPool pool;
+
+  @After
+  public void tearDown() {
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  private void awaitReady(int rows, int ready) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (pool.countReady(rows, 10, true, 2, 0.5, 3, 2) != ready) {
+      assertTrue("The pool was not refilled", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void testTakeRefillsThePool() throws InterruptedException {
+    pool = new DungeonPool(10 * ONE_DUNGEON, 1);
+    pool.refill(10, 10, true, 2, 0.5, 3, 2);
+    awaitReady(10, 1);
+    assertEquals(ONE_DUNGEON, pool.getPooledBytes());
+    Dungeon dungeon = pool.take(10, 10, true, 2, 0.5, 3, 2);
+    assertEquals(10, dungeon.getRows());
+    assertEquals(10, dungeon.getCols());
+    assertEquals(3, dungeon.getPlayer().getArrowCountOfPlayer());
+    awaitReady(10, 1);
+  }
+
+  @Test
+  public void testMissLeavesTheGenerationToTheCaller() throws InterruptedException {
+    pool = new DungeonPool(10 * ONE_DUNGEON, 1);
+    assertNull(pool.take(10, 10, true, 2, 0.5, 3, 2));
+    // a dungeon this small is built in well under this time when it is queued at all.
+    Thread.sleep(300);
+    assertEquals(0, pool.countReady(10, 10, true, 2, 0.5, 3, 2));
+    assertEquals(0, pool.getPooledBytes());
+    pool.refill(10, 10, true, 2, 0.5, 3, 2);
+    awaitReady(10, 1);
+  }
+
+  @Test
+  public void testOldestParametersAreEvicted() throws InterruptedException {
+    pool = new DungeonPool(ONE_DUNGEON + ONE_DUNGEON / 2, 1);
+    pool.refill(10, 10, true, 2, 0.5, 3, 2);
+    awaitReady(10, 1);
+    pool.refill(9, 10, true, 2, 0.5, 3, 2);
+    awaitReady(9, 1);
+    assertEquals(0, pool.countReady(10, 10, true, 2, 0.5, 3, 2));
+    assertTrue(pool.getPooledBytes() <= ONE_DUNGEON + ONE_DUNGEON / 2);
+  }
+
+  @Test
+  public void testDungeonLargerThanThePool() {
+    pool = new DungeonPool(ONE_DUNGEON - 1, 1);
+    assertNull(pool.take(10, 10, true, 2, 0.5, 3, 2));
+    assertEquals(0, pool.countReady(10, 10, true, 2, 0.5, 3, 2));
+    assertEquals(0, pool.getPooledBytes());
+  }
+
+  @Test
+  public void testClosedPool() {
+    pool = new DungeonPool(10 * ONE_DUNGEON, 1);
+    pool.close();
+    assertNull(pool.take(10, 10, true, 2, 0.5, 3, 2));
+    assertEquals(0, pool.getPooledBytes());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyPool() {
+    pool = new DungeonPool(0, 1);
+  }
+}
@@ -0,0 +1,134 @@
+package testpackage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import maze.Direction;
+import maze.Dungeon;
+import maze.DungeonSnapshot;
+import maze.Location;
+import maze.Treasure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static testpackage.DungeonAssert.assertMatches;
+
+/**
+ * The test class that tests the immutable snapshots of the dungeon.
+ */
+public class DungeonSnapshotTest {
+
+  private Dungeon dungeon;
+
+  @Before
+  public void setUp() {
+    dungeon = DungeonAssert.smallDungeon();
+  }
+
+  private Direction openDirection() {
+    Location current = dungeon.getPlayer().getCurrentLocation();
+    for (Direction direction : Direction.values()) {
+      if (current.getDirectionOfLocation(direction) != null) {
+        return direction;
+      }
+    }
+    throw new IllegalStateException("The player can't move");
+  }
+
+  @Test
+  public void testSnapshotMatchesDungeon() {
+    assertMatches(dungeon, dungeon.getSnapshot());
+  }
+
+  @Test
+  public void testNothingChanged() {
+    DungeonSnapshot first = dungeon.getSnapshot();
+    assertSame(first, dungeon.getSnapshot());
+    dungeon.movePlayer(null);
+    assertSame(first, dungeon.getSnapshot());
+  }
+
+  @Test
+  public void testOldSnapshotKeepsItsState() {
+    DungeonSnapshot before = dungeon.getSnapshot();
+    int row = before.getPlayerRow();
+    int col = before.getPlayerCol();
+    dungeon.movePlayer(openDirection());
+    DungeonSnapshot after = dungeon.getSnapshot();
+    assertNotSame(before, after);
+    assertEquals(before.getVersion() + 1, after.getVersion());
+    assertTrue(before.hasPlayer(row, col));
+    assertFalse(after.hasPlayer(row, col));
+    assertEquals(row, before.getPlayerRow());
+    assertEquals(col, before.getPlayerCol());
+    assertMatches(dungeon, after);
+  }
+
+  @Test
+  public void testUnchangedCellsAreShared() {
+    DungeonSnapshot before = dungeon.getSnapshot();
+    int row = before.getPlayerRow();
+    int col = before.getPlayerCol();
+    dungeon.movePlayer(openDirection());
+    DungeonSnapshot after = dungeon.getSnapshot();
+    assertFalse(after.isUnchangedSince(before, row, col));
+    assertFalse(after.isUnchangedSince(before, after.getPlayerRow(), after.getPlayerCol()));
+    int shared = 0;
+    for (int r = 0; r < after.getRows(); r++) {
+      for (int c = 0; c < after.getCols(); c++) {
+        if (after.isUnchangedSince(before, r, c)) {
+          shared++;
+        }
+      }
+    }
+    assertTrue(shared >= after.getRows() * after.getCols() - 4 * 64);
+  }
+
+  @Test
+  public void testPickupAndShot() {
+    DungeonSnapshot before = dungeon.getSnapshot();
+    dungeon.pickup(true);
+    dungeon.pickup(false);
+    dungeon.shoot(openDirection(), 1);
+    DungeonSnapshot after = dungeon.getSnapshot();
+    assertMatches(dungeon, after);
+    assertEquals(3, before.getPlayerArrowCount());
+    assertTrue(before.getTreasureCollected().isEmpty());
+  }
+
+  @Test
+  public void testSmellAfterKill() {
+    dungeon.getSnapshot();
+    for (Location[] row : dungeon.getLocations()) {
+      for (Location location : row) {
+        dungeon.getPlayer().setCurrentLocation(location);
+        Map<Direction, Integer> shots = dungeon.getShotsAtLiveMonsters();
+        if (!shots.isEmpty()) {
+          Direction direction = shots.keySet().iterator().next();
+          dungeon.getPlayer().setArrowCount(2);
+          dungeon.shoot(direction, shots.get(direction));
+          dungeon.shoot(direction, shots.get(direction));
+          assertMatches(dungeon, dungeon.getSnapshot());
+          return;
+        }
+      }
+    }
+    throw new IllegalStateException("No monster can be shot");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testTreasureCollectedCantBeModified() {
+    Map<Treasure, Integer> collected = dungeon.getSnapshot().getTreasureCollected();
+    collected.put(Treasure.RUBY, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOutsideTheDungeon() {
+    dungeon.getSnapshot().isCave(20, 0);
+  }
+}
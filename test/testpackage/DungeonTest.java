@@ -12,6 +12,7 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 
+import maze.CellCategory;
 import maze.Direction;
 import maze.Dungeon;
 import maze.Location;
@@ -34,6 +35,7 @@ public class DungeonTest {
   @Before
   public void setUp() {
     TestRandomNumberGenerator testRandomNumberGenerator = new TestRandomNumberGenerator();
+    testRandomNumberGenerator.resetStaticVariablesForTesting();
     wrappingDungeon = new Dungeon(6, 7, true, 0,
             0.2, 5, 3,new TestRandomNumberGenerator());
 
@@ -92,6 +94,41 @@ public class DungeonTest {
 
   }
 
+  /**
+   * Returns the entrances of every cell, row by row, as one hexadecimal digit per cell with a bit
+   * for every direction in its order.
+   */
+  private String exitMasks(Dungeon dungeon) {
+    StringBuilder masks = new StringBuilder();
+    for (Location[] row : dungeon.getLocations()) {
+      for (Location location : row) {
+        int mask = 0;
+        for (Direction direction : Direction.values()) {
+          if (location.getDirectionOfLocation(direction) != null) {
+            mask |= 1 << direction.ordinal();
+          }
+        }
+        masks.append(Integer.toHexString(mask));
+      }
+    }
+    return masks.toString();
+  }
+
+  @Test
+  public void testParallelEdgesOfNarrowWrappingDungeons() {
+    // the edges are taken in the order they are created, the same dungeons the search over the
+    // locations built before the disjoint set replaced it.
+    testRandomNumberGenerator.resetStaticVariablesForTesting();
+    Dungeon twoRows = new Dungeon(2, 12, true, 0, 0.2, 1, 1, testRandomNumberGenerator);
+    assertEquals(35, twoRows.getNoOfEdges());
+    assertEquals("ffffffffffb7333333333333", exitMasks(twoRows));
+
+    testRandomNumberGenerator.resetStaticVariablesForTesting();
+    Dungeon twoColumns = new Dungeon(12, 2, true, 0, 0.2, 1, 1, testRandomNumberGenerator);
+    assertEquals(33, twoColumns.getNoOfEdges());
+    assertEquals("b5fcfcfcfcfcfcfcfcfcdc22", exitMasks(twoColumns));
+  }
+
   @Test
   public void testInterconnectivity() {
     int edges = wrappingDungeon.getNoOfEdges();
@@ -206,4 +243,59 @@ public class DungeonTest {
   }
 
 
-}
\ No newline at end of file
+
+  @Test
+  public void testCategoryIndexesMatchTheLocations() {
+    int caves = 0;
+    int treasure = 0;
+    int arrows = 0;
+    int monsters = 0;
+    for (Location[] row : wrappingDungeon.getLocations()) {
+      for (Location location : row) {
+        caves += location.getIsCave() ? 1 : 0;
+        treasure += location.getTreasureAtLocation().isEmpty() ? 0 : 1;
+        arrows += location.getArrowCount() > 0 ? 1 : 0;
+        monsters += location.getMonster() != null && location.getMonster().getIsAlive() ? 1 : 0;
+      }
+    }
+    assertEquals(caves, wrappingDungeon.countLocations(CellCategory.CAVE));
+    assertEquals(42 - caves, wrappingDungeon.countLocations(CellCategory.TUNNEL));
+    assertEquals(3, wrappingDungeon.countLocations(CellCategory.PIT));
+    assertEquals(treasure, wrappingDungeon.countLocations(CellCategory.TREASURE));
+    assertEquals(arrows, wrappingDungeon.countLocations(CellCategory.ARROWS));
+    assertEquals(monsters, wrappingDungeon.countLocations(CellCategory.LIVE_MONSTER));
+    for (Location location : wrappingDungeon.getLocations(CellCategory.TREASURE)) {
+      assertTrue(location.getTreasureAtLocation().size() > 0);
+    }
+  }
+
+  @Test
+  public void testTreasureIndexAfterPickup() {
+    Location treasureLocation = wrappingDungeon.getLocations(CellCategory.TREASURE).get(0);
+    int before = wrappingDungeon.countLocations(CellCategory.TREASURE);
+    wrappingDungeon.getPlayer().setCurrentLocation(treasureLocation);
+    wrappingDungeon.pickup(true);
+    assertEquals(before - 1, wrappingDungeon.countLocations(CellCategory.TREASURE));
+    assertTrue(!wrappingDungeon.getLocations(CellCategory.TREASURE).contains(treasureLocation));
+  }
+
+  @Test
+  public void testLocationViewsAreEqual() {
+    Location[][] first = wrappingDungeon.getLocations();
+    Location[][] second = wrappingDungeon.getLocations();
+    assertTrue(first != second);
+    assertEquals(first[2][3], second[2][3]);
+    assertEquals(first[2][3].hashCode(), second[2][3].hashCode());
+    assertTrue(!first[2][3].equals(second[3][2]));
+    Location start = wrappingDungeon.getPlayer().getStartLocation();
+    assertEquals(start, first[start.getRowPos()][start.getColPos()]);
+    assertEquals(start, new Location(start));
+    for (Direction direction : Direction.values()) {
+      Location next = start.getDirectionOfLocation(direction);
+      if (next != null) {
+        assertEquals(next, start.getDirectionOfLocation(direction));
+        assertEquals(next, first[next.getRowPos()][next.getColPos()]);
+      }
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package testpackage;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+
+import server.GameServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The test class that tests playing games over the game server.
+ */
+public class GameServerTest {
+
+  private static final String PARAMETERS = "8 9 true 2 0.5 2 1\n";
+
+  private GameServer server;
+
+  @After
+  public void tearDown() {
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  private GameServer start(int sessions, long bytes) throws IOException {
+    server = new GameServer(0, sessions, bytes);
+    server.start();
+    return server;
+  }
+
+  private Socket connect() throws IOException {
+    Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    socket.setSoTimeout(10_000);
+    return socket;
+  }
+
+  private String play(String input) throws IOException {
+    try (Socket socket = connect()) {
+      OutputStream out = socket.getOutputStream();
+      out.write(input.getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      return new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private String readUntil(InputStream in, String expected) throws IOException {
+    StringBuilder read = new StringBuilder();
+    while (!read.toString().contains(expected)) {
+      int c = in.read();
+      if (c == -1) {
+        break;
+      }
+      read.append((char) c);
+    }
+    return read.toString();
+  }
+
+  private void awaitNoSessions() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (server.getActiveSessions() != 0) {
+      assertTrue("The sessions did not end", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void testPlaySession() throws Exception {
+    start(4, 1 << 20);
+    try (Socket socket = connect()) {
+      InputStream in = socket.getInputStream();
+      OutputStream out = socket.getOutputStream();
+      assertTrue(readUntil(in, "pits:\n").startsWith("Enter rows, columns"));
+      out.write((PARAMETERS + "show\n").getBytes(StandardCharsets.UTF_8));
+      assertTrue(readUntil(in, "Shoot(S)?").contains("Number of arrows that player has : 3"));
+      out.write("P A\n".getBytes(StandardCharsets.UTF_8));
+      assertTrue(readUntil(in, "Shoot(S)?").contains("What do you want to pickup?"));
+      out.write("q\n".getBytes(StandardCharsets.UTF_8));
+      assertTrue(readUntil(in, "Goodbye!\n").endsWith("Goodbye!\n"));
+    }
+    awaitNoSessions();
+    assertEquals(1, server.getTotalSessions());
+    assertTrue(server.getTurnTimer().getCount() >= 2);
+  }
+
+  @Test
+  public void testInvalidParameters() throws Exception {
+    start(4, 1 << 20);
+    assertTrue(play("8 9 true\n").contains("Expected 7 parameters."));
+    assertTrue(play("a b c d e f g\n").contains("The parameters have to be numbers."));
+    assertTrue(play("8 9 true 2 5 2 1\n").contains("Treasure has to be between 0.2 to 1"));
+  }
+
+  @Test
+  public void testDungeonTooLarge() throws Exception {
+    start(4, 1000);
+    assertTrue(play(PARAMETERS).contains("The dungeon is too large for this server."));
+  }
+
+  @Test
+  public void testServerFull() throws Exception {
+    start(1, 1 << 20);
+    try (Socket first = connect()) {
+      readUntil(first.getInputStream(), "pits:");
+      assertTrue(play(PARAMETERS).contains("The server is full"));
+      assertEquals(1, server.getRejectedSessions());
+      assertEquals(1, server.getActiveSessions());
+    }
+    awaitNoSessions();
+    assertTrue(play(PARAMETERS + "q\n").endsWith("Goodbye!\n"));
+  }
+
+  @Test
+  public void testWordTooLong() throws Exception {
+    start(4, 1 << 20);
+    StringBuilder word = new StringBuilder(PARAMETERS);
+    for (int i = 0; i < 1000; i++) {
+      word.append('M');
+    }
+    assertTrue(play(word + "\n").endsWith("Goodbye!\n"));
+  }
+
+  @Test
+  public void testConcurrentSessions() throws Exception {
+    start(100, 1 << 20);
+    ExecutorService players = Executors.newFixedThreadPool(50);
+    try {
+      List<Future<String>> games = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        games.add(players.submit(() -> play(PARAMETERS + "show\nP T\nP A\nq\n")));
+      }
+      for (Future<String> game : games) {
+        assertTrue(game.get().endsWith("Goodbye!\n"));
+      }
+    } finally {
+      players.shutdownNow();
+    }
+    awaitNoSessions();
+    assertEquals(100, server.getTotalSessions());
+    assertEquals(0, server.getRejectedSessions());
+  }
+
+  @Test
+  public void testRegister() throws Exception {
+    start(4, 1 << 20);
+    MBeanServer beans = MBeanServerFactory.newMBeanServer();
+    server.register(beans);
+    server.register(beans);
+    assertEquals(4, beans.getAttribute(GameServer.nameOf("sessions"), "MaxSessions"));
+    assertEquals(0L, beans.getAttribute(GameServer.nameOf("turn"), "Count"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoSessions() throws IOException {
+    new GameServer(0, 0, 1);
+  }
+}
@@ -0,0 +1,97 @@
+package testpackage;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+
+import metrics.Metric;
+import metrics.Metrics;
+import metrics.Timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The test class that tests the timers and their registration over JMX.
+ */
+public class MetricsTest {
+
+  @Test
+  public void testEmptyTimer() {
+    Timer timer = new Timer();
+    assertEquals(0, timer.getCount());
+    assertEquals(0, timer.getMeanMicros(), 0);
+    assertEquals(0, timer.getPercentile99Micros(), 0);
+  }
+
+  @Test
+  public void testRecord() {
+    Timer timer = new Timer();
+    for (int i = 1; i <= 100; i++) {
+      timer.record(i * 1000L);
+    }
+    assertEquals(100, timer.getCount());
+    assertEquals(5.05, timer.getTotalMillis(), 1e-9);
+    assertEquals(50.5, timer.getMeanMicros(), 1e-9);
+    assertEquals(100, timer.getMaxMicros(), 0);
+    assertEquals(100, timer.getPercentileMicros(100), 0);
+  }
+
+  @Test
+  public void testPercentilesWithinAnEighth() {
+    Timer timer = new Timer();
+    for (int i = 1; i <= 1000; i++) {
+      timer.record(i * 997L);
+    }
+    assertEquals(500 * 997 / 1e3, timer.getPercentile50Micros(), 500 * 997 / 1e3 / 8);
+    assertEquals(900 * 997 / 1e3, timer.getPercentile90Micros(), 900 * 997 / 1e3 / 8);
+    assertEquals(990 * 997 / 1e3, timer.getPercentile99Micros(), 990 * 997 / 1e3 / 8);
+    assertTrue(timer.getPercentile50Micros() >= 500 * 997 / 1e3);
+  }
+
+  @Test
+  public void testReset() {
+    Timer timer = new Timer();
+    timer.record(42);
+    timer.record(-5);
+    timer.reset();
+    assertEquals(0, timer.getCount());
+    assertEquals(0, timer.getMaxMicros(), 0);
+    assertEquals(0, timer.getPercentile50Micros(), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPercentile() {
+    new Timer().getPercentileMicros(101);
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    assertFalse(Metrics.isEnabled());
+    long count = Metric.SHOOT.getTimer().getCount();
+    Metrics.stop(Metric.SHOOT, Metrics.start());
+    assertEquals(0, Metrics.start());
+    assertEquals(count, Metric.SHOOT.getTimer().getCount());
+  }
+
+  @Test
+  public void testRegister() throws Exception {
+    MBeanServer server = MBeanServerFactory.newMBeanServer();
+    Metrics.register(server);
+    Metrics.register(server);
+    for (Metric metric : Metric.values()) {
+      assertTrue(server.isRegistered(Metrics.nameOf(metric)));
+    }
+    assertEquals("adventure:type=Model,name=shoot", Metrics.nameOf(Metric.SHOOT).toString());
+    Metric.MAP_PAINT.getTimer().record(3000);
+    assertEquals(Metric.MAP_PAINT.getTimer().getCount(),
+            server.getAttribute(Metrics.nameOf(Metric.MAP_PAINT), "Count"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRegisterNullServer() {
+    Metrics.register(null);
+  }
+}
@@ -1,10 +1,15 @@
 package testpackage;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import maze.Direction;
 import maze.Dungeon;
+import maze.DungeonCheckpoint;
+import maze.DungeonSnapshot;
+import maze.GameEventListener;
 import maze.Location;
 import maze.Maze;
 import maze.Player;
@@ -129,5 +134,35 @@ public class MockModel implements Maze, ReadOnlyDungeon {
     return 1;
   }
 
+  @Override
+  public List<Location> getChangedLocations() {
+    return new ArrayList<>();
+  }
+
+  @Override
+  public DungeonSnapshot getSnapshot() {
+    return null;
+  }
+
+  @Override
+  public DungeonCheckpoint checkpoint() {
+    return null;
+  }
+
+  @Override
+  public void restore(DungeonCheckpoint checkpoint) {
+    log.append("\nRestoring the dungeon.");
+  }
+
+  @Override
+  public void addGameEventListener(GameEventListener listener) {
+    return;
+  }
+
+  @Override
+  public void removeGameEventListener(GameEventListener listener) {
+    return;
+  }
+
 
 }
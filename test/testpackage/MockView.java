@@ -4,6 +4,7 @@ import java.awt.event.KeyListener;
 import java.io.IOException;
 
 import controller.GuiController;
+import maze.GenerationPhase;
 import view.IStarterView;
 import view.IView;
 
@@ -62,4 +63,31 @@ public class MockView implements IView, IStarterView {
       // do nothing
     }
   }
+
+  @Override
+  public void showProgress(GenerationPhase phase) {
+    try {
+      log.append("\nGenerated: " + phase + "\n");
+    } catch (IOException e) {
+      // do nothing
+    }
+  }
+
+  @Override
+  public void showGenerationStopped(String message) {
+    try {
+      log.append("\n" + message + "\n");
+    } catch (IOException e) {
+      // do nothing
+    }
+  }
+
+  @Override
+  public void showError(String message) {
+    try {
+      log.append("\nError: " + message + "\n");
+    } catch (IOException e) {
+      // do nothing
+    }
+  }
 }
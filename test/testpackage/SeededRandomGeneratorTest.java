@@ -0,0 +1,139 @@
+package testpackage;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import maze.Direction;
+import maze.Dungeon;
+import maze.Location;
+import maze.Player;
+import radomnumbergenerator.SeededRandomGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The test class that tests that a seeded generator rebuilds the same dungeon.
+ */
+public class SeededRandomGeneratorTest {
+
+  private Dungeon build(long seed) {
+    return new Dungeon(12, 15, true, 4, 0.5, 6, 3,
+            new SeededRandomGenerator(seed));
+  }
+
+  private String describe(Dungeon dungeon) {
+    StringBuilder description = new StringBuilder();
+    for (Location[] row : dungeon.getLocations()) {
+      for (Location location : row) {
+        for (Direction direction : Direction.values()) {
+          description.append(location.getDirectionOfLocation(direction) != null ? '1' : '0');
+        }
+        description.append(location.getTreasureAtLocation()).append(location.getArrowCount())
+                .append(location.isPit()).append(location.getMonster() != null).append(' ');
+      }
+    }
+    description.append(dungeon.getPlayer().getStartLocation().getRowPos())
+            .append(dungeon.getPlayer().getStartLocation().getColPos())
+            .append(dungeon.getPlayer().getFinalLocation().getRowPos())
+            .append(dungeon.getPlayer().getFinalLocation().getColPos());
+    return description.toString();
+  }
+
+  @Test
+  public void testSameSeedBuildsSameDungeon() {
+    assertEquals(describe(build(42)), describe(build(42)));
+  }
+
+  @Test
+  public void testDifferentSeedsBuildDifferentDungeons() {
+    assertFalse(describe(build(42)).equals(describe(build(43))));
+  }
+
+  @Test
+  public void testSplitIsReproducible() {
+    SeededRandomGenerator first = new SeededRandomGenerator(7).split();
+    SeededRandomGenerator second = new SeededRandomGenerator(7).split();
+    assertEquals(first.getSeed(), second.getSeed());
+    int[] firstValues = new int[20];
+    int[] secondValues = new int[20];
+    for (int i = 0; i < 20; i++) {
+      firstValues[i] = first.randomValue(1000);
+      secondValues[i] = second.randomValue(1000);
+    }
+    assertTrue(Arrays.equals(firstValues, secondValues));
+  }
+
+  @Test
+  public void testSplitIsIndependent() {
+    SeededRandomGenerator generator = new SeededRandomGenerator(7);
+    SeededRandomGenerator split = generator.split();
+    int[] values = new int[20];
+    int[] splitValues = new int[20];
+    for (int i = 0; i < 20; i++) {
+      values[i] = generator.randomValue(1000);
+      splitValues[i] = split.randomValue(1000);
+    }
+    assertFalse(Arrays.equals(values, splitValues));
+  }
+
+  @Test
+  public void testFullCoverageFillsEveryCaveOnce() {
+    Dungeon dungeon = new Dungeon(30, 30, false, 10, 1, 1, 0,
+            new SeededRandomGenerator(5));
+    for (Location[] row : dungeon.getLocations()) {
+      for (Location location : row) {
+        int expected = location.getIsTunnel() ? 0 : 1;
+        assertEquals(expected, location.getTreasureAtLocation().size());
+        assertEquals(expected, location.getArrowCount());
+      }
+    }
+  }
+
+  @Test
+  public void testMonstersInEveryOtherCave() {
+    Dungeon dungeon = build(9);
+    int caves = 0;
+    for (Location[] row : dungeon.getLocations()) {
+      for (Location location : row) {
+        if (!location.getIsTunnel()) {
+          caves++;
+        }
+      }
+    }
+    Dungeon crowded = new Dungeon(12, 15, true, 4, 0.5, caves - 1, 3,
+            new SeededRandomGenerator(9));
+    int monsters = 0;
+    for (Location[] row : crowded.getLocations()) {
+      for (Location location : row) {
+        if (location.getMonster() != null) {
+          monsters++;
+        }
+      }
+    }
+    assertEquals(caves - 1, monsters);
+    assertNull(crowded.getPlayer().getStartLocation().getMonster());
+  }
+
+  @Test
+  public void testStartAndEndAreFarEnoughApart() {
+    for (long seed = 0; seed < 50; seed++) {
+      Dungeon dungeon = new Dungeon(6, 6, seed % 2 == 0, 2, 0.3, 1, 2,
+              new SeededRandomGenerator(seed));
+      Location start = dungeon.getPlayer().getStartLocation();
+      assertTrue(start.getIsCave());
+      assertFalse(start.isPit());
+      assertTrue(dungeon.getPlayer().getFinalLocation().getIsCave());
+      assertTrue(dungeon.getDistance(start, dungeon.getPlayer().getFinalLocation())
+              >= Player.MINIMUM_MOVES);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoCavesFarEnoughApart() {
+    new Dungeon(2, 2, false, 0, 0.3, 1, 0, new SeededRandomGenerator(1));
+  }
+}
@@ -0,0 +1,63 @@
+package testpackage;
+
+import org.junit.Test;
+
+import simulation.HunterStrategy;
+import simulation.Outcome;
+import simulation.RandomWalkStrategy;
+import simulation.ShortestPathStrategy;
+import simulation.Simulation;
+import simulation.SimulationResult;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The test class that tests the headless simulation of games.
+ */
+public class SimulationTest {
+
+  private final Simulation simulation = new Simulation(6, 8, false, 0,
+          0.3, 1, 0, 500);
+
+  @Test
+  public void testEveryGameIsCounted() {
+    SimulationResult result = simulation.run(40, RandomWalkStrategy::new, 2, 7);
+    assertEquals(40, result.getGamesPlayed() + result.getGenerationFailures());
+    assertTrue(result.getGamesPerSecond() > 0);
+  }
+
+  @Test
+  public void testShortestPathAlwaysEndsTheGame() {
+    SimulationResult result = simulation.run(40, ShortestPathStrategy::new, 2, 7);
+    assertEquals(0, result.getCount(Outcome.OUT_OF_TURNS));
+    assertEquals(0, result.getCount(Outcome.FELL_IN_PIT));
+    assertEquals(0, result.getArrowsShot());
+  }
+
+  @Test
+  public void testHunterKillsTheMonsterAtTheEnd() {
+    SimulationResult result = simulation.run(40, HunterStrategy::new, 2, 7);
+    assertEquals(result.getGamesPlayed(), result.getCount(Outcome.WON));
+    assertEquals(result.getGamesPlayed(), result.getMonstersKilled());
+  }
+
+  @Test
+  public void testSameSeedPlaysSameGames() {
+    SimulationResult first = simulation.run(30, HunterStrategy::new, 3, 11);
+    SimulationResult second = simulation.run(30, HunterStrategy::new, 3, 11);
+    assertEquals(first.getOutcomes(), second.getOutcomes());
+    assertEquals(first.getTurns(), second.getTurns());
+    assertEquals(first.getArrowsShot(), second.getArrowsShot());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidNumberOfGames() {
+    simulation.run(-1, RandomWalkStrategy::new, 2, 7);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidNumberOfTurns() {
+    new Simulation(6, 8, false, 0, 0.3, 1, 0, 0);
+  }
+}
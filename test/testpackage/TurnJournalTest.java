@@ -0,0 +1,150 @@
+package testpackage;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import controller.DungeonConsoleController;
+import journal.GameSetup;
+import journal.JournalReplay;
+import journal.JournaledMaze;
+import journal.TurnJournal;
+import maze.Direction;
+import maze.Dungeon;
+import maze.DungeonCheckpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static testpackage.DungeonAssert.assertSameState;
+
+/**
+ * The test class that tests recording the turns of a game and replaying them.
+ */
+public class TurnJournalTest {
+
+  private static final GameSetup SETUP = new GameSetup(42, 15, 20, true, 4, 0.5, 6, 3);
+
+  private Dungeon playRandomTurns(TurnJournal journal, int turns) {
+    Dungeon dungeon = SETUP.createDungeon();
+    playRandomTurns(new JournaledMaze(dungeon, journal), turns, 7);
+    return dungeon;
+  }
+
+  private void playRandomTurns(JournaledMaze maze, int turns, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    Direction[] directions = Direction.values();
+    for (int i = 0; i < turns && !maze.isGameOver(); i++) {
+      int choice = random.nextInt(10);
+      Direction direction = directions[random.nextInt(directions.length)];
+      if (choice < 6) {
+        if (maze.getPlayer().getCurrentLocation().getDirectionOfLocation(direction) != null
+                && !maze.movePlayer(direction)) {
+          maze.setGameOver(true);
+        }
+      } else if (choice < 8) {
+        maze.pickup(choice == 6);
+      } else if (maze.getPlayer().getArrowCountOfPlayer() > 0) {
+        maze.shoot(direction, 1 + random.nextInt(3));
+      }
+    }
+  }
+
+  @Test
+  public void testReplayRebuildsTheGame() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    TurnJournal journal = new TurnJournal(bytes, SETUP);
+    Dungeon played = playRandomTurns(journal, 2000);
+    long turns = journal.getTurns();
+    journal.close();
+    JournalReplay replay = JournalReplay.replay(new ByteArrayInputStream(bytes.toByteArray()));
+    assertEquals(turns, replay.getTurns());
+    assertEquals(42, replay.getSetup().getSeed());
+    assertSameState(played, replay.getDungeon());
+  }
+
+  @Test
+  public void testReplayRestoresCheckpoints() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Dungeon played = SETUP.createDungeon();
+    try (TurnJournal journal = new TurnJournal(bytes, SETUP)) {
+      JournaledMaze maze = new JournaledMaze(played, journal);
+      DungeonCheckpoint start = maze.checkpoint();
+      playRandomTurns(maze, 300, 1);
+      DungeonCheckpoint middle = maze.checkpoint();
+      playRandomTurns(maze, 300, 2);
+      maze.restore(middle);
+      playRandomTurns(maze, 300, 3);
+      maze.restore(start);
+      playRandomTurns(maze, 300, 4);
+    }
+    assertSameState(played,
+            JournalReplay.replay(new ByteArrayInputStream(bytes.toByteArray())).getDungeon());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRestoreCheckpointOfAnotherGame() throws IOException {
+    Dungeon played = SETUP.createDungeon();
+    try (TurnJournal journal = new TurnJournal(new ByteArrayOutputStream(), SETUP)) {
+      new JournaledMaze(played, journal).restore(played.checkpoint());
+    }
+  }
+
+  @Test
+  public void testRecordsAreCompact() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    TurnJournal journal = new TurnJournal(bytes, SETUP);
+    int header = bytes.size();
+    playRandomTurns(journal, 2000);
+    long turns = journal.getTurns();
+    journal.close();
+    assertTrue(bytes.size() - header <= 2 * turns);
+  }
+
+  @Test
+  public void testConsoleGame() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Dungeon played = SETUP.createDungeon();
+    try (TurnJournal journal = new TurnJournal(bytes, SETUP)) {
+      StringBuilder log = new StringBuilder();
+      StringBuilder turns = new StringBuilder("P A P T ");
+      for (Direction direction : Direction.values()) {
+        if (played.getPlayer().getCurrentLocation().getDirectionOfLocation(direction) != null) {
+          turns.append("S ").append(direction).append(" 2 M ").append(direction).append(' ');
+          break;
+        }
+      }
+      new DungeonConsoleController(new StringReader(turns + "q"), log,
+              new JournaledMaze(played, journal)).playGame();
+    }
+    assertSameState(played,
+            JournalReplay.replay(new ByteArrayInputStream(bytes.toByteArray())).getDungeon());
+  }
+
+  @Test
+  public void testJournalCutShort() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (TurnJournal journal = new TurnJournal(bytes, SETUP)) {
+      journal.pickup(false);
+      journal.shoot(Direction.NORTH, 1000);
+    }
+    byte[] cut = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1);
+    assertEquals(1, JournalReplay.replay(new ByteArrayInputStream(cut)).getTurns());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotAJournal() throws IOException {
+    JournalReplay.replay(new ByteArrayInputStream(new byte[64]));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testClosedJournal() throws IOException {
+    TurnJournal journal = new TurnJournal(new ByteArrayOutputStream(), SETUP);
+    journal.close();
+    journal.pickup(true);
+  }
+}
@@ -135,14 +135,14 @@ public class WrappingDungeonMonster {
 
   @Test
   public void checkSmellAtOneLocationBeforeEnd() {
-    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][4]);
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][5]);
     Smell smell = dungeon.getPlayer().getCurrentLocation().checkSmellStrength();
     assertEquals(smell, Smell.STRONG);
   }
 
   @Test
   public void checkSmellAtTwoLocationsBeforeEnd() {
-    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][3]);
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[2][6]);
     Smell smell = dungeon.getPlayer().getCurrentLocation().checkSmellStrength();
     assertEquals(smell, Smell.WEAK);
   }
@@ -163,46 +163,46 @@ public class WrappingDungeonMonster {
 
   @Test
   public void shootArrow() {
-    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][4]);
-    assertEquals(2, dungeon.getLocations()[5][4].getMonster().getLives());
-    dungeon.shoot(Direction.NORTH, 1);
-    assertEquals(1, dungeon.getLocations()[5][4].getMonster().getLives());
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][5]);
+    assertEquals(2, dungeon.getLocations()[0][6].getMonster().getLives());
+    dungeon.shoot(Direction.EAST, 1);
+    assertEquals(1, dungeon.getLocations()[0][6].getMonster().getLives());
   }
 
   @Test
   public void arrowDecrement() {
-    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][4]);
-    assertEquals(2, dungeon.getLocations()[5][4].getMonster().getLives());
-    dungeon.shoot(Direction.NORTH, 1);
-    assertTrue(dungeon.getLocations()[5][4].getMonster().getIsAlive());
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][5]);
+    assertEquals(2, dungeon.getLocations()[0][6].getMonster().getLives());
+    dungeon.shoot(Direction.EAST, 1);
+    assertTrue(dungeon.getLocations()[0][6].getMonster().getIsAlive());
     assertEquals(2, dungeon.getPlayer().getArrowCountOfPlayer());
   }
 
   @Test
   public void checkMonsterDead() {
-    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][4]);
-    assertEquals(2, dungeon.getLocations()[5][4].getMonster().getLives());
-    dungeon.shoot(Direction.NORTH, 1);
-    assertTrue(dungeon.getLocations()[5][4].getMonster().getIsAlive());
-    dungeon.shoot(Direction.NORTH, 1);
-    assertFalse(dungeon.getLocations()[5][4].getMonster().getIsAlive());
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][5]);
+    assertEquals(2, dungeon.getLocations()[0][6].getMonster().getLives());
+    dungeon.shoot(Direction.EAST, 1);
+    assertTrue(dungeon.getLocations()[0][6].getMonster().getIsAlive());
+    dungeon.shoot(Direction.EAST, 1);
+    assertFalse(dungeon.getLocations()[0][6].getMonster().getIsAlive());
   }
 
   @Test
   public void escapeChanceForPlayer() {
-    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[4][4]);
-    assertEquals(2, dungeon.getLocations()[5][4].getMonster().getLives());
-    dungeon.shoot(Direction.SOUTH, 1);
-    assertTrue(dungeon.getLocations()[5][4].getMonster().getIsAlive());
-    dungeon.movePlayer(Direction.SOUTH);
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[1][6]);
+    assertEquals(2, dungeon.getLocations()[0][6].getMonster().getLives());
+    dungeon.shoot(Direction.NORTH, 1);
+    assertTrue(dungeon.getLocations()[0][6].getMonster().getIsAlive());
+    dungeon.movePlayer(Direction.NORTH);
     assertTrue(dungeon.getPlayer().isAlive());
   }
 
   @Test
   public void playerEatenByMonster() {
-    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][4]);
-    assertEquals(2, dungeon.getLocations()[5][4].getMonster().getLives());
-    dungeon.movePlayer(Direction.NORTH);
+    dungeon.getPlayer().setCurrentLocation(dungeon.getLocations()[0][5]);
+    assertEquals(2, dungeon.getLocations()[0][6].getMonster().getLives());
+    dungeon.movePlayer(Direction.EAST);
     assertFalse(dungeon.getPlayer().isAlive());
   }
 }